@@ -0,0 +1,70 @@
+package chatbot.benchmark;
+
+import chatbot.domain.entity.Message;
+import chatbot.infrastructure.persistence.JdbcConversationRepository;
+import chatbot.infrastructure.persistence.MessageArchive;
+import chatbot.infrastructure.persistence.MessageBatchWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Embedded H2 database (MySQL mode) migrated like production (H2Migrations), with one user and one conversation
+final class BenchmarkDatabase implements AutoCloseable {
+
+    static final int USER_ID = 1;
+    static final int CONVERSATION_ID = 1;
+
+    private final HikariDataSource dataSource;
+    final JdbcTemplate jdbcTemplate;
+
+    BenchmarkDatabase() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(16);
+        H2Migrations.migrate(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password) VALUES (?, 'Bench', 'bench@example.com', 'bench')", USER_ID);
+        jdbcTemplate.update("INSERT INTO conversations (id, name, user_id, created_at) VALUES (?, 'Bench', ?, ?)",
+                CONVERSATION_ID, USER_ID, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    void seedMessages(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Message number " + i + " of the benchmark conversation, long enough to look like a real chat turn.",
+                    Timestamp.valueOf(LocalDateTime.now()), i % 2 == 0, CONVERSATION_ID});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO messages (content, timestamp, is_user, conversation_id) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    // Write-behind disabled so every turn's insert is part of the measured time
+    JdbcConversationRepository conversationRepository() {
+        MessageBatchWriter writer = new MessageBatchWriter(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource())), new SimpleMeterRegistry(),
+                false, 1, 1, 1, 1, 1);
+        return new JdbcConversationRepository(jdbcTemplate, writer, new MessageArchive(jdbcTemplate), 500, 60, 1000);
+    }
+
+    static List<Message> messages(int count) {
+        List<Message> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(new Message(i + 1, "Message number " + i + " with some typical chat content in it.",
+                    LocalDateTime.now(), i % 2 == 0));
+        }
+        return messages;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,106 @@
+package chatbot.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.ResourceProvider;
+import org.flywaydb.core.api.resource.LoadableResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Applies the application's Flyway migrations to H2, so benchmarks run on the schema production runs on.
+// H2 has no partitioning, MySQL trigger bodies or FULLTEXT indexes; those clauses are left out of the scripts
+// and everything else (tables, keys, indexes, backfills) is applied as written.
+final class H2Migrations implements ResourceProvider {
+
+    private static final String LOCATION = "db/migration/";
+    private static final List<Pattern> MYSQL_ONLY = List.of(
+            Pattern.compile("(?<=\\))\\s*PARTITION BY [^;]*(?=;)"),
+            Pattern.compile("(?s)CREATE TRIGGER .*?;"),
+            Pattern.compile("CREATE FULLTEXT INDEX [^;]*;"));
+
+    private final List<Script> scripts = new ArrayList<>();
+
+    private H2Migrations() {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath:" + LOCATION + "*.sql")) {
+                String sql = resource.getContentAsString(StandardCharsets.UTF_8);
+                for (Pattern pattern : MYSQL_ONLY) {
+                    sql = pattern.matcher(sql).replaceAll("");
+                }
+                scripts.add(new Script(resource.getFilename(), sql));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void migrate(DataSource dataSource) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .resourceProvider(new H2Migrations())
+                .load()
+                .migrate();
+    }
+
+    @Override
+    public LoadableResource getResource(String name) {
+        return scripts.stream().filter(script -> script.getRelativePath().equals(name)).findFirst().orElse(null);
+    }
+
+    @Override
+    public Collection<LoadableResource> getResources(String prefix, String[] suffixes) {
+        List<LoadableResource> matching = new ArrayList<>();
+        for (Script script : scripts) {
+            if (script.filename.startsWith(prefix) && Arrays.stream(suffixes).anyMatch(script.filename::endsWith)) {
+                matching.add(script);
+            }
+        }
+        return matching;
+    }
+
+    private static final class Script extends LoadableResource {
+        private final String filename;
+        private final String sql;
+
+        private Script(String filename, String sql) {
+            this.filename = filename;
+            this.sql = sql;
+        }
+
+        @Override
+        public Reader read() {
+            return new StringReader(sql);
+        }
+
+        @Override
+        public String getAbsolutePath() {
+            return getRelativePath();
+        }
+
+        @Override
+        public String getAbsolutePathOnDisk() {
+            return null;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getRelativePath() {
+            return LOCATION + filename;
+        }
+    }
+}
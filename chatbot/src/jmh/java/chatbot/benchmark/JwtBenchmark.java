@@ -0,0 +1,69 @@
+package chatbot.benchmark;
+
+import chatbot.infrastructure.config.JwtEncodedServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.Key;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Token cost per request under contention: issuing a token, and decoding with a parser built and the signature
+// verified on every call (the previous implementation) versus the shared parser with the verified-token cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class JwtBenchmark {
+
+    private static final int USERS = 1000;
+    private static final String SECRET = "thulinhloaibocuadaiduongthulinhloaibocuadaiduong";
+
+    private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+    private JwtEncodedServiceImpl jwtService;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtEncodedServiceImpl(null, 100_000, null);
+        tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = jwtService.encode(i + 1);
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        return jwtService.encode(ThreadLocalRandom.current().nextInt(USERS) + 1);
+    }
+
+    @Benchmark
+    public Integer parserPerCall() {
+        String token = tokens[ThreadLocalRandom.current().nextInt(USERS)];
+        return Integer.valueOf(Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject());
+    }
+
+    @Benchmark
+    public Integer cachedDecode() {
+        return jwtService.decode(tokens[ThreadLocalRandom.current().nextInt(USERS)]);
+    }
+}
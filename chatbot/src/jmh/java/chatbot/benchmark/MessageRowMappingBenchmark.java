@@ -0,0 +1,64 @@
+package chatbot.benchmark;
+
+import chatbot.domain.entity.Message;
+import chatbot.infrastructure.persistence.JdbcConversationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Query plus row mapping of JdbcConversationRepository against an embedded database: one page of
+// messages, and streaming a whole conversation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageRowMappingBenchmark {
+
+    private static final int CONVERSATION_LENGTH = 10_000;
+
+    private BenchmarkDatabase database;
+    private JdbcConversationRepository repository;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.seedMessages(CONVERSATION_LENGTH);
+        repository = database.conversationRepository();
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Message> latestPage(Page page) {
+        return repository.getMessages(BenchmarkDatabase.CONVERSATION_ID, null, null, page.size);
+    }
+
+    @Benchmark
+    public void streamConversation(Blackhole blackhole) {
+        repository.forEachMessage(BenchmarkDatabase.CONVERSATION_ID, blackhole::consume);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Page {
+        @Param({"50", "200"})
+        public int size;
+    }
+}
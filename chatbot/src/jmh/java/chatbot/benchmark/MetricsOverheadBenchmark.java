@@ -0,0 +1,80 @@
+package chatbot.benchmark;
+
+import chatbot.application.service.AdmissionControl;
+import chatbot.application.service.ConversationLocks;
+import chatbot.application.usecase.SendMessageUseCase;
+import chatbot.domain.repository.ConversationRepository;
+import chatbot.infrastructure.config.JwtEncodedServiceImpl;
+import chatbot.infrastructure.external.MockAiChatService;
+import chatbot.infrastructure.metrics.MetricsAspect;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of the timing aspect on a chat turn: the same use case and repository, plain versus proxied
+// with MetricsAspect recording into a Prometheus registry
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    private BenchmarkDatabase database;
+    private SendMessageUseCase plain;
+    private SendMessageUseCase instrumented;
+    private String token;
+    private long turn;
+
+    @Setup
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.seedMessages(1000);
+        JwtEncodedServiceImpl jwtService = new JwtEncodedServiceImpl(null, 1000, null);
+        token = jwtService.encode(BenchmarkDatabase.USER_ID);
+
+        plain = new SendMessageUseCase(database.conversationRepository(), jwtService,
+                new MockAiChatService(0, 0), new ConversationLocks(60_000), AdmissionControl.UNLIMITED);
+
+        MetricsAspect aspect = new MetricsAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        ConversationRepository repository = proxy(database.conversationRepository(), aspect);
+        instrumented = proxy(new SendMessageUseCase(repository, jwtService,
+                proxy(new MockAiChatService(0, 0), aspect), new ConversationLocks(60_000), AdmissionControl.UNLIMITED), aspect);
+    }
+
+    @TearDown
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public SendMessageUseCase.SendMessageResult plain() {
+        return plain.execute(BenchmarkDatabase.CONVERSATION_ID, token, "Question number " + turn++);
+    }
+
+    @Benchmark
+    public SendMessageUseCase.SendMessageResult instrumented() {
+        return instrumented.execute(BenchmarkDatabase.CONVERSATION_ID, token, "Question number " + turn++);
+    }
+
+    private static <T> T proxy(T target, MetricsAspect aspect) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(aspect);
+        return factory.getProxy();
+    }
+}
@@ -0,0 +1,69 @@
+package chatbot.benchmark;
+
+import chatbot.application.service.BudgetedPromptBuilder;
+import chatbot.application.service.PromptBuilder;
+import chatbot.infrastructure.external.CachingPromptBuilder;
+import chatbot.infrastructure.external.HeuristicTokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Prompt assembly as done for every Gemini call: a conversation whose tokenized history is already cached
+// (each turn only adds its delta) versus one seen for the first time
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptAssemblyBenchmark {
+
+    private static final int WINDOW = 20;
+
+    private PromptBuilder promptBuilder;
+    private final List<String> history = new ArrayList<>();
+    private long version;
+    private int coldConversationId = 1_000_000;
+
+    @Setup
+    public void setUp() {
+        promptBuilder = new CachingPromptBuilder(new BudgetedPromptBuilder(new HeuristicTokenEstimator(),
+                "This is a conversation between a user and an AI assistant.", 4000, 20, 8),
+                new SimpleMeterRegistry(), 10_000);
+        for (int i = 0; i < WINDOW; i++) {
+            addEntry();
+        }
+    }
+
+    @Benchmark
+    public String warmConversation() {
+        addEntry();
+        addEntry();
+        return promptBuilder.build(1, version, "The user is planning a trip to Japan.", history, "What should I pack?");
+    }
+
+    @Benchmark
+    public String coldConversation() {
+        return promptBuilder.build(coldConversationId++, version, "The user is planning a trip to Japan.", history, "What should I pack?");
+    }
+
+    private void addEntry() {
+        version++;
+        history.add((version % 2 == 1 ? "User: " : "AI: ") + "Turn " + version + " talks about itineraries, trains and hotels in Kyoto.");
+        if (history.size() > WINDOW) {
+            history.remove(0);
+        }
+    }
+}
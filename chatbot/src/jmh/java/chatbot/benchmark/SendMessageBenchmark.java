@@ -0,0 +1,62 @@
+package chatbot.benchmark;
+
+import chatbot.application.service.AdmissionControl;
+import chatbot.application.service.ConversationLocks;
+import chatbot.application.usecase.SendMessageUseCase;
+import chatbot.infrastructure.config.JwtEncodedServiceImpl;
+import chatbot.infrastructure.external.MockAiChatService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// One chat turn end to end (token check, ownership check, mock AI, persisting both messages) against an
+// embedded database, by conversation length: the cost of a turn should not grow with the history
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SendMessageBenchmark {
+
+    @Param({"0", "1000", "10000"})
+    public int conversationLength;
+
+    private BenchmarkDatabase database;
+    private SendMessageUseCase sendMessageUseCase;
+    private String token;
+    private long turn;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase();
+        database.seedMessages(conversationLength);
+        JwtEncodedServiceImpl jwtService = new JwtEncodedServiceImpl(null, 1000, null);
+        token = jwtService.encode(BenchmarkDatabase.USER_ID);
+        sendMessageUseCase = new SendMessageUseCase(database.conversationRepository(), jwtService,
+                new MockAiChatService(0, 0), new ConversationLocks(60_000), AdmissionControl.UNLIMITED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public SendMessageUseCase.SendMessageResult sendMessage() {
+        // Distinct prompts, otherwise identical in-flight turns would be coalesced
+        return sendMessageUseCase.execute(BenchmarkDatabase.CONVERSATION_ID, token, "Question number " + turn++);
+    }
+}
@@ -4,22 +4,27 @@ import chatbot.Interface.dto.LoginRequestDto;
 import chatbot.Interface.dto.RegisterRequestDto;
 import chatbot.Interface.dto.ResponseDto;
 import chatbot.application.usecase.LoginUseCase;
+import chatbot.application.usecase.LogoutUseCase;
 import chatbot.application.usecase.RegisterUseCase;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/auth")
 public class AuthController {
 
     private final LoginUseCase loginUseCase;
     private final RegisterUseCase registerUseCase;
+    private final LogoutUseCase logoutUseCase;
 
-    public AuthController(LoginUseCase loginUseCase, RegisterUseCase registerUseCase) {
+    public AuthController(LoginUseCase loginUseCase, RegisterUseCase registerUseCase, LogoutUseCase logoutUseCase) {
         this.loginUseCase = loginUseCase;
         this.registerUseCase = registerUseCase;
+        this.logoutUseCase = logoutUseCase;
     }
 
     @PostMapping("/login")
@@ -27,9 +32,10 @@ public class AuthController {
         LoginUseCase.LoginResult result = loginUseCase.execute(request.getEmail(), request.getPassword());
         
         if (!result.isSuccess()) {
+            int statusCode = authStatus(result.getMessage(), 401);
             return ResponseEntity
-                    .status(401)
-                    .body(new ResponseDto<>(result.getMessage(), null, 401));
+                    .status(statusCode)
+                    .body(new ResponseDto<>(result.getMessage(), null, statusCode));
         }
         
         return ResponseEntity.ok(new ResponseDto<>(result.getMessage(), Map.of("token", result.getToken()), 200));
@@ -44,11 +50,31 @@ public class AuthController {
         );
         
         if (!result.isSuccess()) {
+            int statusCode = authStatus(result.getMessage(), 400);
             return ResponseEntity
-                    .status(400)
-                    .body(new ResponseDto<>(result.getMessage(), null, 400));
+                    .status(statusCode)
+                    .body(new ResponseDto<>(result.getMessage(), null, statusCode));
         }
         
         return ResponseEntity.ok(new ResponseDto<>(result.getMessage(), Map.of("token", result.getToken()), 200));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ResponseDto<Void>> logout(@RequestHeader("Authorization") String authorizationHeader) {
+        String token = authorizationHeader.replace("Bearer ", "");
+        LogoutUseCase.LogoutResult result = logoutUseCase.execute(token);
+
+        if (!result.isSuccess()) {
+            return ResponseEntity
+                    .status(401)
+                    .body(new ResponseDto<>(result.getMessage(), null, 401));
+        }
+
+        return ResponseEntity.ok(new ResponseDto<>(result.getMessage(), null, 200));
+    }
+
+    // The password hashing pool sheds load when saturated; that is not the client's fault
+    private static int authStatus(String message, int failureStatus) {
+        return message.contains("Server busy") ? 503 : failureStatus;
+    }
 }
@@ -5,15 +5,27 @@ import chatbot.Interface.dto.SendMessageRequestDto;
 import chatbot.application.usecase.CreateConversationUseCase;
 import chatbot.application.usecase.GetConversationUseCase;
 import chatbot.application.usecase.GetHistoryUseCase;
+import chatbot.application.usecase.SearchMessagesUseCase;
 import chatbot.application.usecase.SendMessageUseCase;
 import chatbot.domain.entity.Conversation;
 import chatbot.domain.entity.Message;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/chat")
 public class    ChatController {
 
@@ -21,13 +33,22 @@ public class    ChatController {
     private final CreateConversationUseCase createConversationUseCase;
     private final GetHistoryUseCase getHistoryUseCase;
     private final GetConversationUseCase GetConversationUseCase;
+    private final SearchMessagesUseCase searchMessagesUseCase;
+    private final AsyncTaskExecutor streamExecutor;
+    private final long streamTimeoutMs;
 
     public ChatController(SendMessageUseCase sendMessageUseCase,
-                          CreateConversationUseCase createConversationUseCase, GetHistoryUseCase getHistoryUseCase, GetConversationUseCase GetConversationUseCase) {
+                          CreateConversationUseCase createConversationUseCase, GetHistoryUseCase getHistoryUseCase, GetConversationUseCase GetConversationUseCase,
+                          SearchMessagesUseCase searchMessagesUseCase,
+                          @Qualifier("applicationTaskExecutor") AsyncTaskExecutor streamExecutor,
+                          @Value("${chat.stream.timeout-ms:120000}") long streamTimeoutMs) {
         this.sendMessageUseCase = sendMessageUseCase;
         this.createConversationUseCase = createConversationUseCase;
         this.getHistoryUseCase = getHistoryUseCase;
         this.GetConversationUseCase = GetConversationUseCase;
+        this.searchMessagesUseCase = searchMessagesUseCase;
+        this.streamExecutor = streamExecutor;
+        this.streamTimeoutMs = streamTimeoutMs;
     }
 
     @PostMapping("/create")
@@ -62,10 +83,13 @@ public class    ChatController {
     @GetMapping("/getConversation/{conversationId}")
     public ResponseEntity<ResponseDto<List<Message>>> getConversation(
             @PathVariable Integer conversationId,
-            @RequestHeader("Authorization") String authorizationHeader) {
+            @RequestHeader("Authorization") String authorizationHeader,
+            @RequestParam(required = false) Integer before,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit) {
 
         String token = authorizationHeader.replace("Bearer ", "");
-        GetConversationUseCase.GetConversationResult result = GetConversationUseCase.execute(conversationId);
+        GetConversationUseCase.GetConversationResult result = GetConversationUseCase.execute(token, conversationId, before, after, limit);
 
         if (!result.isSuccess()) {
             int statusCode = result.getMessage().contains("not found") || result.getMessage().contains("access denied") ? 404 : 500;
@@ -76,22 +100,111 @@ public class    ChatController {
         return ResponseEntity.ok(new ResponseDto<>("Success", result.getConversation(), 200));
     }
 
+    // Full-text search over the messages of the caller's conversations, best match first
+    @GetMapping("/search")
+    public ResponseEntity<ResponseDto<SearchMessagesUseCase.SearchPage>> searchMessages(
+            @RequestHeader("Authorization") String authorizationHeader,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+
+        String token = authorizationHeader.replace("Bearer ", "");
+        SearchMessagesUseCase.SearchMessagesResult result = searchMessagesUseCase.execute(token, query, page, size);
+
+        if (!result.isSuccess()) {
+            int statusCode = result.getMessage().startsWith("Invalid") ? 400 : 500;
+            return ResponseEntity.status(statusCode)
+                    .body(new ResponseDto<>(result.getMessage(), null, statusCode));
+        }
+
+        return ResponseEntity.ok(new ResponseDto<>("Success", result.getPage(), 200));
+    }
 
     @PostMapping("/getResponse/{conversationId}")
     public ResponseEntity<ResponseDto<String>> sendMessage(
             @PathVariable Integer conversationId,
             @RequestHeader("Authorization") String authorizationHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody SendMessageRequestDto dto) {
 
         String token = authorizationHeader.replace("Bearer ", "");
-        SendMessageUseCase.SendMessageResult result = sendMessageUseCase.execute(conversationId, token, dto.getPrompt());
+        SendMessageUseCase.SendMessageResult result = sendMessageUseCase.execute(conversationId, token, dto.getPrompt(), idempotencyKey);
 
         if (!result.isSuccess()) {
-            int statusCode = result.getMessage().contains("not found") || result.getMessage().contains("access denied") ? 404 : 500;
+            int statusCode = sendMessageStatus(result);
             return ResponseEntity.status(statusCode)
                     .body(new ResponseDto<>(result.getMessage(), null, statusCode));
         }
 
-        return ResponseEntity.ok(new ResponseDto<>("Success", result.getAiResponse(), 200));
+        return ResponseEntity.ok(new ResponseDto<>(result.isFallback() ? result.getMessage() : "Success", result.getAiResponse(), 200));
+    }
+
+    // Server-Sent Events variant: "token" events carry reply chunks, a final "done" or "error" event carries the ResponseDto
+    @PostMapping(value = "/getResponse/{conversationId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMessage(
+            @PathVariable Integer conversationId,
+            @RequestHeader("Authorization") String authorizationHeader,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody SendMessageRequestDto dto) {
+
+        String token = authorizationHeader.replace("Bearer ", "");
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        // Set once the client is gone or the emitter timed out: the next token aborts the model stream,
+        // so the turn is not persisted for a reply nobody received and the model slot is freed
+        AtomicBoolean cancelled = new AtomicBoolean();
+        emitter.onTimeout(() -> {
+            cancelled.set(true);
+            emitter.complete();
+        });
+        emitter.onError(e -> cancelled.set(true));
+        emitter.onCompletion(() -> cancelled.set(true));
+
+        streamExecutor.execute(() -> {
+            try {
+                SendMessageUseCase.SendMessageResult result = sendMessageUseCase.executeStream(
+                        conversationId, token, dto.getPrompt(), idempotencyKey, chunk -> {
+                            try {
+                                if (!cancelled.get()) {
+                                    sendEvent(emitter, "token", chunk);
+                                    return;
+                                }
+                            } catch (UncheckedIOException e) {
+                                cancelled.set(true);
+                            }
+                            throw new CancellationException("Stream closed before the reply was delivered");
+                        });
+                if (cancelled.get()) return;
+
+                if (!result.isSuccess()) {
+                    int statusCode = sendMessageStatus(result);
+                    sendEvent(emitter, "error", new ResponseDto<>(result.getMessage(), null, statusCode));
+                } else {
+                    sendEvent(emitter, "done", new ResponseDto<>(result.isFallback() ? result.getMessage() : "Success",
+                            result.getAiResponse(), 200));
+                }
+                emitter.complete();
+            } catch (UncheckedIOException e) {
+                // Client went away; nothing left to deliver
+                emitter.completeWithError(e.getCause());
+            }
+        });
+
+        return emitter;
+    }
+
+    private void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int sendMessageStatus(SendMessageUseCase.SendMessageResult result) {
+        if (result.getMessage().contains("still being processed")) return 409;
+        if (result.getMessage().contains("Rate limit exceeded")) return 429;
+        if (result.getMessage().contains("Server busy")) return 503;
+        if (result.getMessage().contains("AI service unavailable")) return 503;
+        return result.getMessage().contains("not found") || result.getMessage().contains("access denied") ? 404 : 500;
     }
 }
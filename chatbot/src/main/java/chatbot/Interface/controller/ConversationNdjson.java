@@ -0,0 +1,152 @@
+package chatbot.Interface.controller;
+
+import chatbot.application.usecase.ExportConversationsUseCase;
+import chatbot.application.usecase.ImportConversationsUseCase;
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+
+// The export/import format, one JSON object per line:
+//   {"type":"conversation","id":12,"name":"Trip","createdAt":"2025-06-10T10:00:00"}
+//   {"type":"message","conversationId":12,"id":345,"content":"Hi","timestamp":"2025-06-10T10:01:00","isUser":true}
+// A conversation's messages follow its conversation line, oldest first.
+final class ConversationNdjson {
+
+    private ConversationNdjson() {
+    }
+
+    static Writer writer(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        return new Writer(generator);
+    }
+
+    // Writes straight to the response stream; the generator's buffer is the only copy of the output in memory
+    static final class Writer implements ExportConversationsUseCase.ExportSink {
+
+        private final JsonGenerator generator;
+
+        private Writer(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void conversation(Conversation conversation) {
+            writeLine(() -> {
+                generator.writeStartObject();
+                generator.writeStringField("type", "conversation");
+                generator.writeNumberField("id", conversation.getId());
+                generator.writeStringField("name", conversation.getName());
+                generator.writeStringField("createdAt", String.valueOf(conversation.getDateTime()));
+                generator.writeEndObject();
+            });
+        }
+
+        @Override
+        public void message(Integer conversationId, Message message) {
+            writeLine(() -> {
+                generator.writeStartObject();
+                generator.writeStringField("type", "message");
+                generator.writeNumberField("conversationId", conversationId);
+                generator.writeNumberField("id", message.getId());
+                generator.writeStringField("content", message.getContent());
+                generator.writeStringField("timestamp", String.valueOf(message.getTimestamp()));
+                generator.writeBooleanField("isUser", Boolean.TRUE.equals(message.getIsUser()));
+                generator.writeEndObject();
+            });
+        }
+
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        private void writeLine(JsonWrite write) {
+            try {
+                write.run();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                // Usually the client went away; the export stops and the database cursor is closed
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // Parses one line per next() call as the request body arrives
+    static Iterator<ImportConversationsUseCase.Line> reader(ObjectMapper objectMapper, InputStream in) throws IOException {
+        MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(in);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return nodes.hasNextValue();
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public ImportConversationsUseCase.Line next() {
+                try {
+                    return toLine(nodes.nextValue());
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    static ImportConversationsUseCase.Line toLine(JsonNode node) {
+        String type = node.path("type").asText();
+        return switch (type) {
+            case "conversation" -> new ImportConversationsUseCase.ConversationLine(
+                    requiredInt(node, "id"),
+                    node.path("name").isTextual() ? node.get("name").asText() : null,
+                    node.hasNonNull("createdAt") ? time(node, "createdAt") : null);
+            case "message" -> {
+                if (!node.path("content").isTextual()) throw new IllegalArgumentException("missing content");
+                if (!node.path("isUser").isBoolean()) throw new IllegalArgumentException("missing isUser");
+                yield new ImportConversationsUseCase.MessageLine(
+                        requiredInt(node, "conversationId"),
+                        node.get("content").asText(),
+                        time(node, "timestamp"),
+                        node.get("isUser").asBoolean());
+            }
+            default -> throw new IllegalArgumentException("unknown type '" + type + "'");
+        };
+    }
+
+    private static Integer requiredInt(JsonNode node, String field) {
+        if (!node.path(field).canConvertToInt()) throw new IllegalArgumentException("missing " + field);
+        return node.get(field).asInt();
+    }
+
+    private static LocalDateTime time(JsonNode node, String field) {
+        try {
+            return LocalDateTime.parse(node.path(field).asText());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid " + field + " '" + node.path(field).asText() + "'");
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonWrite {
+        void run() throws IOException;
+    }
+}
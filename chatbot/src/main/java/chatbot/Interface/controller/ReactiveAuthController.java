@@ -0,0 +1,77 @@
+package chatbot.Interface.controller;
+
+import chatbot.Interface.dto.LoginRequestDto;
+import chatbot.Interface.dto.RegisterRequestDto;
+import chatbot.Interface.dto.ResponseDto;
+import chatbot.application.usecase.LogoutUseCase;
+import chatbot.application.usecase.reactive.ReactiveLoginUseCase;
+import chatbot.application.usecase.reactive.ReactiveRegisterUseCase;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+// WebFlux variant of AuthController, same paths and responses
+@RestController
+@Profile("reactive")
+@RequestMapping("/auth")
+public class ReactiveAuthController {
+
+    private final ReactiveLoginUseCase loginUseCase;
+    private final ReactiveRegisterUseCase registerUseCase;
+    private final LogoutUseCase logoutUseCase;
+
+    public ReactiveAuthController(ReactiveLoginUseCase loginUseCase, ReactiveRegisterUseCase registerUseCase, LogoutUseCase logoutUseCase) {
+        this.loginUseCase = loginUseCase;
+        this.registerUseCase = registerUseCase;
+        this.logoutUseCase = logoutUseCase;
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<ResponseDto<Map<String, String>>>> login(@RequestBody LoginRequestDto request) {
+        return loginUseCase.execute(request.getEmail(), request.getPassword()).map(result -> {
+            if (!result.isSuccess()) {
+                int statusCode = authStatus(result.getMessage(), 401);
+                return ResponseEntity
+                        .status(statusCode)
+                        .body(new ResponseDto<>(result.getMessage(), null, statusCode));
+            }
+            return ResponseEntity.ok(new ResponseDto<>(result.getMessage(), Map.of("token", result.getToken()), 200));
+        });
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<ResponseDto<Map<String, String>>>> register(@RequestBody RegisterRequestDto request) {
+        return registerUseCase.execute(request.getName(), request.getEmail(), request.getPassword()).map(result -> {
+            if (!result.isSuccess()) {
+                int statusCode = authStatus(result.getMessage(), 400);
+                return ResponseEntity
+                        .status(statusCode)
+                        .body(new ResponseDto<>(result.getMessage(), null, statusCode));
+            }
+            return ResponseEntity.ok(new ResponseDto<>(result.getMessage(), Map.of("token", result.getToken()), 200));
+        });
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<ResponseDto<Void>> logout(@RequestHeader("Authorization") String authorizationHeader) {
+        // Token verification and revocation are in-memory, so this stays synchronous
+        String token = authorizationHeader.replace("Bearer ", "");
+        LogoutUseCase.LogoutResult result = logoutUseCase.execute(token);
+
+        if (!result.isSuccess()) {
+            return ResponseEntity
+                    .status(401)
+                    .body(new ResponseDto<>(result.getMessage(), null, 401));
+        }
+
+        return ResponseEntity.ok(new ResponseDto<>(result.getMessage(), null, 200));
+    }
+
+    // The password hashing pool sheds load when saturated; that is not the client's fault
+    private static int authStatus(String message, int failureStatus) {
+        return message.contains("Server busy") ? 503 : failureStatus;
+    }
+}
@@ -0,0 +1,137 @@
+package chatbot.Interface.controller;
+
+import chatbot.Interface.dto.ResponseDto;
+import chatbot.Interface.dto.SendMessageRequestDto;
+import chatbot.application.usecase.reactive.ReactiveCreateConversationUseCase;
+import chatbot.application.usecase.reactive.ReactiveGetConversationUseCase;
+import chatbot.application.usecase.reactive.ReactiveGetHistoryUseCase;
+import chatbot.application.usecase.reactive.ReactiveSendMessageUseCase;
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// WebFlux variant of ChatController, same paths and responses; no thread is held while waiting on the model
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/chat")
+public class ReactiveChatController {
+
+    private final ReactiveSendMessageUseCase sendMessageUseCase;
+    private final ReactiveCreateConversationUseCase createConversationUseCase;
+    private final ReactiveGetHistoryUseCase getHistoryUseCase;
+    private final ReactiveGetConversationUseCase getConversationUseCase;
+
+    public ReactiveChatController(ReactiveSendMessageUseCase sendMessageUseCase,
+                                  ReactiveCreateConversationUseCase createConversationUseCase,
+                                  ReactiveGetHistoryUseCase getHistoryUseCase,
+                                  ReactiveGetConversationUseCase getConversationUseCase) {
+        this.sendMessageUseCase = sendMessageUseCase;
+        this.createConversationUseCase = createConversationUseCase;
+        this.getHistoryUseCase = getHistoryUseCase;
+        this.getConversationUseCase = getConversationUseCase;
+    }
+
+    @PostMapping("/create")
+    public Mono<ResponseEntity<ResponseDto<Integer>>> createConversation(
+            @RequestHeader("Authorization") String authorizationHeader,
+            @RequestParam String name) {
+
+        String token = authorizationHeader.replace("Bearer ", "");
+        return createConversationUseCase.execute(token, name).map(result -> {
+            if (!result.isSuccess()) {
+                return ResponseEntity.status(500)
+                        .body(new ResponseDto<>(result.getMessage(), null, 500));
+            }
+            return ResponseEntity.ok(new ResponseDto<>("Created", result.getConversationId(), 201));
+        });
+    }
+
+    @GetMapping("/history")
+    public Mono<ResponseEntity<ResponseDto<List<Conversation>>>> history(
+            @RequestHeader("Authorization") String authorizationHeader) {
+
+        String token = authorizationHeader.replace("Bearer ", "");
+        return getHistoryUseCase.execute(token).map(result -> {
+            if (!result.isSuccess()) {
+                int statusCode = result.getMessage().contains("not found") ? 403 : 500;
+                return ResponseEntity.status(statusCode)
+                        .body(new ResponseDto<>(result.getMessage(), null, statusCode));
+            }
+            return ResponseEntity.ok(new ResponseDto<>("Success", result.getConversationId(), 200));
+        });
+    }
+
+    @GetMapping("/getConversation/{conversationId}")
+    public Mono<ResponseEntity<ResponseDto<List<Message>>>> getConversation(
+            @PathVariable Integer conversationId,
+            @RequestHeader("Authorization") String authorizationHeader,
+            @RequestParam(required = false) Integer before,
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit) {
+
+        String token = authorizationHeader.replace("Bearer ", "");
+        return getConversationUseCase.execute(token, conversationId, before, after, limit).map(result -> {
+            if (!result.isSuccess()) {
+                int statusCode = result.getMessage().contains("not found") || result.getMessage().contains("access denied") ? 404 : 500;
+                return ResponseEntity.status(statusCode)
+                        .body(new ResponseDto<>(result.getMessage(), null, statusCode));
+            }
+            return ResponseEntity.ok(new ResponseDto<>("Success", result.getConversation(), 200));
+        });
+    }
+
+    @PostMapping("/getResponse/{conversationId}")
+    public Mono<ResponseEntity<ResponseDto<String>>> sendMessage(
+            @PathVariable Integer conversationId,
+            @RequestHeader("Authorization") String authorizationHeader,
+            @RequestBody SendMessageRequestDto dto) {
+
+        String token = authorizationHeader.replace("Bearer ", "");
+        return sendMessageUseCase.execute(conversationId, token, dto.getPrompt()).map(result -> {
+            if (!result.isSuccess()) {
+                int statusCode = sendMessageStatus(result.getMessage());
+                return ResponseEntity.status(statusCode)
+                        .body(new ResponseDto<>(result.getMessage(), null, statusCode));
+            }
+            return ResponseEntity.ok(new ResponseDto<>("Success", result.getAiResponse(), 200));
+        });
+    }
+
+    // Server-Sent Events variant: "token" events carry reply chunks, a final "done" or "error" event carries the ResponseDto
+    @PostMapping(value = "/getResponse/{conversationId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamMessage(
+            @PathVariable Integer conversationId,
+            @RequestHeader("Authorization") String authorizationHeader,
+            @RequestBody SendMessageRequestDto dto) {
+
+        String token = authorizationHeader.replace("Bearer ", "");
+        return Flux.defer(() -> {
+            StringBuilder reply = new StringBuilder();
+            return sendMessageUseCase.executeStream(conversationId, token, dto.getPrompt())
+                    .doOnNext(reply::append)
+                    .map(chunk -> event("token", chunk))
+                    .concatWith(Mono.fromSupplier(() -> event("done", new ResponseDto<>("Success", reply.toString(), 200))))
+                    .onErrorResume(e -> {
+                        int statusCode = sendMessageStatus(e.getMessage());
+                        return Mono.just(event("error", new ResponseDto<>(e.getMessage(), null, statusCode)));
+                    });
+        });
+    }
+
+    private ServerSentEvent<Object> event(String name, Object data) {
+        return ServerSentEvent.builder(data).event(name).build();
+    }
+
+    private int sendMessageStatus(String message) {
+        if (message.contains("AI service unavailable")) return 503;
+        return message.contains("not found") || message.contains("access denied") ? 404 : 500;
+    }
+}
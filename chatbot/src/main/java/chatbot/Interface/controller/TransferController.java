@@ -0,0 +1,87 @@
+package chatbot.Interface.controller;
+
+import chatbot.Interface.dto.ResponseDto;
+import chatbot.application.usecase.ExportConversationsUseCase;
+import chatbot.application.usecase.ImportConversationsUseCase;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+// NDJSON export and import of conversations (format in ConversationNdjson)
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/chat")
+public class TransferController {
+
+    private final ExportConversationsUseCase exportConversationsUseCase;
+    private final ImportConversationsUseCase importConversationsUseCase;
+    private final ObjectMapper objectMapper;
+
+    public TransferController(ExportConversationsUseCase exportConversationsUseCase,
+                              ImportConversationsUseCase importConversationsUseCase,
+                              ObjectMapper objectMapper) {
+        this.exportConversationsUseCase = exportConversationsUseCase;
+        this.importConversationsUseCase = importConversationsUseCase;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<?> exportAll(@RequestHeader("Authorization") String authorizationHeader) {
+        return export(authorizationHeader, null);
+    }
+
+    @GetMapping("/export/{conversationId}")
+    public ResponseEntity<?> exportConversation(
+            @PathVariable Integer conversationId,
+            @RequestHeader("Authorization") String authorizationHeader) {
+        return export(authorizationHeader, conversationId);
+    }
+
+    // The body is parsed while it is still being received, so uploads of any size use constant memory
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<ResponseDto<ImportConversationsUseCase.ImportSummary>> importConversations(
+            @RequestHeader("Authorization") String authorizationHeader,
+            HttpServletRequest request) throws IOException {
+
+        String token = authorizationHeader.replace("Bearer ", "");
+        ImportConversationsUseCase.ImportResult result = importConversationsUseCase.execute(token,
+                ConversationNdjson.reader(objectMapper, request.getInputStream()));
+
+        if (!result.isSuccess()) {
+            int statusCode = result.getMessage().startsWith("Invalid") ? 400 : 500;
+            return ResponseEntity.status(statusCode)
+                    .body(new ResponseDto<>(result.getMessage(), null, statusCode));
+        }
+
+        return ResponseEntity.ok(new ResponseDto<>(result.getMessage(), result.getSummary(), 200));
+    }
+
+    private ResponseEntity<?> export(String authorizationHeader, Integer conversationId) {
+        String token = authorizationHeader.replace("Bearer ", "");
+        ExportConversationsUseCase.ExportResult result = exportConversationsUseCase.execute(token, conversationId);
+
+        if (!result.isSuccess()) {
+            int statusCode = result.getMessage().contains("not found") || result.getMessage().contains("access denied") ? 404 : 500;
+            return ResponseEntity.status(statusCode)
+                    .body(new ResponseDto<>(result.getMessage(), null, statusCode));
+        }
+
+        // Written on the async executor after the headers are sent; errors past this point cut the stream short
+        StreamingResponseBody body = out -> {
+            ConversationNdjson.Writer writer = ConversationNdjson.writer(objectMapper, out);
+            exportConversationsUseCase.export(result.getConversations(), writer);
+            writer.flush();
+        };
+        String filename = conversationId == null ? "conversations.ndjson" : "conversation-" + conversationId + ".ndjson";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -1,5 +1,37 @@
 package chatbot.application.service;
 
+import java.util.function.Consumer;
+
 public interface AIChatService {
     String generateResponse(String prompt, Integer conversationId);
-}
\ No newline at end of file
+
+    // Emits the reply chunk by chunk as it is generated and returns the assembled reply
+    String streamResponse(String prompt, Integer conversationId, Consumer<String> onToken);
+
+    // Reads the context a reply depends on once, so callers can key on it and hand it back to the call (null = never reused)
+    default PreparedContext prepareContext(Integer conversationId) {
+        return null;
+    }
+
+    default String generateResponse(String prompt, Integer conversationId, PreparedContext context) {
+        return generateResponse(prompt, conversationId);
+    }
+
+    default String streamResponse(String prompt, Integer conversationId, PreparedContext context, Consumer<String> onToken) {
+        return streamResponse(prompt, conversationId, onToken);
+    }
+
+    // Accounts for a reply answered without calling generate/stream (e.g. from a response cache) as if it had been generated
+    default void recordReply(String prompt, Integer conversationId, PreparedContext context, String reply) {
+    }
+
+    // Degraded-mode replies stand in for the model while it is unavailable; they are shown but never stored
+    default boolean isFallback(String reply) {
+        return false;
+    }
+
+    // Replies may only be reused between contexts with equal fingerprints
+    interface PreparedContext {
+        String fingerprint();
+    }
+}
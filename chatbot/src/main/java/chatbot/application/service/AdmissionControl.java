@@ -0,0 +1,18 @@
+package chatbot.application.service;
+
+import java.util.function.Supplier;
+
+// Decides when a user's model call may run: rate limits per user and shares the available capacity
+// fairly between users. admit() blocks until the work may start, or throws AdmissionRejectedException.
+public interface AdmissionControl {
+
+    // Runs everything immediately; used when admission control is disabled
+    AdmissionControl UNLIMITED = new AdmissionControl() {
+        @Override
+        public <T> T admit(Integer userId, Supplier<T> work) {
+            return work.get();
+        }
+    };
+
+    <T> T admit(Integer userId, Supplier<T> work);
+}
@@ -0,0 +1,9 @@
+package chatbot.application.service;
+
+// Thrown when a request is not admitted: the user is over their rate limit, or it waited too long for capacity
+public class AdmissionRejectedException extends RuntimeException {
+
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,118 @@
+package chatbot.application.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// Assembles preamble + summary + most recent turns under a token budget. A Context holds the tokenized
+// entries of a conversation, so callers that keep it between turns only estimate the new entries.
+public class BudgetedPromptBuilder implements PromptBuilder {
+
+    private final TokenEstimator tokenEstimator;
+    private final String preamble;
+    private final int tokenBudget;
+    private final int maxEntries;
+    private final int maxEntriesWithSummary;
+    private final int preambleTokens;
+
+    public BudgetedPromptBuilder(TokenEstimator tokenEstimator, String preamble, int tokenBudget, int maxEntries,
+                                 int maxEntriesWithSummary) {
+        this.tokenEstimator = tokenEstimator;
+        this.preamble = preamble;
+        this.tokenBudget = tokenBudget;
+        this.maxEntries = maxEntries;
+        this.maxEntriesWithSummary = maxEntriesWithSummary;
+        this.preambleTokens = tokenEstimator.estimate(preamble);
+    }
+
+    @Override
+    public String build(Integer conversationId, long version, String summary, List<String> history, String prompt) {
+        Context context = newContext(summary);
+        context.append(history, version);
+        return assemble(context, prompt).text();
+    }
+
+    public Context newContext(String summary) {
+        return new Context(summary, tokenEstimator.estimate(summary));
+    }
+
+    public Prompt assemble(Context context, String prompt) {
+        String userTurn = "User: " + prompt + "\nAI:";
+        int userTurnTokens = tokenEstimator.estimate(userTurn);
+        int budget = tokenBudget - preambleTokens - context.summaryTokens - userTurnTokens;
+        int entryLimit = context.summary != null ? maxEntriesWithSummary : maxEntries;
+
+        // Walk back from the newest entry while it still fits the budget
+        int included = 0;
+        int usedTokens = 0;
+        int chars = 0;
+        var newestFirst = context.entries.descendingIterator();
+        while (newestFirst.hasNext() && included < entryLimit) {
+            Entry entry = newestFirst.next();
+            if (usedTokens + entry.tokens > budget) break;
+            usedTokens += entry.tokens;
+            chars += entry.text.length() + 1;
+            included++;
+        }
+
+        StringBuilder chatPrompt = new StringBuilder(preamble.length() + chars + userTurn.length() + 64
+                + (context.summary == null ? 0 : context.summary.length()));
+        chatPrompt.append(preamble).append("\n\n");
+        if (context.summary != null) {
+            chatPrompt.append("Summary of the earlier conversation:\n").append(context.summary).append("\n\n");
+        }
+        chatPrompt.append("Conversation:\n");
+        var oldestIncluded = context.entries.iterator();
+        for (int skip = context.entries.size() - included; skip > 0; skip--) {
+            oldestIncluded.next();
+        }
+        while (oldestIncluded.hasNext()) {
+            chatPrompt.append(oldestIncluded.next().text).append("\n");
+        }
+        chatPrompt.append(userTurn);
+
+        return new Prompt(chatPrompt.toString(), preambleTokens + context.summaryTokens + usedTokens + userTurnTokens, included);
+    }
+
+    // The tokenized history of one conversation as of `version` entries; not thread-safe
+    public final class Context {
+        private final String summary;
+        private final int summaryTokens;
+        private final Deque<Entry> entries = new ArrayDeque<>();
+        private int entryTokens;
+        private long version;
+
+        private Context(String summary, int summaryTokens) {
+            this.summary = summary;
+            this.summaryTokens = summaryTokens;
+        }
+
+        public void append(List<String> newEntries, long newVersion) {
+            for (String text : newEntries) {
+                int tokens = tokenEstimator.estimate(text);
+                entries.addLast(new Entry(text, tokens));
+                entryTokens += tokens;
+            }
+            // Entries that can no longer be included are dropped for good
+            while (!entries.isEmpty() && (entryTokens > tokenBudget || entries.size() > maxEntries)) {
+                entryTokens -= entries.removeFirst().tokens;
+            }
+            version = newVersion;
+        }
+
+        public String summary() {
+            return summary;
+        }
+
+        public long version() {
+            return version;
+        }
+    }
+
+    // tokens is the estimate for the whole prompt, entries the number of history entries included
+    public record Prompt(String text, int tokens, int entries) {
+    }
+
+    private record Entry(String text, int tokens) {
+    }
+}
@@ -0,0 +1,55 @@
+package chatbot.application.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// One lock per active conversation so turns of the same conversation run one after another. ReentrantLock
+// rather than synchronized keeps waiting virtual threads unmounted; entries are dropped once unused.
+@Service
+public class ConversationLocks {
+
+    private final ConcurrentHashMap<Integer, LockEntry> locks = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+
+    public ConversationLocks(@Value("${chat.turn.lock-timeout-ms:60000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public <T> T withLock(Integer conversationId, Supplier<T> work) {
+        LockEntry entry = locks.compute(conversationId, (id, existing) -> {
+            LockEntry e = existing == null ? new LockEntry() : existing;
+            e.users++;
+            return e;
+        });
+        try {
+            if (!entry.lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Another message in this conversation is still being processed");
+            }
+            try {
+                return work.get();
+            } finally {
+                entry.lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for conversation " + conversationId, e);
+        } finally {
+            locks.computeIfPresent(conversationId, (id, e) -> --e.users == 0 ? null : e);
+        }
+    }
+
+    int activeConversations() {
+        return locks.size();
+    }
+
+    private static final class LockEntry {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Only read and written inside ConcurrentHashMap.compute for this key
+        private int users;
+    }
+}
@@ -3,4 +3,6 @@ package chatbot.application.service;
 public interface JwtEncodedService {
     String encode(Integer userId);
     Integer decode(String token);
+    // Rejects the token from now on, even though it has not expired yet
+    void revoke(String token);
 }
@@ -0,0 +1,25 @@
+package chatbot.application.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+// Adaptive password hashing off the request threads. Futures fail with AdmissionRejectedException when the
+// hashing pool is saturated, and with IllegalArgumentException for passwords the algorithm cannot hash.
+public interface PasswordHasher {
+    CompletableFuture<String> hash(String rawPassword);
+    CompletableFuture<Boolean> matches(String rawPassword, String storedPassword);
+    // True when the stored value was not produced with the current algorithm and cost
+    boolean needsRehash(String storedPassword);
+
+    // Blocking callers wait for the result and get the failure itself rather than a CompletionException
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package chatbot.application.service;
+
+import chatbot.domain.entity.Message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Turns the conversation context into the prompt sent to the model
+public interface PromptBuilder {
+
+    // history is the latest window of entries and version the total number of entries ever appended
+    String build(Integer conversationId, long version, String summary, List<String> history, String prompt);
+
+    // Records a completed turn so the next build can start from it
+    default void recordTurn(Integer conversationId, long version, List<String> entries) {
+    }
+
+    // History entries as they appear in prompts and summaries
+    static List<String> entries(List<Message> messages) {
+        List<String> entries = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            entries.add(entry(Boolean.TRUE.equals(message.getIsUser()), message.getContent()));
+        }
+        return entries;
+    }
+
+    static String entry(boolean fromUser, String content) {
+        return (fromUser ? "User: " : "AI: ") + content;
+    }
+}
@@ -0,0 +1,11 @@
+package chatbot.application.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of AIChatService; implementations record the turn in the conversation context themselves
+public interface ReactiveAIChatService {
+    Mono<String> generateResponse(String prompt, Integer conversationId);
+    // Emits reply chunks as they arrive and completes once the turn has been recorded
+    Flux<String> streamResponse(String prompt, Integer conversationId);
+}
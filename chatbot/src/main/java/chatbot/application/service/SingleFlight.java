@@ -0,0 +1,75 @@
+package chatbot.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Concurrent calls with the same key share one execution. Results matching `remember` are also kept for
+// a short while, so a retry arriving just after completion gets the same answer instead of a re-run.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<K, V> completed;
+    private final Predicate<V> remember;
+
+    public SingleFlight(Duration rememberFor, long maxRemembered, Predicate<V> remember) {
+        this.completed = Caffeine.newBuilder()
+                .expireAfterWrite(rememberFor)
+                .maximumSize(maxRemembered)
+                .build();
+        this.remember = remember;
+    }
+
+    public Outcome<V> execute(K key, boolean rememberResult, Supplier<V> work) {
+        V done = completed.getIfPresent(key);
+        if (done != null) {
+            return new Outcome<>(done, false);
+        }
+        afterCompletedMiss(key);
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            try {
+                return new Outcome<>(leader.join(), false);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            // A leader remembers its result before leaving inFlight, so one that finished between the first
+            // lookup and the claim above is seen here
+            done = completed.getIfPresent(key);
+            if (done != null) {
+                mine.complete(done);
+                return new Outcome<>(done, false);
+            }
+            V value = work.get();
+            if (rememberResult && remember.test(value)) {
+                completed.put(key, value);
+            }
+            mine.complete(value);
+            return new Outcome<>(value, true);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    // Runs between the lookup of remembered results and claiming the key; tests use it to force that race
+    void afterCompletedMiss(K key) {
+    }
+
+    // executed is false when the value came from another caller's execution
+    public record Outcome<V>(V value, boolean executed) {
+    }
+}
@@ -0,0 +1,5 @@
+package chatbot.application.service;
+
+public interface TokenEstimator {
+    int estimate(String text);
+}
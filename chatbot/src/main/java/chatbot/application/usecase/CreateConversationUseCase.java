@@ -3,10 +3,12 @@ package chatbot.application.usecase;
 import chatbot.application.service.JwtEncodedService;
 import chatbot.domain.repository.ConversationRepository;
 import chatbot.domain.entity.Conversation;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 
 @Service
+@Profile("!reactive")
 public class CreateConversationUseCase {
 
     private final ConversationRepository conversationService;
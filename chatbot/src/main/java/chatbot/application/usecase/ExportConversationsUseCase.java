@@ -0,0 +1,110 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import chatbot.domain.repository.ConversationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Exports conversations with all their messages. execute checks access and picks the conversations before any
+// output is produced; export then streams them row by row from the database cursor, so memory stays flat
+// however long the history is.
+@Service
+@Profile("!reactive")
+public class ExportConversationsUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportConversationsUseCase.class);
+
+    private final ConversationRepository conversationRepository;
+    private final JwtEncodedService jwtEncodedService;
+    private final Counter exportedRows;
+    private final Timer exportTimer;
+
+    public ExportConversationsUseCase(ConversationRepository conversationRepository,
+                                      JwtEncodedService jwtEncodedService,
+                                      MeterRegistry meterRegistry) {
+        this.conversationRepository = conversationRepository;
+        this.jwtEncodedService = jwtEncodedService;
+        this.exportedRows = Counter.builder("chat.transfer.rows")
+                .tag("direction", "export")
+                .description("Conversation and message rows exported or imported; rate() gives rows/sec")
+                .register(meterRegistry);
+        this.exportTimer = Timer.builder("chat.transfer.duration")
+                .tag("direction", "export")
+                .register(meterRegistry);
+    }
+
+    // conversationId null exports every conversation of the caller
+    public ExportResult execute(String token, Integer conversationId) {
+        try {
+            Integer userId = jwtEncodedService.decode(token);
+            if (conversationId == null) {
+                return new ExportResult(true, "Export ready", conversationRepository.findByUserId(userId));
+            }
+            if (!conversationRepository.existsForUser(conversationId, userId)) {
+                return new ExportResult(false, "Conversation not found or access denied", null);
+            }
+            return new ExportResult(true, "Export ready", List.of(conversationRepository.findById(conversationId)));
+        } catch (Exception e) {
+            return new ExportResult(false, "Error: " + e.getMessage(), null);
+        }
+    }
+
+    public long export(List<Conversation> conversations, ExportSink sink) {
+        long start = System.nanoTime();
+        long rows = 0;
+        try {
+            for (Conversation conversation : conversations) {
+                sink.conversation(conversation);
+                exportedRows.increment();
+                long[] messages = {0};
+                conversationRepository.forEachMessage(conversation.getId(), message -> {
+                    sink.message(conversation.getId(), message);
+                    messages[0]++;
+                });
+                exportedRows.increment(messages[0]);
+                rows += 1 + messages[0];
+            }
+            return rows;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            exportTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            logger.info("Exported {} rows in {} ms ({} rows/s)", rows, elapsed / 1_000_000, rowsPerSecond(rows, elapsed));
+        }
+    }
+
+    static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos == 0 ? rows : rows * 1_000_000_000L / elapsedNanos;
+    }
+
+    // Receives the export in order: each conversation, then its messages oldest first
+    public interface ExportSink {
+        void conversation(Conversation conversation);
+        void message(Integer conversationId, Message message);
+    }
+
+    public static class ExportResult {
+        private final boolean success;
+        private final String message;
+        private final List<Conversation> conversations;
+
+        public ExportResult(boolean success, String message, List<Conversation> conversations) {
+            this.success = success;
+            this.message = message;
+            this.conversations = conversations;
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public List<Conversation> getConversations() { return conversations; }
+    }
+}
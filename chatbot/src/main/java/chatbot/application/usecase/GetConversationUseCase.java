@@ -1,30 +1,48 @@
 package chatbot.application.usecase;
 
+import chatbot.application.service.JwtEncodedService;
 import chatbot.domain.entity.Message;
 import chatbot.domain.repository.ConversationRepository;
 import chatbot.domain.entity.Conversation;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
 @Service
+@Profile("!reactive")
 public class GetConversationUseCase {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ConversationRepository conversationService;
+    private final JwtEncodedService jwtEncodedService;
 
-    public GetConversationUseCase(ConversationRepository conversationService) {
+    public GetConversationUseCase(ConversationRepository conversationService, JwtEncodedService jwtEncodedService) {
         this.conversationService = conversationService;
+        this.jwtEncodedService = jwtEncodedService;
     }
 
-    public GetConversationResult execute(Integer conversationId) {
+    public GetConversationResult execute(String token, Integer conversationId, Integer before, Integer after, Integer limit) {
         try {
-            List<Message> messages= conversationService.getMessages(conversationId);
+            Integer userId = jwtEncodedService.decode(token);
+            if (!conversationService.existsForUser(conversationId, userId)) {
+                return new GetConversationResult(false, "Conversation not found or access denied", null);
+            }
+            List<Message> messages = conversationService.getMessages(conversationId, before, after, pageSize(before, after, limit));
             return new GetConversationResult(true, "Get message successfully", messages);
         } catch (Exception e) {
             return new GetConversationResult(false, "Error: " + e.getMessage(), null);
         }
     }
 
+    // Clients that send no paging parameter get the whole conversation, as before paging existed
+    public static int pageSize(Integer before, Integer after, Integer limit) {
+        if (before == null && after == null && limit == null) return Integer.MAX_VALUE;
+        return limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
     public static class GetConversationResult {
         private final boolean success;
         private final String message;
@@ -0,0 +1,162 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import chatbot.domain.repository.ConversationRepository;
+import chatbot.domain.repository.MessageImportRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Imports conversations in the export format into the caller's account. Lines are consumed as they are
+// parsed and messages are inserted in batches, so only the current batch and the conversation id mapping
+// are held in memory. Conversations get new ids; a message line refers to a conversation line earlier in
+// the stream by its exported id. An invalid line stops the import, keeping what was stored before it.
+@Service
+@Profile("!reactive")
+public class ImportConversationsUseCase {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportConversationsUseCase.class);
+
+    private final ConversationRepository conversationRepository;
+    private final MessageImportRepository messageImportRepository;
+    private final JwtEncodedService jwtEncodedService;
+    private final int batchSize;
+    private final Counter importedRows;
+    private final Timer importTimer;
+
+    public ImportConversationsUseCase(ConversationRepository conversationRepository,
+                                      MessageImportRepository messageImportRepository,
+                                      JwtEncodedService jwtEncodedService,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${chat.transfer.import.batch-size:1000}") int batchSize) {
+        this.conversationRepository = conversationRepository;
+        this.messageImportRepository = messageImportRepository;
+        this.jwtEncodedService = jwtEncodedService;
+        this.batchSize = batchSize;
+        this.importedRows = Counter.builder("chat.transfer.rows")
+                .tag("direction", "import")
+                .description("Conversation and message rows exported or imported; rate() gives rows/sec")
+                .register(meterRegistry);
+        this.importTimer = Timer.builder("chat.transfer.duration")
+                .tag("direction", "import")
+                .register(meterRegistry);
+    }
+
+    // Lines may throw IllegalArgumentException from next() when the input cannot be parsed
+    public ImportResult execute(String token, Iterator<Line> lines) {
+        Integer userId;
+        try {
+            userId = jwtEncodedService.decode(token);
+        } catch (Exception e) {
+            return new ImportResult(false, "Error: " + e.getMessage(), null);
+        }
+
+        long start = System.nanoTime();
+        Map<Integer, Integer> conversationIds = new HashMap<>();
+        List<MessageImportRepository.Row> batch = new ArrayList<>(batchSize);
+        long lineNumber = 1;
+        long conversations = 0;
+        long messages = 0;
+        try {
+            // Counted before hasNext, which may already fail on the line it starts to parse
+            for (; lines.hasNext(); lineNumber++) {
+                switch (lines.next()) {
+                    case ConversationLine line -> {
+                        Conversation conversation = new Conversation(null, line.name(), userId,
+                                line.createdAt() != null ? line.createdAt() : LocalDateTime.now());
+                        conversationRepository.save(conversation);
+                        if (conversation.getId() == null) {
+                            throw new IllegalStateException("Failed to store conversation");
+                        }
+                        conversationIds.put(line.id(), conversation.getId());
+                        conversations++;
+                        importedRows.increment();
+                    }
+                    case MessageLine line -> {
+                        Integer conversationId = conversationIds.get(line.conversationId());
+                        if (conversationId == null) {
+                            throw new IllegalArgumentException("message for conversation " + line.conversationId()
+                                    + ", which has no conversation line before it");
+                        }
+                        batch.add(new MessageImportRepository.Row(conversationId,
+                                new Message(null, line.content(), line.timestamp(), line.isUser())));
+                        if (batch.size() >= batchSize) {
+                            messages += flush(batch);
+                        }
+                    }
+                }
+            }
+            messages += flush(batch);
+        } catch (IllegalArgumentException e) {
+            return new ImportResult(false, "Invalid line " + lineNumber + ": " + e.getMessage()
+                    + " (imported " + conversations + " conversations and " + messages + " messages before it)", null);
+        } catch (Exception e) {
+            return new ImportResult(false, "Error: " + e.getMessage()
+                    + " (imported " + conversations + " conversations and " + messages + " messages)", null);
+        } finally {
+            // Messages are inserted around the repository, so tails cached while the import ran would hide them
+            conversationIds.values().forEach(conversationRepository::evictMessages);
+            importTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        long rowsPerSecond = ExportConversationsUseCase.rowsPerSecond(conversations + messages, elapsed);
+        logger.info("Imported {} conversations and {} messages for user ID {} in {} ms ({} rows/s)",
+                conversations, messages, userId, elapsed / 1_000_000, rowsPerSecond);
+        return new ImportResult(true, "Import completed", new ImportSummary(conversations, messages, rowsPerSecond));
+    }
+
+    private int flush(List<MessageImportRepository.Row> batch) {
+        if (batch.isEmpty()) return 0;
+        int stored = messageImportRepository.insertMessages(batch);
+        if (stored != batch.size()) {
+            throw new IllegalStateException("Failed to store a batch of " + batch.size() + " messages");
+        }
+        importedRows.increment(stored);
+        batch.clear();
+        return stored;
+    }
+
+    public sealed interface Line permits ConversationLine, MessageLine {
+    }
+
+    public record ConversationLine(Integer id, String name, LocalDateTime createdAt) implements Line {
+    }
+
+    public record MessageLine(Integer conversationId, String content, LocalDateTime timestamp, boolean isUser) implements Line {
+    }
+
+    public record ImportSummary(long conversations, long messages, long rowsPerSecond) {
+    }
+
+    public static class ImportResult {
+        private final boolean success;
+        private final String message;
+        private final ImportSummary summary;
+
+        public ImportResult(boolean success, String message, ImportSummary summary) {
+            this.success = success;
+            this.message = message;
+            this.summary = summary;
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public ImportSummary getSummary() { return summary; }
+    }
+}
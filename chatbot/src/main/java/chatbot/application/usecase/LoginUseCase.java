@@ -1,21 +1,27 @@
 package chatbot.application.usecase;
 
+import chatbot.application.service.AdmissionRejectedException;
 import chatbot.application.service.JwtEncodedService;
+import chatbot.application.service.PasswordHasher;
 import chatbot.domain.entity.User;
 import chatbot.domain.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
 
 @Service
+@Profile("!reactive")
 public class LoginUseCase {
     
     private final UserRepository userRepository;
     private final JwtEncodedService jwtEncodedService;
+    private final PasswordHasher passwordHasher;
     
-    public LoginUseCase(UserRepository userRepository, JwtEncodedService jwtEncodedService) {
+    public LoginUseCase(UserRepository userRepository, JwtEncodedService jwtEncodedService, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
         this.jwtEncodedService = jwtEncodedService;
+        this.passwordHasher = passwordHasher;
     }
     
     public LoginResult execute(String email, String password) {
@@ -26,14 +32,31 @@ public class LoginUseCase {
         }
         
         User user = userOpt.get();
-        if (!user.getPassword().equals(password)) {
-            return new LoginResult(false, "Invalid password", null);
+        try {
+            if (!PasswordHasher.await(passwordHasher.matches(password, user.getPassword()))) {
+                return new LoginResult(false, "Invalid password", null);
+            }
+        } catch (AdmissionRejectedException e) {
+            return new LoginResult(false, e.getMessage(), null);
+        }
+        
+        // Plaintext or old-cost hashes are upgraded while the raw password is at hand
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehash(user, password);
         }
         
         String token = jwtEncodedService.encode(user.getId());
         return new LoginResult(true, "Login successful", token);
     }
     
+    private void rehash(User user, String password) {
+        try {
+            userRepository.updatePassword(user.getId(), PasswordHasher.await(passwordHasher.hash(password)));
+        } catch (RuntimeException e) {
+            // Not worth failing the login over; the next login tries again
+        }
+    }
+    
     public static class LoginResult {
         private final boolean success;
         private final String message;
@@ -0,0 +1,36 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.JwtEncodedService;
+import org.springframework.stereotype.Service;
+
+@Service
+public class LogoutUseCase {
+
+    private final JwtEncodedService jwtEncodedService;
+
+    public LogoutUseCase(JwtEncodedService jwtEncodedService) {
+        this.jwtEncodedService = jwtEncodedService;
+    }
+
+    public LogoutResult execute(String token) {
+        try {
+            jwtEncodedService.revoke(token);
+            return new LogoutResult(true, "Logged out");
+        } catch (Exception e) {
+            return new LogoutResult(false, "Error: " + e.getMessage());
+        }
+    }
+
+    public static class LogoutResult {
+        private final boolean success;
+        private final String message;
+
+        public LogoutResult(boolean success, String message) {
+            this.success = success;
+            this.message = message;
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+    }
+}
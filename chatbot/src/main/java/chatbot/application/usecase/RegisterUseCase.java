@@ -1,33 +1,53 @@
 package chatbot.application.usecase;
 
+import chatbot.application.service.AdmissionRejectedException;
 import chatbot.application.service.JwtEncodedService;
+import chatbot.application.service.PasswordHasher;
 import chatbot.domain.entity.User;
+import chatbot.domain.repository.DuplicateEmailException;
 import chatbot.domain.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
 @Service
+@Profile("!reactive")
 public class RegisterUseCase {
     
     private final UserRepository userRepository;
     private final JwtEncodedService jwtEncodedService;
+    private final PasswordHasher passwordHasher;
     
-    public RegisterUseCase(UserRepository userRepository, JwtEncodedService jwtEncodedService) {
+    public RegisterUseCase(UserRepository userRepository, JwtEncodedService jwtEncodedService, PasswordHasher passwordHasher) {
         this.userRepository = userRepository;
         this.jwtEncodedService = jwtEncodedService;
+        this.passwordHasher = passwordHasher;
     }
     
     public RegisterResult execute(String name, String email, String password) {
-        // Check if user already exists
-        Optional<User> existingUser = userRepository.findByEmail(email);
-        if (existingUser.isPresent()) {
+        // Usually answered from the registered email filter without a query
+        if (userRepository.existsByEmail(email)) {
             return new RegisterResult(false, "Email already in use", null);
         }
         
+        String passwordHash;
+        try {
+            passwordHash = PasswordHasher.await(passwordHasher.hash(password));
+        } catch (AdmissionRejectedException | IllegalArgumentException e) {
+            return new RegisterResult(false, e.getMessage(), null);
+        }
+        
         // Create and save new user
-        User newUser = new User(null, name, email, password);
-        int id = userRepository.save(newUser);
+        User newUser = new User(null, name, email, passwordHash);
+        Integer id;
+        try {
+            id = userRepository.save(newUser);
+        } catch (DuplicateEmailException e) {
+            // Someone registered the same email since the check above
+            return new RegisterResult(false, "Email already in use", null);
+        }
+        if (id == null) {
+            return new RegisterResult(false, "Registration failed, please retry", null);
+        }
         
         // Encode user ID as token
         String token = jwtEncodedService.encode(id);
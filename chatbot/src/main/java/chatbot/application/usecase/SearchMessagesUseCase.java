@@ -0,0 +1,146 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.entity.MessageSearchHit;
+import chatbot.domain.repository.MessageSearchRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@Profile("!reactive")
+public class SearchMessagesUseCase {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 50;
+    // Deeper pages of a relevance ranking are rarely useful and cost a longer scan each
+    private static final int MAX_RESULTS = 1000;
+    private static final int MAX_TERMS = 8;
+    // Shorter words are not in the full-text index (innodb_ft_min_token_size)
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int SNIPPET_LENGTH = 160;
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}_]+");
+
+    private final MessageSearchRepository messageSearchRepository;
+    private final JwtEncodedService jwtEncodedService;
+
+    public SearchMessagesUseCase(MessageSearchRepository messageSearchRepository, JwtEncodedService jwtEncodedService) {
+        this.messageSearchRepository = messageSearchRepository;
+        this.jwtEncodedService = jwtEncodedService;
+    }
+
+    public SearchMessagesResult execute(String token, String query, Integer page, Integer size) {
+        try {
+            Integer userId = jwtEncodedService.decode(token);
+            List<String> terms = terms(query);
+            if (terms.isEmpty()) {
+                return new SearchMessagesResult(false, "Invalid query: use words of at least " + MIN_TERM_LENGTH + " characters", null);
+            }
+            int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+            int pageNumber = page == null || page < 0 ? 0 : page;
+            int offset = pageNumber * pageSize;
+            if (offset >= MAX_RESULTS) {
+                return new SearchMessagesResult(false, "Invalid page: only the first " + MAX_RESULTS + " results can be paged through", null);
+            }
+
+            // One extra row tells whether another page exists without counting every match
+            List<MessageSearchHit> rows = messageSearchRepository.search(userId, terms, offset, pageSize + 1);
+            boolean hasMore = rows.size() > pageSize && offset + pageSize < MAX_RESULTS;
+            List<Hit> hits = rows.stream()
+                    .limit(pageSize)
+                    .map(row -> highlight(row, terms))
+                    .toList();
+            return new SearchMessagesResult(true, "Search completed", new SearchPage(hits, pageNumber, pageSize, hasMore));
+        } catch (Exception e) {
+            return new SearchMessagesResult(false, "Error: " + e.getMessage(), null);
+        }
+    }
+
+    static List<String> terms(String query) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (query == null) return List.of();
+        Matcher matcher = WORD.matcher(query.toLowerCase(Locale.ROOT));
+        while (matcher.find() && terms.size() < MAX_TERMS) {
+            if (matcher.group().length() >= MIN_TERM_LENGTH) {
+                terms.add(matcher.group());
+            }
+        }
+        return List.copyOf(terms);
+    }
+
+    // Cuts a window of the message around its first match and marks every word starting with a term,
+    // the same prefix match the full-text query used. Offsets are in chars of the snippet.
+    static Hit highlight(MessageSearchHit row, List<String> terms) {
+        String content = row.content();
+        List<int[]> matches = new ArrayList<>();
+        Matcher matcher = WORD.matcher(content);
+        while (matcher.find()) {
+            String word = matcher.group().toLowerCase(Locale.ROOT);
+            for (String term : terms) {
+                if (word.startsWith(term)) {
+                    matches.add(new int[]{matcher.start(), matcher.end()});
+                    break;
+                }
+            }
+        }
+
+        int start = 0;
+        if (content.length() > SNIPPET_LENGTH && !matches.isEmpty()) {
+            // Some context before the first match, without running past the end
+            start = Math.max(0, Math.min(matches.get(0)[0] - SNIPPET_LENGTH / 4, content.length() - SNIPPET_LENGTH));
+        }
+        int end = Math.min(content.length(), start + SNIPPET_LENGTH);
+        String prefix = start > 0 ? "…" : "";
+        String snippet = prefix + content.substring(start, end) + (end < content.length() ? "…" : "");
+
+        List<Highlight> highlights = new ArrayList<>();
+        for (int[] match : matches) {
+            if (match[0] >= start && match[1] <= end) {
+                highlights.add(new Highlight(match[0] - start + prefix.length(), match[1] - start + prefix.length()));
+            }
+        }
+        return new Hit(row.messageId(), row.conversationId(), row.conversationName(), row.timestamp(), row.isUser(),
+                snippet, highlights, row.score());
+    }
+
+    public record Hit(Integer messageId,
+                      Integer conversationId,
+                      String conversationName,
+                      LocalDateTime timestamp,
+                      boolean isUser,
+                      String snippet,
+                      List<Highlight> highlights,
+                      double score) {
+    }
+
+    // [start, end) of a matched word in the snippet
+    public record Highlight(int start, int end) {
+    }
+
+    public record SearchPage(List<Hit> hits, int page, int size, boolean hasMore) {
+    }
+
+    public static class SearchMessagesResult {
+        private final boolean success;
+        private final String message;
+        private final SearchPage page;
+
+        public SearchMessagesResult(boolean success, String message, SearchPage page) {
+            this.success = success;
+            this.message = message;
+            this.page = page;
+        }
+
+        public boolean isSuccess() { return success; }
+        public String getMessage() { return message; }
+        public SearchPage getPage() { return page; }
+    }
+}
@@ -1,71 +1,164 @@
 package chatbot.application.usecase;
 
+import chatbot.application.service.AdmissionControl;
+import chatbot.application.service.ConversationLocks;
 import chatbot.application.service.JwtEncodedService;
+import chatbot.application.service.SingleFlight;
 import chatbot.domain.entity.Message;
 import chatbot.application.service.AIChatService;
 import chatbot.domain.repository.ConversationRepository;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
+@Profile("!reactive")
 public class SendMessageUseCase {
     
     private final ConversationRepository conversationRepository;
     private final JwtEncodedService jwtEncodedService;
     private final AIChatService aiChatService;
+    private final ConversationLocks conversationLocks;
+    private final AdmissionControl admissionControl;
+    
+    // Duplicate submissions (double clicks, client retries) share one AI call and one persisted turn.
+    // Completed results are only replayed for an explicit Idempotency-Key; the same prompt sent again
+    // on purpose after the first one finished is a new turn.
+    private final SingleFlight<String, SendMessageResult> turns =
+            new SingleFlight<>(Duration.ofMinutes(5), 10_000, result -> result.isSuccess() && !result.isFallback());
     
     public SendMessageUseCase(ConversationRepository conversationRepository,
                              JwtEncodedService jwtEncodedService,
-                              AIChatService aiChatService) {
+                              AIChatService aiChatService,
+                              ConversationLocks conversationLocks,
+                              AdmissionControl admissionControl) {
         this.conversationRepository = conversationRepository;
         this.jwtEncodedService = jwtEncodedService;
         this.aiChatService = aiChatService;
+        this.conversationLocks = conversationLocks;
+        this.admissionControl = admissionControl;
     }
     
     public SendMessageResult execute(Integer conversationId, String token, String prompt) {
+        return execute(conversationId, token, prompt, null);
+    }
+    
+    public SendMessageResult execute(Integer conversationId, String token, String prompt, String idempotencyKey) {
         try {
             Integer userId = jwtEncodedService.decode(token);
             
-            // Validate user owns conversation
-            List<Message> conversationOpt = conversationRepository.getMessages(conversationId);
-            
-            if (conversationOpt == null) {
+            // Validate user owns conversation (single primary-key lookup, cached)
+            if (!conversationRepository.existsForUser(conversationId, userId)) {
                 return new SendMessageResult(false, "Conversation not found or access denied", null);
             }
             
-            // Generate AI response
-            String reply = aiChatService.generateResponse(prompt, conversationId);
+            return runTurn(conversationId, userId, prompt, idempotencyKey, () -> {
+                // Generate AI response
+                String reply = aiChatService.generateResponse(prompt, conversationId);
+                
+                return saveTurn(conversationId, prompt, reply);
+            }).value();
             
-            // Save user message
-            conversationRepository.addMessage(conversationId,
-                    new Message(null, prompt, LocalDateTime.now(), true));
+        } catch (Exception e) {
+            return new SendMessageResult(false, "Error processing message: " + e.getMessage(), null);
+        }
+    }
+    
+    public SendMessageResult executeStream(Integer conversationId, String token, String prompt, Consumer<String> onToken) {
+        return executeStream(conversationId, token, prompt, null, onToken);
+    }
+    
+    public SendMessageResult executeStream(Integer conversationId, String token, String prompt, String idempotencyKey,
+                                           Consumer<String> onToken) {
+        try {
+            Integer userId = jwtEncodedService.decode(token);
             
-            // Save AI response
-            conversationRepository.addMessage(conversationId,
-                    new Message(null, reply, LocalDateTime.now(), false));
+            // Validate user owns conversation (single primary-key lookup, cached)
+            if (!conversationRepository.existsForUser(conversationId, userId)) {
+                return new SendMessageResult(false, "Conversation not found or access denied", null);
+            }
             
-            return new SendMessageResult(true, "Message sent successfully", reply);
+            SingleFlight.Outcome<SendMessageResult> outcome = runTurn(conversationId, userId, prompt, idempotencyKey, () -> {
+                // Stream AI response, persisting only once the full reply has been assembled
+                String reply = aiChatService.streamResponse(prompt, conversationId, onToken);
+                
+                return saveTurn(conversationId, prompt, reply);
+            });
+            
+            // A duplicate request did not see the tokens of the stream it joined; deliver the reply in one piece
+            SendMessageResult result = outcome.value();
+            if (!outcome.executed() && result.isSuccess()) {
+                onToken.accept(result.getAiResponse());
+            }
+            return result;
             
         } catch (Exception e) {
             return new SendMessageResult(false, "Error processing message: " + e.getMessage(), null);
         }
     }
     
+    // Identical in-flight requests share one execution; turns of the same conversation run one at a time
+    // so their history writes cannot interleave. Only the request that runs the turn goes through admission,
+    // and it holds a model call slot only once its conversation is free.
+    private SingleFlight.Outcome<SendMessageResult> runTurn(Integer conversationId, Integer userId, String prompt,
+                                                            String idempotencyKey, Supplier<SendMessageResult> turn) {
+        boolean explicitKey = idempotencyKey != null && !idempotencyKey.isBlank();
+        String key = conversationId + ":" + userId + ":" + (explicitKey ? "key:" + idempotencyKey : "prompt:" + sha256(prompt));
+        return turns.execute(key, explicitKey,
+                () -> conversationLocks.withLock(conversationId, () -> admissionControl.admit(userId, turn)));
+    }
+    
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(String.valueOf(value).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private SendMessageResult saveTurn(Integer conversationId, String prompt, String reply) {
+        // A canned reply would end up in the history and in the context of later prompts; the user sends the prompt again instead
+        if (aiChatService.isFallback(reply)) {
+            return new SendMessageResult(true, "AI service degraded, message not saved", reply, true);
+        }
+        
+        // Save user message and AI response in one batch
+        conversationRepository.addMessages(conversationId, List.of(
+                new Message(null, prompt, LocalDateTime.now(), true),
+                new Message(null, reply, LocalDateTime.now(), false)));
+        return new SendMessageResult(true, "Message sent successfully", reply);
+    }
+    
     public static class SendMessageResult {
         private final boolean success;
         private final String message;
         private final String aiResponse;
+        private final boolean fallback;
         
         public SendMessageResult(boolean success, String message, String aiResponse) {
+            this(success, message, aiResponse, false);
+        }
+        
+        public SendMessageResult(boolean success, String message, String aiResponse, boolean fallback) {
             this.success = success;
             this.message = message;
             this.aiResponse = aiResponse;
+            this.fallback = fallback;
         }
         
         public boolean isSuccess() { return success; }
         public String getMessage() { return message; }
         public String getAiResponse() { return aiResponse; }
+        public boolean isFallback() { return fallback; }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package chatbot.application.usecase.reactive;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.application.usecase.CreateConversationUseCase.CreateConversationResult;
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.repository.ReactiveConversationRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Service
+@Profile("reactive")
+public class ReactiveCreateConversationUseCase {
+
+    private final ReactiveConversationRepository conversationRepository;
+    private final JwtEncodedService jwtEncodedService;
+
+    public ReactiveCreateConversationUseCase(ReactiveConversationRepository conversationRepository, JwtEncodedService jwtEncodedService) {
+        this.conversationRepository = conversationRepository;
+        this.jwtEncodedService = jwtEncodedService;
+    }
+
+    public Mono<CreateConversationResult> execute(String token, String name) {
+        return Mono.fromCallable(() -> jwtEncodedService.decode(token))
+                .flatMap(userId -> conversationRepository.save(new Conversation(null, name, userId, LocalDateTime.now())))
+                .map(id -> new CreateConversationResult(true, "Conversation created successfully", id))
+                .onErrorResume(e -> Mono.just(new CreateConversationResult(false, "Error: " + e.getMessage(), null)));
+    }
+}
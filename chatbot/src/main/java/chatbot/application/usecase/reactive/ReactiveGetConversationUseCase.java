@@ -0,0 +1,33 @@
+package chatbot.application.usecase.reactive;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.application.usecase.GetConversationUseCase;
+import chatbot.application.usecase.GetConversationUseCase.GetConversationResult;
+import chatbot.domain.repository.ReactiveConversationRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveGetConversationUseCase {
+
+    private final ReactiveConversationRepository conversationRepository;
+    private final JwtEncodedService jwtEncodedService;
+
+    public ReactiveGetConversationUseCase(ReactiveConversationRepository conversationRepository, JwtEncodedService jwtEncodedService) {
+        this.conversationRepository = conversationRepository;
+        this.jwtEncodedService = jwtEncodedService;
+    }
+
+    public Mono<GetConversationResult> execute(String token, Integer conversationId, Integer before, Integer after, Integer limit) {
+        int pageSize = GetConversationUseCase.pageSize(before, after, limit);
+        return Mono.fromCallable(() -> jwtEncodedService.decode(token))
+                .flatMap(userId -> conversationRepository.existsForUser(conversationId, userId))
+                .flatMap(owned -> owned
+                        ? conversationRepository.getMessages(conversationId, before, after, pageSize).collectList()
+                                .map(messages -> new GetConversationResult(true, "Get message successfully", messages))
+                        : Mono.just(new GetConversationResult(false, "Conversation not found or access denied", null)))
+                .onErrorResume(e -> Mono.just(new GetConversationResult(false, "Error: " + e.getMessage(), null)));
+    }
+}
@@ -0,0 +1,28 @@
+package chatbot.application.usecase.reactive;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.application.usecase.GetHistoryUseCase.GetHistoryResult;
+import chatbot.domain.repository.ReactiveConversationRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveGetHistoryUseCase {
+
+    private final ReactiveConversationRepository conversationRepository;
+    private final JwtEncodedService jwtEncodedService;
+
+    public ReactiveGetHistoryUseCase(ReactiveConversationRepository conversationRepository, JwtEncodedService jwtEncodedService) {
+        this.conversationRepository = conversationRepository;
+        this.jwtEncodedService = jwtEncodedService;
+    }
+
+    public Mono<GetHistoryResult> execute(String token) {
+        return Mono.fromCallable(() -> jwtEncodedService.decode(token))
+                .flatMap(userId -> conversationRepository.findByUserId(userId).collectList())
+                .map(conversations -> new GetHistoryResult(true, "Conversation created successfully", conversations))
+                .onErrorResume(e -> Mono.just(new GetHistoryResult(false, "Error: " + e.getMessage(), null)));
+    }
+}
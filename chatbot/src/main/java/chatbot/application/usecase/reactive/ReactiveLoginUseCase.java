@@ -0,0 +1,47 @@
+package chatbot.application.usecase.reactive;
+
+import chatbot.application.service.AdmissionRejectedException;
+import chatbot.application.service.JwtEncodedService;
+import chatbot.application.service.PasswordHasher;
+import chatbot.application.usecase.LoginUseCase.LoginResult;
+import chatbot.domain.entity.User;
+import chatbot.domain.repository.ReactiveUserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveLoginUseCase {
+
+    private final ReactiveUserRepository userRepository;
+    private final JwtEncodedService jwtEncodedService;
+    private final PasswordHasher passwordHasher;
+
+    public ReactiveLoginUseCase(ReactiveUserRepository userRepository, JwtEncodedService jwtEncodedService, PasswordHasher passwordHasher) {
+        this.userRepository = userRepository;
+        this.jwtEncodedService = jwtEncodedService;
+        this.passwordHasher = passwordHasher;
+    }
+
+    public Mono<LoginResult> execute(String email, String password) {
+        return userRepository.findByEmail(email)
+                .flatMap(user -> Mono.fromFuture(() -> passwordHasher.matches(password, user.getPassword()))
+                        .flatMap(matches -> matches
+                                ? rehashIfNeeded(user, password)
+                                        .thenReturn(new LoginResult(true, "Login successful", jwtEncodedService.encode(user.getId())))
+                                : Mono.just(new LoginResult(false, "Invalid password", null))))
+                .defaultIfEmpty(new LoginResult(false, "User not found", null))
+                .onErrorResume(AdmissionRejectedException.class, e -> Mono.just(new LoginResult(false, e.getMessage(), null)));
+    }
+
+    // Same upgrade as LoginUseCase; a failed rehash does not fail the login
+    private Mono<Void> rehashIfNeeded(User user, String password) {
+        if (!passwordHasher.needsRehash(user.getPassword())) {
+            return Mono.empty();
+        }
+        return Mono.fromFuture(() -> passwordHasher.hash(password))
+                .flatMap(hash -> userRepository.updatePassword(user.getId(), hash))
+                .onErrorResume(e -> Mono.empty());
+    }
+}
@@ -0,0 +1,36 @@
+package chatbot.application.usecase.reactive;
+
+import chatbot.application.service.AdmissionRejectedException;
+import chatbot.application.service.JwtEncodedService;
+import chatbot.application.service.PasswordHasher;
+import chatbot.application.usecase.RegisterUseCase.RegisterResult;
+import chatbot.domain.entity.User;
+import chatbot.domain.repository.ReactiveUserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+public class ReactiveRegisterUseCase {
+
+    private final ReactiveUserRepository userRepository;
+    private final JwtEncodedService jwtEncodedService;
+    private final PasswordHasher passwordHasher;
+
+    public ReactiveRegisterUseCase(ReactiveUserRepository userRepository, JwtEncodedService jwtEncodedService, PasswordHasher passwordHasher) {
+        this.userRepository = userRepository;
+        this.jwtEncodedService = jwtEncodedService;
+        this.passwordHasher = passwordHasher;
+    }
+
+    public Mono<RegisterResult> execute(String name, String email, String password) {
+        return userRepository.findByEmail(email)
+                .map(existing -> new RegisterResult(false, "Email already in use", null))
+                .switchIfEmpty(Mono.defer(() -> Mono.fromFuture(() -> passwordHasher.hash(password))
+                        .flatMap(hash -> userRepository.save(new User(null, name, email, hash)))
+                        .map(id -> new RegisterResult(true, "User registered successfully", jwtEncodedService.encode(id)))))
+                .onErrorResume(e -> e instanceof AdmissionRejectedException || e instanceof IllegalArgumentException,
+                        e -> Mono.just(new RegisterResult(false, e.getMessage(), null)));
+    }
+}
@@ -0,0 +1,75 @@
+package chatbot.application.usecase.reactive;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.application.service.ReactiveAIChatService;
+import chatbot.application.usecase.SendMessageUseCase.SendMessageResult;
+import chatbot.domain.entity.Message;
+import chatbot.domain.repository.ReactiveConversationRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Profile("reactive")
+public class ReactiveSendMessageUseCase {
+
+    private static final String ACCESS_DENIED = "Conversation not found or access denied";
+
+    private final ReactiveConversationRepository conversationRepository;
+    private final JwtEncodedService jwtEncodedService;
+    private final ReactiveAIChatService aiChatService;
+
+    public ReactiveSendMessageUseCase(ReactiveConversationRepository conversationRepository,
+                                      JwtEncodedService jwtEncodedService,
+                                      ReactiveAIChatService aiChatService) {
+        this.conversationRepository = conversationRepository;
+        this.jwtEncodedService = jwtEncodedService;
+        this.aiChatService = aiChatService;
+    }
+
+    public Mono<SendMessageResult> execute(Integer conversationId, String token, String prompt) {
+        return Mono.fromCallable(() -> jwtEncodedService.decode(token))
+                .flatMap(userId -> conversationRepository.existsForUser(conversationId, userId))
+                .flatMap(owned -> owned
+                        ? aiChatService.generateResponse(prompt, conversationId)
+                                .flatMap(reply -> saveTurn(conversationId, prompt, reply)
+                                        .thenReturn(new SendMessageResult(true, "Message sent successfully", reply)))
+                        : Mono.just(new SendMessageResult(false, ACCESS_DENIED, null)))
+                .onErrorResume(e -> Mono.just(new SendMessageResult(false, "Error processing message: " + e.getMessage(), null)));
+    }
+
+    // Emits reply chunks as the model produces them; the turn is saved before the stream completes.
+    // Fails with IllegalStateException when the caller does not own the conversation.
+    public Flux<String> executeStream(Integer conversationId, String token, String prompt) {
+        return Mono.fromCallable(() -> jwtEncodedService.decode(token))
+                .flatMap(userId -> conversationRepository.existsForUser(conversationId, userId))
+                .onErrorMap(this::processingError)
+                .flatMapMany(owned -> owned
+                        ? streamTurn(conversationId, prompt).onErrorMap(this::processingError)
+                        : Flux.error(new IllegalStateException(ACCESS_DENIED)));
+    }
+
+    private Flux<String> streamTurn(Integer conversationId, String prompt) {
+        return Flux.defer(() -> {
+            StringBuilder reply = new StringBuilder();
+            return aiChatService.streamResponse(prompt, conversationId)
+                    .doOnNext(reply::append)
+                    .concatWith(Mono.defer(() -> saveTurn(conversationId, prompt, reply.toString())).then(Mono.empty()));
+        });
+    }
+
+    private Mono<Void> saveTurn(Integer conversationId, String prompt, String reply) {
+        // Save user message and AI response in one batch
+        return conversationRepository.addMessages(conversationId, List.of(
+                new Message(null, prompt, LocalDateTime.now(), true),
+                new Message(null, reply, LocalDateTime.now(), false)));
+    }
+
+    private Throwable processingError(Throwable e) {
+        return new RuntimeException("Error processing message: " + e.getMessage(), e);
+    }
+}
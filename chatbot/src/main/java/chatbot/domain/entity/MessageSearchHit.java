@@ -0,0 +1,13 @@
+package chatbot.domain.entity;
+
+import java.time.LocalDateTime;
+
+// A message matching a search, with the conversation it belongs to and its relevance score
+public record MessageSearchHit(Integer messageId,
+                               Integer conversationId,
+                               String conversationName,
+                               String content,
+                               LocalDateTime timestamp,
+                               boolean isUser,
+                               double score) {
+}
@@ -0,0 +1,8 @@
+package chatbot.domain.entity;
+
+import java.util.List;
+
+// The latest messages of a conversation, oldest first, and the number of messages it holds in total.
+// The total grows by one per added message, so it doubles as a version of the conversation history.
+public record MessageWindow(List<Message> messages, long total) {
+}
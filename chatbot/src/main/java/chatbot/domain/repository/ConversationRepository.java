@@ -2,16 +2,28 @@ package chatbot.domain.repository;
 
 import chatbot.domain.entity.Conversation;
 import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
 import java.util.Optional;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ConversationRepository {
     Conversation findById(Integer id);
+    boolean existsForUser(Integer conversationId, Integer userId);
     List<Conversation> findByUserId(Integer userId);
     void save(Conversation conversation);
 
-    List<Message> getMessages(Integer conversationId);
+    // Keyset page ordered by id ascending: messages after afterId if given, otherwise the latest ones before beforeId
+    List<Message> getMessages(Integer conversationId, Integer beforeId, Integer afterId, int limit);
+    // Latest messages for building model context; may include just-added messages not yet assigned an id
+    MessageWindow getRecentMessages(Integer conversationId, int limit);
+    long countMessages(Integer conversationId);
+    // Streams every message of the conversation without materializing the whole list
+    void forEachMessage(Integer conversationId, Consumer<Message> consumer);
     void addMessage(Integer conversationId, Message message);
+    void addMessages(Integer conversationId, List<Message> messages);
+    // Drops cached messages of a conversation whose rows were written around this repository (bulk import)
+    void evictMessages(Integer conversationId);
 
     void renameConversation(Integer conversationId, String newName);
 }
@@ -0,0 +1,8 @@
+package chatbot.domain.repository;
+
+// Thrown by UserRepository.save when another user already has the email
+public class DuplicateEmailException extends RuntimeException {
+    public DuplicateEmailException(String email) {
+        super("Email already in use: " + email);
+    }
+}
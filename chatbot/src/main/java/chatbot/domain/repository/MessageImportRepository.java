@@ -0,0 +1,14 @@
+package chatbot.domain.repository;
+
+import chatbot.domain.entity.Message;
+
+import java.util.List;
+
+// Bulk inserts for imports, bypassing the write-behind queue used for chat turns
+public interface MessageImportRepository {
+    // Returns the number of rows stored: all of them, or none when the batch failed
+    int insertMessages(List<Row> rows);
+
+    record Row(Integer conversationId, Message message) {
+    }
+}
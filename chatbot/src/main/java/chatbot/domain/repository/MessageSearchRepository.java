@@ -0,0 +1,10 @@
+package chatbot.domain.repository;
+
+import chatbot.domain.entity.MessageSearchHit;
+
+import java.util.List;
+
+public interface MessageSearchRepository {
+    // Messages of the user's conversations containing any of the terms (as word prefixes), best match first
+    List<MessageSearchHit> search(Integer userId, List<String> terms, int offset, int limit);
+}
@@ -0,0 +1,25 @@
+package chatbot.domain.repository;
+
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Non-blocking counterpart of ConversationRepository
+public interface ReactiveConversationRepository {
+    Mono<Conversation> findById(Integer id);
+    Mono<Boolean> existsForUser(Integer conversationId, Integer userId);
+    Flux<Conversation> findByUserId(Integer userId);
+    // Emits the generated conversation id
+    Mono<Integer> save(Conversation conversation);
+
+    // Keyset page ordered by id ascending: messages after afterId if given, otherwise the latest ones before beforeId
+    Flux<Message> getMessages(Integer conversationId, Integer beforeId, Integer afterId, int limit);
+    Mono<MessageWindow> getRecentMessages(Integer conversationId, int limit);
+    Mono<Void> addMessages(Integer conversationId, List<Message> messages);
+
+    Mono<Void> renameConversation(Integer conversationId, String newName);
+}
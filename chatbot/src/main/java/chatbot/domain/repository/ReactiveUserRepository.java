@@ -0,0 +1,16 @@
+package chatbot.domain.repository;
+
+import chatbot.domain.entity.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of UserRepository
+public interface ReactiveUserRepository {
+    Mono<User> findById(Integer id);
+    Mono<User> findByEmail(String email);
+    Flux<User> findAll();
+    // Emits the generated user id
+    Mono<Integer> save(User user);
+    Mono<Void> updatePassword(Integer id, String password);
+    Mono<Void> deleteById(Integer id);
+}
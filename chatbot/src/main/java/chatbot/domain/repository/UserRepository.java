@@ -3,11 +3,17 @@ package chatbot.domain.repository;
 import chatbot.domain.entity.User;
 import java.util.Optional;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserRepository {
     Optional<User> findById(Integer id);
     Optional<User> findByEmail(String email);
+    boolean existsByEmail(String email);
+    // Streams the email of every user without materializing the whole table
+    void forEachEmail(Consumer<String> consumer);
     List<User> findAll();
+    // Throws DuplicateEmailException when the email is taken
     Integer save(User user);
+    void updatePassword(Integer id, String password);
     void deleteById(Integer id);
 }
@@ -0,0 +1,228 @@
+package chatbot.infrastructure.admission;
+
+import chatbot.application.service.AdmissionControl;
+import chatbot.application.service.AdmissionRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Admission in front of model calls. A request first needs a permit from the user's token bucket, then
+// waits for one of max-concurrent slots. Waiting requests are queued per user and slots are handed out
+// round-robin across users (weighted: a user with weight w gets up to w slots per round), so one heavy user
+// cannot occupy every slot while others wait. A request still queued after max-queue-wait is shed.
+public class FairShareAdmissionControl implements AdmissionControl {
+
+    private final LeasedTokenBucket tokenBucket;
+    private final MeterRegistry meterRegistry;
+    private final int maxConcurrent;
+    private final int maxQueuedPerUser;
+    private final int maxQueued;
+    private final long maxQueueWaitNanos;
+    private final Map<Integer, Integer> weights;
+    private final boolean perUserMetrics;
+    private final Timer admittedWait;
+    private final Timer shedWait;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Guarded by lock
+    private int active;
+    private int queued;
+    private final Map<Integer, UserQueue> queues = new HashMap<>();
+    // Users with waiting requests, in the order they are served
+    private final ArrayDeque<UserQueue> rotation = new ArrayDeque<>();
+
+    public FairShareAdmissionControl(LeasedTokenBucket tokenBucket,
+                                     MeterRegistry meterRegistry,
+                                     int maxConcurrent,
+                                     int maxQueuedPerUser,
+                                     int maxQueued,
+                                     long maxQueueWaitMs,
+                                     Map<Integer, Integer> weights,
+                                     boolean perUserMetrics) {
+        this.tokenBucket = tokenBucket;
+        this.meterRegistry = meterRegistry;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueuedPerUser = maxQueuedPerUser;
+        this.maxQueued = maxQueued;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        this.weights = Map.copyOf(weights);
+        this.perUserMetrics = perUserMetrics;
+        this.admittedWait = waitTimer("admitted");
+        this.shedWait = waitTimer("shed");
+        Gauge.builder("chat.admission.active", this, c -> c.snapshot(true))
+                .description("Model calls admitted and running")
+                .register(meterRegistry);
+        Gauge.builder("chat.admission.queued", this, c -> c.snapshot(false))
+                .description("Requests waiting for a model call slot")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T admit(Integer userId, Supplier<T> work) {
+        if (tokenBucket != null && !tokenBucket.tryAcquire(userId)) {
+            reject("rate_limited");
+            throw new AdmissionRejectedException("Rate limit exceeded, please slow down");
+        }
+
+        long start = System.nanoTime();
+        awaitSlot(userId, start);
+        long waited = System.nanoTime() - start;
+        admittedWait.record(waited, TimeUnit.NANOSECONDS);
+        if (perUserMetrics) {
+            meterRegistry.timer("chat.admission.user.wait", "user", String.valueOf(userId))
+                    .record(waited, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            return work.get();
+        } finally {
+            release();
+        }
+    }
+
+    private void awaitSlot(Integer userId, long start) {
+        lock.lock();
+        try {
+            if (active < maxConcurrent && rotation.isEmpty()) {
+                active++;
+                return;
+            }
+
+            UserQueue queue = queues.get(userId);
+            if (queue != null && queue.waiting.size() >= maxQueuedPerUser) {
+                reject("user_queue_full");
+                throw new AdmissionRejectedException("Rate limit exceeded: too many requests waiting for this user");
+            }
+            if (queued >= maxQueued) {
+                reject("queue_full");
+                throw new AdmissionRejectedException("Server busy, please retry shortly");
+            }
+            if (queue == null) {
+                queue = new UserQueue(userId, weights.getOrDefault(userId, 1));
+                queues.put(userId, queue);
+                rotation.addLast(queue);
+            }
+            Ticket ticket = new Ticket(lock.newCondition());
+            queue.waiting.addLast(ticket);
+            queued++;
+
+            long remaining = maxQueueWaitNanos - (System.nanoTime() - start);
+            try {
+                while (!ticket.granted) {
+                    if (remaining <= 0) {
+                        withdraw(queue, ticket);
+                        shedWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        reject("timeout");
+                        throw new AdmissionRejectedException("Server busy, please retry shortly");
+                    }
+                    remaining = ticket.signal.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                if (ticket.granted) {
+                    // The slot was handed over just before the interrupt; give it back
+                    active--;
+                    dispatch();
+                } else {
+                    withdraw(queue, ticket);
+                }
+                Thread.currentThread().interrupt();
+                throw new AdmissionRejectedException("Server busy, please retry shortly");
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            active--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Hands free slots to waiting requests; called with lock held
+    private void dispatch() {
+        while (active < maxConcurrent && !rotation.isEmpty()) {
+            UserQueue queue = rotation.peekFirst();
+            Ticket ticket = queue.waiting.pollFirst();
+            queued--;
+            active++;
+            ticket.granted = true;
+            ticket.signal.signal();
+
+            if (queue.waiting.isEmpty()) {
+                rotation.pollFirst();
+                queues.remove(queue.userId);
+            } else if (--queue.credit == 0) {
+                queue.credit = queue.weight;
+                rotation.addLast(rotation.pollFirst());
+            }
+        }
+    }
+
+    // Removes a request that gave up waiting; called with lock held
+    private void withdraw(UserQueue queue, Ticket ticket) {
+        if (queue.waiting.remove(ticket)) {
+            queued--;
+        }
+        if (queue.waiting.isEmpty()) {
+            rotation.remove(queue);
+            queues.remove(queue.userId);
+        }
+    }
+
+    private int snapshot(boolean running) {
+        lock.lock();
+        try {
+            return running ? active : queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reject(String reason) {
+        meterRegistry.counter("chat.admission.rejected", "reason", reason).increment();
+    }
+
+    private Timer waitTimer(String outcome) {
+        return Timer.builder("chat.admission.wait")
+                .tag("outcome", outcome)
+                .description("Time requests spent waiting for a model call slot")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static final class UserQueue {
+        private final Integer userId;
+        private final int weight;
+        private final ArrayDeque<Ticket> waiting = new ArrayDeque<>();
+        // Slots this user may still take before the next user's turn
+        private int credit;
+
+        private UserQueue(Integer userId, int weight) {
+            this.userId = userId;
+            this.weight = Math.max(1, weight);
+            this.credit = this.weight;
+        }
+    }
+
+    private static final class Ticket {
+        private final Condition signal;
+        private boolean granted;
+
+        private Ticket(Condition signal) {
+            this.signal = signal;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package chatbot.infrastructure.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Per-user token bucket shared by all instances through Redis. Each instance takes permits from Redis a
+// lease at a time and hands them out locally, so most requests cost no Redis round-trip. Leased permits
+// expire unused after lease-ttl, which keeps the cluster-wide rate at or below the configured one.
+public class LeasedTokenBucket {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeasedTokenBucket.class);
+
+    private static final RedisScript<Long> TAKE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/token-bucket.lua"), Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final double permitsPerSecond;
+    private final int capacity;
+    private final int leaseSize;
+    private final long leaseTtlNanos;
+    private final Cache<Integer, Lease> leases;
+
+    public LeasedTokenBucket(StringRedisTemplate redisTemplate,
+                             MeterRegistry meterRegistry,
+                             double permitsPerSecond,
+                             int capacity,
+                             int leaseSize,
+                             Duration leaseTtl) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = capacity;
+        this.leaseSize = Math.min(leaseSize, capacity);
+        this.leaseTtlNanos = leaseTtl.toNanos();
+        this.leases = Caffeine.newBuilder()
+                .expireAfterAccess(leaseTtl.multipliedBy(2))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public boolean tryAcquire(Integer userId) {
+        Lease lease = leases.get(userId, id -> new Lease());
+        lease.lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (lease.permits > 0 && now < lease.expiresAt) {
+                lease.permits--;
+                count("local");
+                return true;
+            }
+            long granted = take(userId);
+            if (granted <= 0) {
+                lease.permits = 0;
+                count("denied");
+                return false;
+            }
+            lease.permits = (int) granted - 1;
+            lease.expiresAt = now + leaseTtlNanos;
+            count("redis");
+            return true;
+        } finally {
+            lease.lock.unlock();
+        }
+    }
+
+    private long take(Integer userId) {
+        try {
+            Long granted = redisTemplate.execute(TAKE_SCRIPT, List.of("chat:ratelimit:{" + userId + "}"),
+                    String.valueOf(permitsPerSecond), String.valueOf(capacity), String.valueOf(leaseSize));
+            return granted == null ? 0 : granted;
+        } catch (Exception e) {
+            // Without Redis there is no shared bucket; requests are let through and only the fair queue applies
+            logger.warn("Rate limit check for user ID {} failed, admitting: {}", userId, e.getMessage());
+            count("unavailable");
+            return 1;
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("chat.admission.rate_limit.checks", "result", result).increment();
+    }
+
+    private static final class Lease {
+        // A lock rather than synchronized, so virtual threads waiting on the Redis call stay unmounted
+        private final ReentrantLock lock = new ReentrantLock();
+        // Guarded by lock
+        private int permits;
+        private long expiresAt;
+    }
+}
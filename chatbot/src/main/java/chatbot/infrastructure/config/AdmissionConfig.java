@@ -0,0 +1,60 @@
+package chatbot.infrastructure.config;
+
+import chatbot.application.service.AdmissionControl;
+import chatbot.infrastructure.admission.FairShareAdmissionControl;
+import chatbot.infrastructure.admission.LeasedTokenBucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Admission control for model calls: per-user rate limit and fair sharing of model call slots
+@Configuration
+@Profile("!reactive")
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionControl admissionControl(StringRedisTemplate redisTemplate,
+                                             MeterRegistry meterRegistry,
+                                             @Value("${chat.admission.enabled:true}") boolean enabled,
+                                             @Value("${chat.admission.rate.permits-per-minute:30}") double permitsPerMinute,
+                                             @Value("${chat.admission.rate.burst:10}") int burst,
+                                             @Value("${chat.admission.rate.lease-size:3}") int leaseSize,
+                                             @Value("${chat.admission.rate.lease-ttl-ms:1000}") long leaseTtlMs,
+                                             @Value("${chat.admission.max-concurrent:32}") int maxConcurrent,
+                                             @Value("${chat.admission.max-queued-per-user:4}") int maxQueuedPerUser,
+                                             @Value("${chat.admission.max-queued:1000}") int maxQueued,
+                                             @Value("${chat.admission.max-queue-wait-ms:5000}") long maxQueueWaitMs,
+                                             @Value("${chat.admission.weights:}") List<String> weights,
+                                             @Value("${chat.admission.per-user-metrics:false}") boolean perUserMetrics) {
+        if (!enabled) {
+            return AdmissionControl.UNLIMITED;
+        }
+        LeasedTokenBucket tokenBucket = permitsPerMinute <= 0 ? null
+                : new LeasedTokenBucket(redisTemplate, meterRegistry, permitsPerMinute / 60, burst, leaseSize,
+                        Duration.ofMillis(leaseTtlMs));
+        return new FairShareAdmissionControl(tokenBucket, meterRegistry, maxConcurrent, maxQueuedPerUser, maxQueued,
+                maxQueueWaitMs, parseWeights(weights), perUserMetrics);
+    }
+
+    // "userId:weight" entries, e.g. chat.admission.weights=7:4,12:2
+    private static Map<Integer, Integer> parseWeights(List<String> entries) {
+        Map<Integer, Integer> weights = new HashMap<>();
+        for (String entry : entries) {
+            if (entry.isBlank()) continue;
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid chat.admission.weights entry '" + entry + "', expected userId:weight");
+            }
+            weights.put(Integer.valueOf(parts[0].trim()), Integer.valueOf(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,70 @@
+package chatbot.infrastructure.config;
+
+import chatbot.application.service.AIChatService;
+import chatbot.infrastructure.external.CachingAiChatService;
+import chatbot.infrastructure.external.FallbackAiChatService;
+import chatbot.infrastructure.external.ResilientAiChatService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+
+// Wraps the model client ("aiChatClient": Gemini or mock) in the configured decorators
+@Configuration
+@Profile("!reactive")
+public class AiChatServiceConfig {
+
+    @Bean
+    @Primary
+    public AIChatService aiChatService(@Qualifier("aiChatClient") AIChatService client,
+                                       StringRedisTemplate redisTemplate,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${ai.cache.enabled:true}") boolean cacheEnabled,
+                                       @Value("${ai.cache.local-max-entries:10000}") long cacheLocalMaxEntries,
+                                       @Value("${ai.cache.ttl-minutes:60}") long cacheTtlMinutes,
+                                       @Value("${ai.cache.similarity.enabled:false}") boolean similarityEnabled,
+                                       @Value("${ai.cache.similarity.threshold:0.92}") float similarityThreshold,
+                                       @Value("${ai.cache.max-prompt-length:2000}") int cacheMaxPromptLength,
+                                       @Value("${ai.cache.bypass-conversation-ids:}") Set<Integer> cacheBypassConversationIds,
+                                       @Value("${ai.resilience.enabled:true}") boolean resilienceEnabled,
+                                       @Value("${ai.resilience.timeout-ms:30000}") long callTimeoutMs,
+                                       @Value("${ai.resilience.stream-timeout-ms:120000}") long streamTimeoutMs,
+                                       @Value("${ai.resilience.max-queue-wait-ms:2000}") long maxQueueWaitMs,
+                                       @Value("${ai.resilience.limit.initial:20}") int initialLimit,
+                                       @Value("${ai.resilience.limit.min:2}") int minLimit,
+                                       @Value("${ai.resilience.limit.max:200}") int maxLimit,
+                                       @Value("${ai.resilience.limit.target-latency-ms:10000}") long targetLatencyMs,
+                                       @Value("${ai.resilience.breaker.window-size:50}") int breakerWindowSize,
+                                       @Value("${ai.resilience.breaker.minimum-calls:10}") int breakerMinimumCalls,
+                                       @Value("${ai.resilience.breaker.failure-rate-percent:50}") int breakerFailureRatePercent,
+                                       @Value("${ai.resilience.breaker.open-ms:30000}") long breakerOpenMs,
+                                       @Value("${ai.resilience.breaker.half-open-probes:3}") int breakerHalfOpenProbes,
+                                       @Value("${ai.resilience.fallback.enabled:false}") boolean fallbackEnabled,
+                                       @Value("${ai.resilience.fallback.reply:The assistant is temporarily unavailable. Please try again in a moment.}") String fallbackReply) {
+        // Innermost first: resilience guards only real model calls, cache hits never wait on the bulkhead,
+        // and the fallback sits outside the cache so canned replies are never cached
+        AIChatService service = client;
+        if (resilienceEnabled) {
+            service = new ResilientAiChatService(service, meterRegistry,
+                    Duration.ofMillis(callTimeoutMs), Duration.ofMillis(streamTimeoutMs), maxQueueWaitMs,
+                    initialLimit, minLimit, maxLimit, targetLatencyMs,
+                    breakerWindowSize, breakerMinimumCalls, breakerFailureRatePercent, breakerOpenMs, breakerHalfOpenProbes);
+        }
+        if (cacheEnabled) {
+            service = new CachingAiChatService(service, redisTemplate, meterRegistry, cacheLocalMaxEntries,
+                    Duration.ofMinutes(cacheTtlMinutes), similarityEnabled, similarityThreshold,
+                    cacheMaxPromptLength, cacheBypassConversationIds);
+        }
+        if (resilienceEnabled && fallbackEnabled) {
+            service = new FallbackAiChatService(service, meterRegistry, fallbackReply);
+        }
+        return service;
+    }
+}
@@ -0,0 +1,67 @@
+package chatbot.infrastructure.config;
+
+import chatbot.domain.repository.ConversationRepository;
+import chatbot.infrastructure.persistence.CachingConversationRepository;
+import chatbot.infrastructure.persistence.JdbcConversationRepository;
+import chatbot.infrastructure.persistence.RedisTailConversationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+// Wraps the JDBC repository in the configured caches
+@Configuration
+@Profile("!reactive")
+public class ConversationRepositoryConfig {
+
+    @Bean
+    @Primary
+    public ConversationRepository conversationRepository(JdbcConversationRepository jdbcConversationRepository,
+                                                         StringRedisTemplate redisTemplate,
+                                                         MeterRegistry meterRegistry,
+                                                         @Value("${chat.history.tail.enabled:true}") boolean tailEnabled,
+                                                         @Value("${chat.history.tail.size:50}") int tailSize,
+                                                         @Value("${chat.history.tail.ttl-hours:24}") long tailTtlHours,
+                                                         @Value("${chat.history.tail.hydrate-hold-off-ms:2000}") long hydrateHoldOffMs,
+                                                         @Value("${chat.persistence.cache.enabled:true}") boolean cacheEnabled,
+                                                         @Value("${chat.persistence.cache.invalidation-channel:chat:conversation-cache:invalidate}") String channel,
+                                                         @Value("${chat.persistence.cache.tail-messages:200}") int tailMessages,
+                                                         @Value("${chat.persistence.cache.tail-max-bytes:67108864}") long tailMaxBytes,
+                                                         @Value("${chat.persistence.cache.conversation-list-max-bytes:16777216}") long conversationListMaxBytes,
+                                                         @Value("${chat.persistence.cache.ttl-seconds:600}") long ttlSeconds) {
+        // Innermost first: MySQL is the source of truth, Redis holds the context tail shared by all
+        // instances, and the in-process cache serves history pages
+        ConversationRepository repository = jdbcConversationRepository;
+        if (tailEnabled) {
+            repository = new RedisTailConversationRepository(repository, redisTemplate, meterRegistry,
+                    tailSize, Duration.ofHours(tailTtlHours), Duration.ofMillis(hydrateHoldOffMs));
+        }
+        if (cacheEnabled) {
+            repository = new CachingConversationRepository(repository, redisTemplate, meterRegistry, channel,
+                    tailMessages, tailMaxBytes, conversationListMaxBytes, Duration.ofSeconds(ttlSeconds));
+        }
+        return repository;
+    }
+
+    // Receives in-process cache invalidations published by the other backend instances
+    @Bean
+    @ConditionalOnProperty(name = "chat.persistence.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer conversationCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                               ConversationRepository conversationRepository,
+                                                                               @Value("${chat.persistence.cache.invalidation-channel:chat:conversation-cache:invalidate}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((MessageListener) conversationRepository, new ChannelTopic(channel));
+        return container;
+    }
+}
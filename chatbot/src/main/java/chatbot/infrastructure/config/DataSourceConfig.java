@@ -0,0 +1,54 @@
+package chatbot.infrastructure.config;
+
+import chatbot.infrastructure.persistence.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Only active when a replica URL is configured; otherwise Boot's single Hikari pool serves reads and writes
+@Configuration
+@Profile("!reactive")
+@ConditionalOnExpression("!'${chat.datasource.replica.url:}'.isEmpty()")
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Same tuning and driver properties as the primary unless overridden under chat.datasource.replica.hikari
+    @Bean
+    @ConfigurationProperties("chat.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+                                              @Value("${chat.datasource.replica.url}") String url,
+                                              @Value("${chat.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${chat.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource replica = new HikariDataSource();
+        primary.copyStateTo(replica);
+        replica.setJdbcUrl(url);
+        replica.setUsername(username);
+        replica.setPassword(password);
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 @Value("${chat.datasource.replica.retry-after-ms:30000}") long retryAfterMs) {
+        return new ReadWriteRoutingDataSource(primary, replica, Duration.ofMillis(retryAfterMs));
+    }
+}
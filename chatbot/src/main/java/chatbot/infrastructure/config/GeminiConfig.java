@@ -0,0 +1,17 @@
+package chatbot.infrastructure.config;
+
+import com.google.genai.Client;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "ai.service.mock", havingValue = "false", matchIfMissing = true)
+public class GeminiConfig {
+
+    // Shared by the chat service and the background summarizer; reads GOOGLE_API_KEY from the environment
+    @Bean(destroyMethod = "close")
+    public Client geminiClient() {
+        return new Client();
+    }
+}
@@ -1,24 +1,79 @@
 package chatbot.infrastructure.config;
 
 import chatbot.application.service.JwtEncodedService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class JwtEncodedServiceImpl implements JwtEncodedService {
+public class JwtEncodedServiceImpl implements JwtEncodedService, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtEncodedServiceImpl.class);
 
     private static final String SECRET = "thulinhloaibocuadaiduongthulinhloaibocuadaiduong";
     private static final long EXPIRATION_TIME = 86400000; // 24h
+    private static final String REVOKED_KEY_PREFIX = "chat:jwt:revoked:";
 
     private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+    // Parsers are immutable and thread-safe, so one is shared by all requests
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Verified tokens by hash, each evicted at its own expiry. Evicting one early only costs a signature check.
+    private final Cache<String, VerifiedToken> verified;
+    // Revoked token hashes -> expiry. Never bounded by size: dropping a revocation early would make a logged-out
+    // token valid again, so each one is removed only once the token has expired anyway.
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("jwt-revocation-sweeper").daemon(true).factory());
+    // Revocations are also stored in Redis until expiry and published, so every instance rejects them.
+    // Null keeps them on this instance only.
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+
+    public JwtEncodedServiceImpl(StringRedisTemplate redisTemplate,
+                                 @Value("${jwt.cache.max-size:100000}") long cacheMaxSize,
+                                 @Value("${jwt.revocation.channel:chat:jwt:revoked}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
 
     @Override
     public String encode(Integer userId) {
         return Jwts.builder()
+                // Unique per token, so two logins in the same second don't share a token (and a logout)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userId.toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -27,12 +82,120 @@ public class JwtEncodedServiceImpl implements JwtEncodedService {
     }
 
     public Integer decode(String token) {
-        String subject = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-        return Integer.valueOf(subject);
+        String hash = hash(token);
+        if (revoked.containsKey(hash)) {
+            throw new IllegalArgumentException("Token has been revoked");
+        }
+        VerifiedToken cached = verified.getIfPresent(hash);
+        if (cached != null) {
+            return cached.userId();
+        }
+
+        VerifiedToken fresh = verify(token);
+        verified.put(hash, fresh);
+        return fresh.userId();
+    }
+
+    @Override
+    public void revoke(String token) {
+        String hash = hash(token);
+        VerifiedToken known = verified.getIfPresent(hash);
+        if (known == null) {
+            known = verify(token);
+        }
+        remember(hash, known.expiresAtMillis());
+        share(hash, known.expiresAtMillis());
+    }
+
+    // Revocations made before this instance started
+    @PostConstruct
+    void loadRevocations() {
+        if (redisTemplate == null) return;
+        int loaded = 0;
+        try (Cursor<String> keys = redisTemplate.scan(ScanOptions.scanOptions().match(REVOKED_KEY_PREFIX + "*").count(1000).build())) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                String expiresAt = redisTemplate.opsForValue().get(key);
+                if (expiresAt != null) {
+                    remember(key.substring(REVOKED_KEY_PREFIX.length()), Long.parseLong(expiresAt));
+                    loaded++;
+                }
+            }
+            logger.info("Loaded {} revoked tokens", loaded);
+        } catch (RuntimeException e) {
+            // Revocations from now on still arrive over pub/sub
+            logger.error("Failed to load revoked tokens from Redis: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    // Revocation from another instance: "<hash>|<expiresAtMillis>"
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0) return;
+        remember(body.substring(0, separator), Long.parseLong(body.substring(separator + 1)));
+    }
+
+    private void remember(String hash, long expiresAtMillis) {
+        long remaining = expiresAtMillis - System.currentTimeMillis();
+        if (remaining <= 0) return;
+        if (revoked.putIfAbsent(hash, expiresAtMillis) == null) {
+            sweeper.schedule(() -> revoked.remove(hash), remaining, TimeUnit.MILLISECONDS);
+        }
+        verified.invalidate(hash);
+    }
+
+    private void share(String hash, long expiresAtMillis) {
+        if (redisTemplate == null) return;
+        long remaining = expiresAtMillis - System.currentTimeMillis();
+        if (remaining <= 0) return;
+        try {
+            redisTemplate.opsForValue().set(REVOKED_KEY_PREFIX + hash, Long.toString(expiresAtMillis), Duration.ofMillis(remaining));
+            redisTemplate.convertAndSend(channel, hash + "|" + expiresAtMillis);
+        } catch (Exception e) {
+            // Still revoked here; other instances accept the token until it expires
+            logger.error("Failed to share token revocation with other instances: {}", e.getMessage());
+        }
+    }
+
+    private VerifiedToken verify(String token) {
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration == null ? System.currentTimeMillis() + EXPIRATION_TIME : expiration.getTime();
+        return new VerifiedToken(Integer.valueOf(claims.getSubject()), expiresAt);
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record VerifiedToken(Integer userId, long expiresAtMillis) {
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String hash, VerifiedToken token, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAtMillis() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(hash, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String hash, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
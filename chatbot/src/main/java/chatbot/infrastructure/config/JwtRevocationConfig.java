@@ -0,0 +1,23 @@
+package chatbot.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+// Receives tokens revoked through the other backend instances
+@Configuration
+public class JwtRevocationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer revokedTokenListener(RedisConnectionFactory connectionFactory,
+                                                              JwtEncodedServiceImpl jwtEncodedService,
+                                                              @Value("${jwt.revocation.channel:chat:jwt:revoked}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(jwtEncodedService, new ChannelTopic(channel));
+        return container;
+    }
+}
@@ -0,0 +1,28 @@
+package chatbot.infrastructure.config;
+
+import chatbot.application.service.BudgetedPromptBuilder;
+import chatbot.application.service.PromptBuilder;
+import chatbot.application.service.TokenEstimator;
+import chatbot.infrastructure.external.CachingPromptBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Token-budgeted prompt assembly behind the per-conversation context cache
+@Configuration
+public class PromptBuilderConfig {
+
+    @Bean
+    public PromptBuilder promptBuilder(TokenEstimator tokenEstimator,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${chat.prompt.preamble:This is a conversation between a user and an AI assistant.}") String preamble,
+                                       @Value("${chat.prompt.token-budget:4000}") int tokenBudget,
+                                       @Value("${chat.prompt.max-entries:20}") int maxEntries,
+                                       @Value("${chat.prompt.max-entries-with-summary:8}") int maxEntriesWithSummary,
+                                       @Value("${chat.prompt.cache.max-conversations:10000}") long maxCachedConversations) {
+        BudgetedPromptBuilder budgeted = new BudgetedPromptBuilder(tokenEstimator, preamble, tokenBudget, maxEntries,
+                maxEntriesWithSummary);
+        return new CachingPromptBuilder(budgeted, meterRegistry, maxCachedConversations);
+    }
+}
@@ -0,0 +1,18 @@
+package chatbot.infrastructure.config;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// spring-boot-starter-web keeps Tomcat on the classpath, and Boot picks Tomcat over Netty for a reactive
+// application when both are present. Declaring the factory runs WebFlux on Reactor Netty as intended.
+@Configuration
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
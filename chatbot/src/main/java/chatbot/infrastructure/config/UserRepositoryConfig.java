@@ -0,0 +1,53 @@
+package chatbot.infrastructure.config;
+
+import chatbot.domain.repository.UserRepository;
+import chatbot.infrastructure.persistence.EmailFilterUserRepository;
+import chatbot.infrastructure.persistence.JdbcUserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+// Puts the registered email filter in front of the JDBC repository
+@Configuration
+@Profile("!reactive")
+public class UserRepositoryConfig {
+
+    @Bean
+    @Primary
+    public UserRepository userRepository(JdbcUserRepository jdbcUserRepository,
+                                         StringRedisTemplate redisTemplate,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${chat.users.email-filter.enabled:true}") boolean filterEnabled,
+                                         @Value("${chat.users.email-filter.channel:chat:users:registered}") String channel,
+                                         @Value("${chat.users.email-filter.expected-emails:1000000}") long expectedEmails,
+                                         @Value("${chat.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (!filterEnabled) {
+            return jdbcUserRepository;
+        }
+        EmailFilterUserRepository repository = new EmailFilterUserRepository(jdbcUserRepository, redisTemplate,
+                meterRegistry, channel, expectedEmails, falsePositiveRate);
+        repository.warmInBackground();
+        return repository;
+    }
+
+    // Receives emails registered through the other backend instances
+    @Bean
+    @ConditionalOnProperty(name = "chat.users.email-filter.enabled", havingValue = "true", matchIfMissing = true)
+    public RedisMessageListenerContainer registeredEmailListener(RedisConnectionFactory connectionFactory,
+                                                                 UserRepository userRepository,
+                                                                 @Value("${chat.users.email-filter.channel:chat:users:registered}") String channel) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((MessageListener) userRepository, new ChannelTopic(channel));
+        return container;
+    }
+}
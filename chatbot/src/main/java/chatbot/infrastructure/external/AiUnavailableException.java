@@ -0,0 +1,9 @@
+package chatbot.infrastructure.external;
+
+// Thrown when the model is not called at all or gave up on: circuit open, concurrency limit reached or deadline exceeded
+public class AiUnavailableException extends RuntimeException {
+
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+}
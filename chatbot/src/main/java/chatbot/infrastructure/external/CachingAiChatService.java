@@ -0,0 +1,228 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.AIChatService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Consumer;
+
+// Serves repeated prompts without a model call. Exact hits (normalized prompt + context fingerprint) come
+// from an in-process LRU, then Redis; optionally, near-identical prompts in the same context are matched
+// by embedding similarity. Cached replies are reported to the client through recordReply like generated
+// ones, so its per-turn bookkeeping (prompt cache, summary cadence) does not skip them.
+public class CachingAiChatService implements AIChatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingAiChatService.class);
+
+    private static final String REDIS_PREFIX = "ai:cache:";
+    private static final int SIMILARITY_ENTRIES_PER_CONTEXT = 64;
+
+    private final AIChatService delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+    private final boolean similarityEnabled;
+    private final float similarityThreshold;
+    private final int maxPromptLength;
+    private final Set<Integer> bypassConversationIds;
+
+    private final Cache<String, String> localCache;
+    private final Cache<String, Deque<SimilarEntry>> similarityIndex;
+    private final MeterRegistry meterRegistry;
+
+    public CachingAiChatService(AIChatService delegate,
+                                StringRedisTemplate redisTemplate,
+                                MeterRegistry meterRegistry,
+                                long localMaxEntries,
+                                Duration ttl,
+                                boolean similarityEnabled,
+                                float similarityThreshold,
+                                int maxPromptLength,
+                                Set<Integer> bypassConversationIds) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.similarityEnabled = similarityEnabled;
+        this.similarityThreshold = similarityThreshold;
+        this.maxPromptLength = maxPromptLength;
+        this.bypassConversationIds = bypassConversationIds;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        this.similarityIndex = Caffeine.newBuilder()
+                .maximumSize(localMaxEntries / SIMILARITY_ENTRIES_PER_CONTEXT + 1)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public String generateResponse(String prompt, Integer conversationId) {
+        return generateResponse(prompt, conversationId, null);
+    }
+
+    @Override
+    public String generateResponse(String prompt, Integer conversationId, PreparedContext context) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // The context read for the key is handed on, so a miss does not read it again
+        PreparedContext prepared = context != null ? context : delegate.prepareContext(conversationId);
+        CacheKey key = cacheKey(prompt, conversationId, prepared);
+        String cached = key == null ? null : lookup(key);
+        if (cached != null) {
+            delegate.recordReply(prompt, conversationId, prepared, cached);
+            sample.stop(latency("hit"));
+            return cached;
+        }
+
+        String reply = delegate.generateResponse(prompt, conversationId, prepared);
+        store(key, reply);
+        sample.stop(latency(key == null ? "bypass" : "miss"));
+        return reply;
+    }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, Consumer<String> onToken) {
+        return streamResponse(prompt, conversationId, null, onToken);
+    }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, PreparedContext context, Consumer<String> onToken) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        PreparedContext prepared = context != null ? context : delegate.prepareContext(conversationId);
+        CacheKey key = cacheKey(prompt, conversationId, prepared);
+        String cached = key == null ? null : lookup(key);
+        if (cached != null) {
+            onToken.accept(cached);
+            delegate.recordReply(prompt, conversationId, prepared, cached);
+            sample.stop(latency("hit"));
+            return cached;
+        }
+
+        String reply = delegate.streamResponse(prompt, conversationId, prepared, onToken);
+        store(key, reply);
+        sample.stop(latency(key == null ? "bypass" : "miss"));
+        return reply;
+    }
+
+    @Override
+    public PreparedContext prepareContext(Integer conversationId) {
+        return delegate.prepareContext(conversationId);
+    }
+
+    @Override
+    public void recordReply(String prompt, Integer conversationId, PreparedContext context, String reply) {
+        delegate.recordReply(prompt, conversationId, context, reply);
+    }
+
+    private CacheKey cacheKey(String prompt, Integer conversationId, PreparedContext context) {
+        if (prompt == null || prompt.length() > maxPromptLength || bypassConversationIds.contains(conversationId)) {
+            count("bypass");
+            return null;
+        }
+        String fingerprint = context == null ? null : context.fingerprint();
+        if (fingerprint == null) {
+            count("bypass");
+            return null;
+        }
+        String normalized = PromptEmbedding.normalize(prompt);
+        return new CacheKey(sha256(fingerprint + '\u0000' + normalized), fingerprint, normalized);
+    }
+
+    private String lookup(CacheKey key) {
+        String reply = localCache.getIfPresent(key.hash());
+        if (reply != null) {
+            count("hit_local");
+            return reply;
+        }
+
+        try {
+            reply = redisTemplate.opsForValue().get(REDIS_PREFIX + key.hash());
+        } catch (Exception e) {
+            logger.warn("Response cache lookup in Redis failed: {}", e.getMessage());
+        }
+        if (reply != null) {
+            localCache.put(key.hash(), reply);
+            count("hit_redis");
+            return reply;
+        }
+
+        if (similarityEnabled) {
+            reply = findSimilar(key);
+            if (reply != null) {
+                count("hit_similar");
+                return reply;
+            }
+        }
+
+        count("miss");
+        return null;
+    }
+
+    private String findSimilar(CacheKey key) {
+        Deque<SimilarEntry> entries = similarityIndex.getIfPresent(key.fingerprint());
+        if (entries == null) return null;
+        float[] embedding = PromptEmbedding.embed(key.normalizedPrompt());
+        SimilarEntry best = null;
+        float bestScore = similarityThreshold;
+        for (SimilarEntry entry : entries) {
+            float score = PromptEmbedding.similarity(embedding, entry.embedding());
+            if (score >= bestScore) {
+                best = entry;
+                bestScore = score;
+            }
+        }
+        return best == null ? null : best.reply();
+    }
+
+    private void store(CacheKey key, String reply) {
+        if (key == null || reply == null || reply.isBlank()) return;
+        localCache.put(key.hash(), reply);
+        try {
+            redisTemplate.opsForValue().set(REDIS_PREFIX + key.hash(), reply, ttl);
+        } catch (Exception e) {
+            logger.warn("Response cache write to Redis failed: {}", e.getMessage());
+        }
+        if (similarityEnabled) {
+            Deque<SimilarEntry> entries = similarityIndex.get(key.fingerprint(), f -> new ConcurrentLinkedDeque<>());
+            entries.addFirst(new SimilarEntry(PromptEmbedding.embed(key.normalizedPrompt()), reply));
+            while (entries.size() > SIMILARITY_ENTRIES_PER_CONTEXT) {
+                entries.pollLast();
+            }
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("ai.cache.requests", "result", result).increment();
+    }
+
+    private Timer latency(String result) {
+        return meterRegistry.timer("ai.cache.latency", "result", result);
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record CacheKey(String hash, String fingerprint, String normalizedPrompt) {
+    }
+
+    private record SimilarEntry(float[] embedding, String reply) {
+    }
+}
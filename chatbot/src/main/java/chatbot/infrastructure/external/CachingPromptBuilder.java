@@ -0,0 +1,79 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.BudgetedPromptBuilder;
+import chatbot.application.service.PromptBuilder;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+// Caches the tokenized context of each conversation with the history version it reflects,
+// so a new turn only estimates the delta instead of the whole history
+public class CachingPromptBuilder implements PromptBuilder {
+
+    private final BudgetedPromptBuilder delegate;
+    private final Cache<Integer, BudgetedPromptBuilder.Context> contexts;
+
+    private final DistributionSummary promptTokens;
+    private final DistributionSummary promptEntries;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public CachingPromptBuilder(BudgetedPromptBuilder delegate, MeterRegistry meterRegistry, long maxCachedConversations) {
+        this.delegate = delegate;
+        this.contexts = Caffeine.newBuilder()
+                .maximumSize(maxCachedConversations)
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .build();
+
+        this.promptTokens = DistributionSummary.builder("chat.prompt.tokens")
+                .description("Estimated tokens per assembled prompt")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.promptEntries = DistributionSummary.builder("chat.prompt.history.entries")
+                .description("History entries included per prompt")
+                .register(meterRegistry);
+        this.cacheHits = Counter.builder("chat.prompt.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("chat.prompt.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    public String build(Integer conversationId, long version, String summary, List<String> history, String prompt) {
+        BudgetedPromptBuilder.Prompt[] assembled = new BudgetedPromptBuilder.Prompt[1];
+        // Assembled inside compute so a concurrent recordTurn cannot modify the entries mid-iteration
+        contexts.asMap().compute(conversationId, (id, cached) -> {
+            BudgetedPromptBuilder.Context context;
+            long delta = cached == null ? -1 : version - cached.version();
+            if (cached != null && Objects.equals(cached.summary(), summary) && delta >= 0 && delta <= history.size()) {
+                cacheHits.increment();
+                cached.append(history.subList(history.size() - (int) delta, history.size()), version);
+                context = cached;
+            } else {
+                cacheMisses.increment();
+                context = delegate.newContext(summary);
+                context.append(history, version);
+            }
+            assembled[0] = delegate.assemble(context, prompt);
+            return context;
+        });
+
+        promptTokens.record(assembled[0].tokens());
+        promptEntries.record(assembled[0].entries());
+        return assembled[0].text();
+    }
+
+    // Records a completed turn so the next build finds the cache already up to date
+    @Override
+    public void recordTurn(Integer conversationId, long version, List<String> entries) {
+        contexts.asMap().computeIfPresent(conversationId, (id, cached) -> {
+            if (cached.version() + entries.size() != version) return null;
+            cached.append(entries, version);
+            return cached;
+        });
+    }
+}
@@ -0,0 +1,138 @@
+package chatbot.infrastructure.external;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Count-based circuit breaker. Opens when the failure rate over the last window of calls crosses the
+// threshold, rejects calls while open, then lets a few probe calls through: all succeed -> closed, any fails -> open.
+// Each admitted call carries the state it was admitted under; a result that arrives after the state has changed
+// (a call admitted while closed finishing during half-open) is not counted toward the new state.
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    record Permit(State admittedIn, long generation) {
+    }
+
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final int failureRatePercent;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Written under the lock, read without it by the state gauge
+    private volatile State state = State.CLOSED;
+    // Incremented on every state change
+    private long generation;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    CircuitBreaker(int windowSize, int minimumCalls, int failureRatePercent, long openMs, int halfOpenProbes) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRatePercent = failureRatePercent;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    // Null when the call is rejected
+    Permit tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) return null;
+                transition(State.HALF_OPEN);
+                probesInFlight = 0;
+                probeSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight >= halfOpenProbes) return null;
+                probesInFlight++;
+            }
+            return new Permit(state, generation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The permitted call never reached the model (e.g. the bulkhead rejected it)
+    void release(Permit permit) {
+        lock.lock();
+        try {
+            if (isCurrent(permit) && state == State.HALF_OPEN) probesInFlight--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onSuccess(Permit permit) {
+        lock.lock();
+        try {
+            if (!isCurrent(permit)) return;
+            if (state == State.HALF_OPEN) {
+                probesInFlight--;
+                if (++probeSuccesses >= halfOpenProbes) close();
+            } else if (state == State.CLOSED) {
+                record(false);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void onFailure(Permit permit) {
+        lock.lock();
+        try {
+            if (!isCurrent(permit)) return;
+            if (state == State.HALF_OPEN) {
+                open();
+            } else if (state == State.CLOSED) {
+                record(true);
+                if (recorded >= minimumCalls && failures * 100 >= failureRatePercent * recorded) open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    State state() {
+        return state;
+    }
+
+    private boolean isCurrent(Permit permit) {
+        return permit.generation() == generation;
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) failures--;
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) failures++;
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        transition(State.CLOSED);
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,128 @@
+package chatbot.infrastructure.external;
+
+import com.google.genai.Client;
+import com.google.genai.types.GenerateContentResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Refreshes the rolling summary of a conversation off the request path. Requests are deduplicated per
+// conversation, at most `concurrency` summaries run at once, and failed attempts are retried with backoff.
+@Component
+@ConditionalOnProperty(name = "ai.service.mock", havingValue = "false", matchIfMissing = true)
+public class ConversationSummarizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationSummarizer.class);
+
+    private static final String SUMMARY_MODEL = "gemini-2.5-flash";
+
+    private final Client geminiClient;
+    private final GeminiMetrics geminiMetrics;
+    private final StringRedisTemplate redisTemplate;
+    private final int windowSize;
+    private final long delayMs;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final Duration ttl;
+
+    private final ScheduledExecutorService scheduler;
+    // Latest history window per conversation waiting to be folded into its summary
+    private final Map<Integer, List<String>> pending = new ConcurrentHashMap<>();
+
+    public ConversationSummarizer(Client geminiClient,
+                                  GeminiMetrics geminiMetrics,
+                                  StringRedisTemplate redisTemplate,
+                                  @Value("${chat.summary.window-size:10}") int windowSize,
+                                  @Value("${chat.summary.concurrency:2}") int concurrency,
+                                  @Value("${chat.summary.delay-ms:1000}") long delayMs,
+                                  @Value("${chat.summary.max-retries:3}") int maxRetries,
+                                  @Value("${chat.summary.retry-backoff-ms:2000}") long retryBackoffMs) {
+        this.geminiClient = geminiClient;
+        this.geminiMetrics = geminiMetrics;
+        this.redisTemplate = redisTemplate;
+        this.windowSize = windowSize;
+        this.delayMs = delayMs;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.ttl = Duration.ofDays(30);
+        this.scheduler = Executors.newScheduledThreadPool(concurrency,
+                Thread.ofPlatform().name("summarizer-", 0).daemon(true).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // Queues a summary refresh unless one is already waiting for this conversation, in which case that one
+    // uses the newer window. history is the latest entries of the conversation, oldest first.
+    public void request(Integer conversationId, List<String> history) {
+        List<String> window = List.copyOf(history.subList(Math.max(0, history.size() - windowSize), history.size()));
+        if (pending.put(conversationId, window) == null) {
+            scheduler.schedule(() -> run(conversationId, 1), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run(Integer conversationId, int attempt) {
+        // Turns arriving from here on schedule a fresh refresh instead of being absorbed by this one
+        List<String> window = pending.remove(conversationId);
+        if (window == null) return;
+        try {
+            summarize(conversationId, window);
+        } catch (Exception e) {
+            if (attempt >= maxRetries) {
+                logger.error("Giving up on summary for conversationId={} after {} attempts: {}", conversationId, attempt, e.getMessage());
+                return;
+            }
+            long backoff = retryBackoffMs * (1L << (attempt - 1));
+            logger.warn("Summary attempt {} for conversationId={} failed, retrying in {}ms: {}", attempt, conversationId, backoff, e.getMessage());
+            if (pending.putIfAbsent(conversationId, window) == null) {
+                scheduler.schedule(() -> run(conversationId, attempt + 1), backoff, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void summarize(Integer conversationId, List<String> window) {
+        String summaryKey = "chat:" + conversationId + ":summary";
+
+        if (window.isEmpty()) return;
+        String previousSummary = redisTemplate.opsForValue().get(summaryKey);
+
+        // Rolling summary: fold the latest messages into the previous summary
+        StringBuilder summaryPrompt = new StringBuilder("Summarize this conversation");
+        if (previousSummary != null) {
+            summaryPrompt.append(", updating the existing summary with the new messages.\n\nExisting summary:\n")
+                    .append(previousSummary).append("\n\nNew messages:\n");
+        } else {
+            summaryPrompt.append(":\n");
+        }
+        summaryPrompt.append(String.join("\n", window));
+
+        long start = System.nanoTime();
+        GenerateContentResponse summaryResponse = null;
+        String summary = null;
+        try {
+            summaryResponse = geminiClient.models.generateContent(SUMMARY_MODEL, summaryPrompt.toString(), null);
+            summary = summaryResponse.text();
+        } finally {
+            geminiMetrics.record(SUMMARY_MODEL, "summary", start, summaryPrompt.toString(), summary, summaryResponse);
+        }
+        if (summary == null || summary.isBlank()) {
+            throw new IllegalStateException("empty summary");
+        }
+        redisTemplate.opsForValue().set(summaryKey, summary, ttl);
+        logger.debug("Updated summary for conversationId={}: {}", conversationId, summary);
+    }
+}
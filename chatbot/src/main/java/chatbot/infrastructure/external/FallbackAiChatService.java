@@ -0,0 +1,74 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.AIChatService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Degraded mode: answers with a canned reply while the model is unavailable. Sits outside the response
+// cache so canned replies are never cached.
+public class FallbackAiChatService implements AIChatService {
+
+    private final AIChatService delegate;
+    private final MeterRegistry meterRegistry;
+    private final String reply;
+
+    public FallbackAiChatService(AIChatService delegate, MeterRegistry meterRegistry, String reply) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.reply = reply;
+    }
+
+    @Override
+    public String generateResponse(String prompt, Integer conversationId) {
+        return generateResponse(prompt, conversationId, null);
+    }
+
+    @Override
+    public String generateResponse(String prompt, Integer conversationId, PreparedContext context) {
+        try {
+            return delegate.generateResponse(prompt, conversationId, context);
+        } catch (AiUnavailableException e) {
+            meterRegistry.counter("ai.fallback.replies").increment();
+            return reply;
+        }
+    }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, Consumer<String> onToken) {
+        return streamResponse(prompt, conversationId, null, onToken);
+    }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, PreparedContext context, Consumer<String> onToken) {
+        AtomicBoolean streamed = new AtomicBoolean();
+        try {
+            return delegate.streamResponse(prompt, conversationId, context, token -> {
+                streamed.set(true);
+                onToken.accept(token);
+            });
+        } catch (AiUnavailableException e) {
+            // Part of a real reply has already been sent; appending a canned one would garble it
+            if (streamed.get()) throw e;
+            meterRegistry.counter("ai.fallback.replies").increment();
+            onToken.accept(reply);
+            return reply;
+        }
+    }
+
+    @Override
+    public boolean isFallback(String reply) {
+        return this.reply.equals(reply);
+    }
+
+    @Override
+    public PreparedContext prepareContext(Integer conversationId) {
+        return delegate.prepareContext(conversationId);
+    }
+
+    @Override
+    public void recordReply(String prompt, Integer conversationId, PreparedContext context, String reply) {
+        delegate.recordReply(prompt, conversationId, context, reply);
+    }
+}
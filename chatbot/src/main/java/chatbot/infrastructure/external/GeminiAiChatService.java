@@ -1,83 +1,211 @@
 package chatbot.infrastructure.external;
 
 import chatbot.application.service.AIChatService;
+import chatbot.application.service.PromptBuilder;
+import chatbot.domain.entity.MessageWindow;
+import chatbot.domain.repository.ConversationRepository;
+import chatbot.infrastructure.metrics.RequestTimings;
 import com.google.genai.Client;
+import com.google.genai.ResponseStream;
 import com.google.genai.types.GenerateContentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-@Service
+@Service("aiChatClient")
 @ConditionalOnProperty(name = "ai.service.mock", havingValue = "false", matchIfMissing = true)
+@Profile("!reactive")
 public class GeminiAiChatService implements AIChatService {
 
     private static final Logger logger = LoggerFactory.getLogger(GeminiAiChatService.class);
 
     private final Client geminiClient;
+    private final ConversationRepository conversationRepository;
     private final StringRedisTemplate redisTemplate;
+    private final ConversationSummarizer summarizer;
+    private final PromptBuilder promptBuilder;
+    private final GeminiMetrics geminiMetrics;
+    private final MeterRegistry meterRegistry;
+    private static final String MODEL = "gemini-2.0-flash";
     private final int MAX_HISTORY = 10;
     private final int SUMMARY_INTERVAL = 5;
 
     public GeminiAiChatService(
-            @Value("${google.api.key}") String apiKey,
-            StringRedisTemplate redisTemplate
+            Client geminiClient,
+            ConversationRepository conversationRepository,
+            StringRedisTemplate redisTemplate,
+            ConversationSummarizer summarizer,
+            PromptBuilder promptBuilder,
+            GeminiMetrics geminiMetrics,
+            MeterRegistry meterRegistry
     ) {
-        this.geminiClient = new Client();
+        this.geminiClient = geminiClient;
+        this.conversationRepository = conversationRepository;
         this.redisTemplate = redisTemplate;
+        this.summarizer = summarizer;
+        this.promptBuilder = promptBuilder;
+        this.geminiMetrics = geminiMetrics;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
     public String generateResponse(String prompt, Integer conversationId) {
-        String historyKey = "chat:" + conversationId + ":history";
-        String summaryKey = "chat:" + conversationId + ":summary";
+        return generateResponse(prompt, conversationId, null);
+    }
 
+    @Override
+    public String generateResponse(String prompt, Integer conversationId, PreparedContext prepared) {
         try {
             logger.info("Generating AI response for conversationId={} with prompt='{}'", conversationId, prompt);
 
-            // Step 1: Get chat history
-            List<String> recentMessages = redisTemplate.opsForList().range(historyKey, -MAX_HISTORY * 2, -1);
-            if (recentMessages == null) recentMessages = List.of();
-
-            // Step 2: Build chat-style prompt
-            StringBuilder chatPrompt = new StringBuilder();
-            chatPrompt.append("This is a conversation between a user and an AI assistant.\n\nConversation:\n");
-
-            for (String msg : recentMessages) {
-                chatPrompt.append(msg).append("\n");
-            }
-            chatPrompt.append("User: ").append(prompt).append("\nAI:");
+            ConversationContext context = contextFor(conversationId, prepared);
+            // Step 2: Build chat-style prompt within the token budget
+            String chatPrompt = promptBuilder.build(conversationId, context.version(), context.summary(), context.recentMessages(), prompt);
 
             // Step 3: Call Gemini
-            GenerateContentResponse response = geminiClient.models.generateContent("gemini-2.0-flash", chatPrompt.toString(), null);
-            String reply = response.text();
-            logger.info("Gemini replied: {}", reply);
-
-            // Step 4: Save new messages to history
-            redisTemplate.opsForList().rightPush(historyKey, "User: " + prompt);
-            redisTemplate.opsForList().rightPush(historyKey, "AI: " + reply);
-            redisTemplate.expire(historyKey, Duration.ofDays(30));
-
-            // Step 5: Update summary if needed
-            Long messageCount = redisTemplate.opsForList().size(historyKey);
-            if (messageCount != null && messageCount % (SUMMARY_INTERVAL * 2) == 0) {
-                String summaryInput = String.join("\n", redisTemplate.opsForList().range(historyKey, -SUMMARY_INTERVAL * 2, -1));
-                String summaryPrompt = "Summarize this conversation:\n" + summaryInput;
-                GenerateContentResponse summaryResponse = geminiClient.models.generateContent("gemini-2.5-flash", summaryPrompt, null);
-                String summary = summaryResponse.text();
-                redisTemplate.opsForValue().set(summaryKey, summary, Duration.ofDays(30));
-                logger.debug("Updated summary: {}", summary);
+            long start = System.nanoTime();
+            GenerateContentResponse response = null;
+            String reply = null;
+            try {
+                response = geminiClient.models.generateContent(MODEL, chatPrompt, null);
+                reply = response.text();
+            } finally {
+                geminiMetrics.record(MODEL, "generate", start, chatPrompt, reply, response);
             }
+            logger.info("Gemini replied: {}", reply);
 
+            recordTurn(conversationId, context, prompt, reply);
             return reply;
         } catch (Exception e) {
             logger.error("Error generating response for conversationId={}: {}", conversationId, e.getMessage(), e);
             throw new RuntimeException("AI error: " + e.getMessage(), e);
         }
     }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, Consumer<String> onToken) {
+        return streamResponse(prompt, conversationId, null, onToken);
+    }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, PreparedContext prepared, Consumer<String> onToken) {
+        try {
+            logger.info("Streaming AI response for conversationId={} with prompt='{}'", conversationId, prompt);
+
+            ConversationContext context = contextFor(conversationId, prepared);
+            // Step 2: Build chat-style prompt within the token budget
+            String chatPrompt = promptBuilder.build(conversationId, context.version(), context.summary(), context.recentMessages(), prompt);
+
+            // Step 3: Stream from Gemini, forwarding each chunk as soon as it arrives
+            StringBuilder reply = new StringBuilder();
+            long start = System.nanoTime();
+            GenerateContentResponse lastChunk = null;
+            boolean completed = false;
+            try (ResponseStream<GenerateContentResponse> stream =
+                         geminiClient.models.generateContentStream(MODEL, chatPrompt, null)) {
+                for (GenerateContentResponse chunk : stream) {
+                    lastChunk = chunk;
+                    String text = chunk.text();
+                    if (text == null || text.isEmpty()) continue;
+                    reply.append(text);
+                    onToken.accept(text);
+                }
+                completed = true;
+            } finally {
+                geminiMetrics.record(MODEL, "stream", start, chatPrompt, completed ? reply.toString() : null, lastChunk);
+            }
+            logger.info("Gemini streamed {} chars for conversationId={}", reply.length(), conversationId);
+
+            recordTurn(conversationId, context, prompt, reply.toString());
+            return reply.toString();
+        } catch (CancellationException e) {
+            // The caller stopped consuming the stream (see ChatController.streamMessage); not a model error
+            throw e;
+        } catch (Exception e) {
+            logger.error("Error streaming response for conversationId={}: {}", conversationId, e.getMessage(), e);
+            throw new RuntimeException("AI error: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public PreparedContext prepareContext(Integer conversationId) {
+        return readContext(conversationId);
+    }
+
+    @Override
+    public void recordReply(String prompt, Integer conversationId, PreparedContext prepared, String reply) {
+        recordTurn(conversationId, contextFor(conversationId, prepared), prompt, reply);
+    }
+
+    // Reuses the context read ahead of the call (for the cache key) instead of reading it a second time
+    private ConversationContext contextFor(Integer conversationId, PreparedContext prepared) {
+        return prepared instanceof ConversationContext context && context.conversationId().equals(conversationId)
+                ? context
+                : readContext(conversationId);
+    }
+
+    private ConversationContext readContext(Integer conversationId) {
+        // Step 1: Get the latest messages (Redis tail, hydrated from MySQL when cold) and the summary
+        MessageWindow window = conversationRepository.getRecentMessages(conversationId, MAX_HISTORY * 2);
+        String summary = timedRedis("read_summary", () -> redisTemplate.opsForValue().get(summaryKey(conversationId)));
+        return new ConversationContext(conversationId, PromptBuilder.entries(window.messages()), window.total(), summary);
+    }
+
+    // The caller persists the turn; this only advances the prompt cache and schedules summaries
+    private void recordTurn(Integer conversationId, ConversationContext context, String prompt, String reply) {
+        List<String> turn = List.of(PromptBuilder.entry(true, prompt), PromptBuilder.entry(false, reply));
+        long messageCount = context.version() + turn.size();
+        promptBuilder.recordTurn(conversationId, messageCount, turn);
+
+        // Step 5: Refresh the summary in the background if needed
+        if (messageCount % (SUMMARY_INTERVAL * 2) == 0) {
+            List<String> history = new ArrayList<>(context.recentMessages());
+            history.addAll(turn);
+            summarizer.request(conversationId, history);
+        }
+    }
+
+    private <T> T timedRedis(String operation, Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("chat.redis", "operation", operation).record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTimings.record("redis." + operation, elapsed);
+        }
+    }
+
+    private String summaryKey(Integer conversationId) {
+        return "chat:" + conversationId + ":summary";
+    }
+
+    private record ConversationContext(Integer conversationId, List<String> recentMessages, long version, String summary)
+            implements PreparedContext {
+
+        @Override
+        public String fingerprint() {
+            String material = summary + "\u0000" + String.join("\u0000", recentMessages);
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(material.getBytes(StandardCharsets.UTF_8)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
 }
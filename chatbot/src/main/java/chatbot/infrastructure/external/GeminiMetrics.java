@@ -0,0 +1,66 @@
+package chatbot.infrastructure.external;
+
+import chatbot.infrastructure.metrics.RequestTimings;
+import com.google.genai.types.GenerateContentResponse;
+import com.google.genai.types.GenerateContentResponseUsageMetadata;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Latency, prompt/reply size and token usage of every Gemini call, by model and operation
+@Component
+public class GeminiMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public GeminiMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // usage is the last response received (the final chunk when streaming), null if the call failed
+    public void record(String model, String operation, long startNanos, String prompt, String reply,
+                       GenerateContentResponse usage) {
+        Optional<GenerateContentResponseUsageMetadata> metadata = usage == null ? Optional.empty() : usage.usageMetadata();
+        record(model, operation, startNanos, prompt, reply,
+                metadata.flatMap(GenerateContentResponseUsageMetadata::promptTokenCount).orElse(null),
+                metadata.flatMap(GenerateContentResponseUsageMetadata::candidatesTokenCount).orElse(null));
+    }
+
+    // reply is null if the call failed; token counts are null when the response did not report them
+    public void record(String model, String operation, long startNanos, String prompt, String reply,
+                       Integer promptTokens, Integer replyTokens) {
+        long elapsed = System.nanoTime() - startNanos;
+        Timer.builder("ai.gemini.calls")
+                .tags("model", model, "operation", operation, "outcome", reply == null ? "error" : "success")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        RequestTimings.record("gemini." + operation, elapsed);
+
+        size("ai.gemini.prompt.size", operation, prompt);
+        if (reply == null) return;
+        size("ai.gemini.reply.size", operation, reply);
+
+        if (promptTokens != null) tokens("prompt", model, operation, promptTokens);
+        if (replyTokens != null) tokens("reply", model, operation, replyTokens);
+    }
+
+    private void size(String name, String operation, String text) {
+        DistributionSummary.builder(name)
+                .baseUnit("chars")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(text == null ? 0 : text.length());
+    }
+
+    private void tokens(String type, String model, String operation, int tokens) {
+        DistributionSummary.builder("ai.gemini.tokens")
+                .baseUnit("tokens")
+                .tags("type", type, "model", model, "operation", operation)
+                .register(meterRegistry)
+                .record(tokens);
+    }
+}
@@ -0,0 +1,17 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.TokenEstimator;
+import org.springframework.stereotype.Component;
+
+// Local approximation of Gemini tokenization (~4 characters per token for English text), no network call
+@Component
+public class HeuristicTokenEstimator implements TokenEstimator {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    @Override
+    public int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+}
@@ -1,16 +1,71 @@
 package chatbot.infrastructure.external;
 
 import chatbot.application.service.AIChatService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
-@Service
+import java.util.function.Consumer;
+
+@Service("aiChatClient")
 @ConditionalOnProperty(name = "ai.service.mock", havingValue = "true")
+@Profile("!reactive")
 public class MockAiChatService implements AIChatService {
 
+    // Simulated time before the first token and between subsequent tokens, for offline load tests
+    private final long latencyMs;
+    private final long tokenDelayMs;
+
+    public MockAiChatService(
+            @Value("${ai.mock.latency-ms:0}") long latencyMs,
+            @Value("${ai.mock.token-delay-ms:0}") long tokenDelayMs
+    ) {
+        this.latencyMs = latencyMs;
+        this.tokenDelayMs = tokenDelayMs;
+    }
+
     @Override
     public String generateResponse(String prompt, Integer conversationId) {
         // Return a mock response for testing
+        String reply = buildReply(prompt);
+        sleep(latencyMs + tokenDelayMs * tokenize(reply).length);
+        return reply;
+    }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, Consumer<String> onToken) {
+        String reply = buildReply(prompt);
+        sleep(latencyMs);
+        for (String token : tokenize(reply)) {
+            onToken.accept(token);
+            sleep(tokenDelayMs);
+        }
+        return reply;
+    }
+
+    @Override
+    public PreparedContext prepareContext(Integer conversationId) {
+        // Replies only depend on the prompt, but conversations still must not share cached replies
+        return () -> "mock:" + conversationId;
+    }
+
+    private String buildReply(String prompt) {
         return "Mock AI Response: I received your message '" + prompt + "'. This is a simulated response for testing purposes.";
     }
-} 
\ No newline at end of file
+
+    // Split on word boundaries but keep the whitespace so the tokens concatenate back to the reply
+    private String[] tokenize(String reply) {
+        return reply.split("(?<=\\s)");
+    }
+
+    private void sleep(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Mock AI interrupted", e);
+        }
+    }
+}
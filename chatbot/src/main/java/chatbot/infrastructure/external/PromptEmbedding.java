@@ -0,0 +1,50 @@
+package chatbot.infrastructure.external;
+
+import java.util.Locale;
+
+// Locally computed prompt embedding: word unigrams and bigrams feature-hashed into a fixed-size,
+// L2-normalized vector, so the dot product of two embeddings is their cosine similarity.
+final class PromptEmbedding {
+
+    private static final int DIMENSIONS = 512;
+
+    private PromptEmbedding() {
+    }
+
+    static String normalize(String prompt) {
+        return prompt.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    static float[] embed(String normalizedPrompt) {
+        float[] vector = new float[DIMENSIONS];
+        String[] words = normalizedPrompt.split(" ");
+        for (int i = 0; i < words.length; i++) {
+            add(vector, words[i], 1.0f);
+            if (i > 0) {
+                add(vector, words[i - 1] + ' ' + words[i], 0.5f);
+            }
+        }
+        double norm = 0;
+        for (float v : vector) norm += v * v;
+        if (norm > 0) {
+            float inverse = (float) (1.0 / Math.sqrt(norm));
+            for (int i = 0; i < DIMENSIONS; i++) vector[i] *= inverse;
+        }
+        return vector;
+    }
+
+    static float similarity(float[] a, float[] b) {
+        float dot = 0;
+        for (int i = 0; i < DIMENSIONS; i++) dot += a[i] * b[i];
+        return dot;
+    }
+
+    private static void add(float[] vector, String feature, float weight) {
+        int hash = feature.hashCode();
+        // The sign bit spreads colliding features in opposite directions instead of piling them up
+        vector[Math.floorMod(hash, DIMENSIONS)] += (hash & 0x40000000) == 0 ? weight : -weight;
+    }
+}
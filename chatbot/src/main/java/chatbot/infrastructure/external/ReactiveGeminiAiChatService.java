@@ -0,0 +1,177 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.PromptBuilder;
+import chatbot.application.service.ReactiveAIChatService;
+import chatbot.domain.repository.ReactiveConversationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Gemini over its REST API with WebClient, so a slow model call holds no thread while waiting. Reads context
+// through the conversation repository and shares prompt assembly and summaries with GeminiAiChatService.
+@Service
+@Profile("reactive")
+@ConditionalOnProperty(name = "ai.service.mock", havingValue = "false", matchIfMissing = true)
+public class ReactiveGeminiAiChatService implements ReactiveAIChatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGeminiAiChatService.class);
+
+    private static final int MAX_HISTORY = 10;
+    private static final int SUMMARY_INTERVAL = 5;
+
+    private final WebClient webClient;
+    private final ReactiveConversationRepository conversationRepository;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final PromptBuilder promptBuilder;
+    private final ConversationSummarizer summarizer;
+    private final GeminiMetrics geminiMetrics;
+    private final String model;
+    private final Duration callTimeout;
+    private final Duration streamTimeout;
+
+    public ReactiveGeminiAiChatService(WebClient.Builder webClientBuilder,
+                                       ReactiveConversationRepository conversationRepository,
+                                       ReactiveStringRedisTemplate redisTemplate,
+                                       PromptBuilder promptBuilder,
+                                       ConversationSummarizer summarizer,
+                                       GeminiMetrics geminiMetrics,
+                                       @Value("${ai.gemini.base-url:https://generativelanguage.googleapis.com}") String baseUrl,
+                                       @Value("${GOOGLE_API_KEY:}") String apiKey,
+                                       @Value("${ai.gemini.model:gemini-2.0-flash}") String model,
+                                       @Value("${ai.resilience.timeout-ms:30000}") long callTimeoutMs,
+                                       @Value("${ai.resilience.stream-timeout-ms:120000}") long streamTimeoutMs) {
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl)
+                .defaultHeader("x-goog-api-key", apiKey)
+                .build();
+        this.conversationRepository = conversationRepository;
+        this.redisTemplate = redisTemplate;
+        this.promptBuilder = promptBuilder;
+        this.summarizer = summarizer;
+        this.geminiMetrics = geminiMetrics;
+        this.model = model;
+        this.callTimeout = Duration.ofMillis(callTimeoutMs);
+        this.streamTimeout = Duration.ofMillis(streamTimeoutMs);
+    }
+
+    @Override
+    public Mono<String> generateResponse(String prompt, Integer conversationId) {
+        return readContext(conversationId).flatMap(context -> {
+                    String chatPrompt = promptBuilder.build(conversationId, context.version(), context.summary(), context.recentMessages(), prompt);
+                    long start = System.nanoTime();
+                    return webClient.post()
+                            .uri("/v1beta/models/{model}:generateContent", model)
+                            .bodyValue(request(chatPrompt))
+                            .retrieve()
+                            .bodyToMono(JsonNode.class)
+                            .timeout(callTimeout)
+                            .doOnError(e -> geminiMetrics.record(model, "generate", start, chatPrompt, null, null, null))
+                            .map(response -> {
+                                String reply = text(response);
+                                geminiMetrics.record(model, "generate", start, chatPrompt, reply,
+                                        tokens(response, "promptTokenCount"), tokens(response, "candidatesTokenCount"));
+                                recordTurn(conversationId, context, prompt, reply);
+                                return reply;
+                            });
+                })
+                .onErrorMap(e -> {
+                    logger.error("Error generating response for conversationId={}: {}", conversationId, e.getMessage());
+                    return new RuntimeException("AI error: " + e.getMessage(), e);
+                });
+    }
+
+    @Override
+    public Flux<String> streamResponse(String prompt, Integer conversationId) {
+        return readContext(conversationId).flatMapMany(context -> {
+                    String chatPrompt = promptBuilder.build(conversationId, context.version(), context.summary(), context.recentMessages(), prompt);
+                    long start = System.nanoTime();
+                    StringBuilder reply = new StringBuilder();
+                    JsonNode[] lastChunk = new JsonNode[1];
+                    return webClient.post()
+                            .uri("/v1beta/models/{model}:streamGenerateContent?alt=sse", model)
+                            .bodyValue(request(chatPrompt))
+                            .retrieve()
+                            .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<JsonNode>>() {
+                            })
+                            .timeout(streamTimeout)
+                            .mapNotNull(ServerSentEvent::data)
+                            .doOnNext(chunk -> lastChunk[0] = chunk)
+                            .map(this::text)
+                            .filter(text -> !text.isEmpty())
+                            .doOnNext(reply::append)
+                            .doOnError(e -> geminiMetrics.record(model, "stream", start, chatPrompt, null, null, null))
+                            .doOnComplete(() -> {
+                                geminiMetrics.record(model, "stream", start, chatPrompt, reply.toString(),
+                                        tokens(lastChunk[0], "promptTokenCount"), tokens(lastChunk[0], "candidatesTokenCount"));
+                                recordTurn(conversationId, context, prompt, reply.toString());
+                            });
+                })
+                .onErrorMap(e -> {
+                    logger.error("Error streaming response for conversationId={}: {}", conversationId, e.getMessage());
+                    return new RuntimeException("AI error: " + e.getMessage(), e);
+                });
+    }
+
+    private Mono<ConversationContext> readContext(Integer conversationId) {
+        return Mono.zip(
+                conversationRepository.getRecentMessages(conversationId, MAX_HISTORY * 2),
+                redisTemplate.opsForValue().get(summaryKey(conversationId)).map(Optional::of).defaultIfEmpty(Optional.empty())
+        ).map(results -> new ConversationContext(PromptBuilder.entries(results.getT1().messages()),
+                results.getT1().total(), results.getT2().orElse(null)));
+    }
+
+    // The caller persists the turn; this only advances the prompt cache and schedules summaries
+    private void recordTurn(Integer conversationId, ConversationContext context, String prompt, String reply) {
+        List<String> turn = List.of(PromptBuilder.entry(true, prompt), PromptBuilder.entry(false, reply));
+        long messageCount = context.version() + turn.size();
+        promptBuilder.recordTurn(conversationId, messageCount, turn);
+        if (messageCount % (SUMMARY_INTERVAL * 2) == 0) {
+            List<String> history = new ArrayList<>(context.recentMessages());
+            history.addAll(turn);
+            summarizer.request(conversationId, history);
+        }
+    }
+
+    private static Map<String, Object> request(String chatPrompt) {
+        return Map.of("contents", List.of(Map.of(
+                "role", "user",
+                "parts", List.of(Map.of("text", chatPrompt)))));
+    }
+
+    private String text(JsonNode response) {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : response.path("candidates").path(0).path("content").path("parts")) {
+            text.append(part.path("text").asText(""));
+        }
+        return text.toString();
+    }
+
+    private static Integer tokens(JsonNode response, String field) {
+        if (response == null) return null;
+        JsonNode count = response.path("usageMetadata").path(field);
+        return count.isNumber() ? count.intValue() : null;
+    }
+
+    private String summaryKey(Integer conversationId) {
+        return "chat:" + conversationId + ":summary";
+    }
+
+    private record ConversationContext(List<String> recentMessages, long version, String summary) {
+    }
+}
@@ -0,0 +1,51 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.ReactiveAIChatService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Reactive mock: simulated latency is a timer, not a sleeping thread, so load tests can hold many calls open
+@Service
+@Profile("reactive")
+@ConditionalOnProperty(name = "ai.service.mock", havingValue = "true")
+public class ReactiveMockAiChatService implements ReactiveAIChatService {
+
+    private final Duration latency;
+    private final Duration tokenDelay;
+
+    public ReactiveMockAiChatService(
+            @Value("${ai.mock.latency-ms:0}") long latencyMs,
+            @Value("${ai.mock.token-delay-ms:0}") long tokenDelayMs
+    ) {
+        this.latency = Duration.ofMillis(latencyMs);
+        this.tokenDelay = Duration.ofMillis(tokenDelayMs);
+    }
+
+    @Override
+    public Mono<String> generateResponse(String prompt, Integer conversationId) {
+        String reply = buildReply(prompt);
+        return Mono.just(reply).delayElement(latency.plus(tokenDelay.multipliedBy(tokenize(reply).length)));
+    }
+
+    @Override
+    public Flux<String> streamResponse(String prompt, Integer conversationId) {
+        return Flux.fromArray(tokenize(buildReply(prompt)))
+                .delayElements(tokenDelay)
+                .delaySubscription(latency);
+    }
+
+    private String buildReply(String prompt) {
+        return "Mock AI Response: I received your message '" + prompt + "'. This is a simulated response for testing purposes.";
+    }
+
+    // Split on word boundaries but keep the whitespace so the tokens concatenate back to the reply
+    private String[] tokenize(String reply) {
+        return reply.split("(?<=\\s)");
+    }
+}
@@ -0,0 +1,207 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.AIChatService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Guards model calls with a circuit breaker, an adaptive concurrency limit (bulkhead) and a per-call deadline.
+// Calls that are not made or are given up on fail fast with AiUnavailableException instead of holding request threads.
+// A call given up on at its deadline keeps its bulkhead slot until it really ends: the HTTP call underneath is not
+// interruptible, so releasing the slot at the deadline would let the real upstream concurrency grow without bound.
+public class ResilientAiChatService implements AIChatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientAiChatService.class);
+
+    private final AIChatService delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final Duration callTimeout;
+    private final Duration streamTimeout;
+    private final long maxQueueWaitMs;
+    private final MeterRegistry meterRegistry;
+    private final Timer latency;
+    // Calls run on their own virtual thread so the caller can stop waiting at the deadline
+    private final ThreadFactory callThreads = Thread.ofVirtual().name("ai-call-", 0).factory();
+
+    public ResilientAiChatService(AIChatService delegate,
+                                  MeterRegistry meterRegistry,
+                                  Duration callTimeout,
+                                  Duration streamTimeout,
+                                  long maxQueueWaitMs,
+                                  int initialLimit,
+                                  int minLimit,
+                                  int maxLimit,
+                                  long targetLatencyMs,
+                                  int breakerWindowSize,
+                                  int breakerMinimumCalls,
+                                  int breakerFailureRatePercent,
+                                  long breakerOpenMs,
+                                  int breakerHalfOpenProbes) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.callTimeout = callTimeout;
+        this.streamTimeout = streamTimeout;
+        this.maxQueueWaitMs = maxQueueWaitMs;
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, targetLatencyMs);
+        this.circuitBreaker = new CircuitBreaker(breakerWindowSize, breakerMinimumCalls, breakerFailureRatePercent,
+                breakerOpenMs, breakerHalfOpenProbes);
+
+        this.latency = Timer.builder("ai.resilience.latency")
+                .description("Model call latency, including calls that timed out")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("ai.resilience.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit for model calls")
+                .register(meterRegistry);
+        Gauge.builder("ai.resilience.inflight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .register(meterRegistry);
+        Gauge.builder("ai.resilience.circuit.state", circuitBreaker, b -> b.state().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String generateResponse(String prompt, Integer conversationId) {
+        return generateResponse(prompt, conversationId, null);
+    }
+
+    @Override
+    public String generateResponse(String prompt, Integer conversationId, PreparedContext context) {
+        return call(() -> delegate.generateResponse(prompt, conversationId, context), callTimeout, conversationId);
+    }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, Consumer<String> onToken) {
+        return streamResponse(prompt, conversationId, null, onToken);
+    }
+
+    @Override
+    public String streamResponse(String prompt, Integer conversationId, PreparedContext context, Consumer<String> onToken) {
+        // Tokens arriving after the deadline has been reported must not reach the caller anymore
+        AtomicBoolean open = new AtomicBoolean(true);
+        try {
+            return call(() -> delegate.streamResponse(prompt, conversationId, context, token -> {
+                if (open.get()) onToken.accept(token);
+            }), streamTimeout, conversationId);
+        } finally {
+            open.set(false);
+        }
+    }
+
+    @Override
+    public PreparedContext prepareContext(Integer conversationId) {
+        return delegate.prepareContext(conversationId);
+    }
+
+    @Override
+    public void recordReply(String prompt, Integer conversationId, PreparedContext context, String reply) {
+        delegate.recordReply(prompt, conversationId, context, reply);
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    private String call(Callable<String> work, Duration timeout, Integer conversationId) {
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (permit == null) {
+            count("short_circuited");
+            throw new AiUnavailableException("AI service unavailable: circuit open");
+        }
+
+        boolean acquired;
+        try {
+            acquired = concurrencyLimit.acquire(maxQueueWaitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            circuitBreaker.release(permit);
+            count("rejected");
+            throw new AiUnavailableException("AI service unavailable: too many concurrent requests");
+        }
+
+        long start = System.nanoTime();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Thread worker = callThreads.newThread(() -> {
+            String reply = null;
+            Throwable error = null;
+            try {
+                reply = work.call();
+            } catch (Throwable t) {
+                error = t;
+            }
+            // Before completing, so a caller that got its reply can immediately make the next call
+            if (error instanceof CancellationException) {
+                concurrencyLimit.cancel();
+            } else {
+                concurrencyLimit.release(System.nanoTime() - start, error != null || abandoned.get());
+            }
+            if (error == null) {
+                result.complete(reply);
+            } else {
+                result.completeExceptionally(error);
+            }
+        });
+        worker.start();
+
+        try {
+            String reply = result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            record(start, "success");
+            circuitBreaker.onSuccess(permit);
+            return reply;
+        } catch (TimeoutException e) {
+            abandon(worker, abandoned);
+            record(start, "timeout");
+            circuitBreaker.onFailure(permit);
+            logger.warn("AI call for conversationId={} exceeded {}ms", conversationId, timeout.toMillis());
+            throw new AiUnavailableException("AI service unavailable: no reply within " + timeout.toMillis() + "ms");
+        } catch (CancellationException e) {
+            // The caller stopped consuming the stream; says nothing about the health of the model
+            record(start, "cancelled");
+            circuitBreaker.release(permit);
+            throw e;
+        } catch (ExecutionException e) {
+            record(start, "failure");
+            circuitBreaker.onFailure(permit);
+            throw e.getCause() instanceof RuntimeException cause ? cause : new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            abandon(worker, abandoned);
+            record(start, "failure");
+            circuitBreaker.release(permit);
+            Thread.currentThread().interrupt();
+            throw new AiUnavailableException("AI service unavailable: interrupted");
+        }
+    }
+
+    // Asks the call to stop; its slot is released by the worker once it has actually returned
+    private static void abandon(Thread worker, AtomicBoolean abandoned) {
+        abandoned.set(true);
+        worker.interrupt();
+    }
+
+    private void record(long start, String outcome) {
+        latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        count(outcome);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("ai.resilience.calls", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,60 @@
+package chatbot.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+// Times every use case, JDBC repository method and AI service call. Timers are tagged with the class and
+// method, plus the exception type when the call threw.
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * chatbot.application.usecase.*UseCase.execute*(..))")
+    public Object timeUseCase(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "chat.usecase", "usecase");
+    }
+
+    @Around("execution(public * chatbot.infrastructure.persistence.Jdbc*Repository.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "chat.repository", "repository");
+    }
+
+    // Only the outermost service: the decorators and the model client behind it would record the same call again
+    @Around("bean(aiChatService) && (execution(public * chatbot.application.service.AIChatService.generateResponse(..))"
+            + " || execution(public * chatbot.application.service.AIChatService.streamResponse(..)))")
+    public Object timeAiService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "chat.ai", "ai");
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String metric, String layer) throws Throwable {
+        String component = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        String exception = "none";
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder(metric)
+                    .tags("class", component, "method", method, "exception", exception)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTimings.record(layer + "." + component + (layer.equals("usecase") ? "" : "." + method), elapsed);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package chatbot.infrastructure.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-request breakdown of where time went, collected only while a request has one open (debug mode).
+// Work handed off to other threads is not attributed to the request.
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings open() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void record(String name, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) return;
+        Entry entry = timings.entries.computeIfAbsent(name, n -> new Entry());
+        entry.count.increment();
+        entry.nanos.add(nanos);
+    }
+
+    // Server-Timing header value, e.g. usecase.SendMessageUseCase;dur=812.4, repository.JdbcConversationRepository.existsForUser;dur=1.2;desc="2 calls"
+    String toServerTiming() {
+        StringBuilder header = new StringBuilder();
+        entries.forEach((name, entry) -> {
+            header.append(name).append(";dur=").append(millis(entry.nanos.sum()));
+            long count = entry.count.sum();
+            if (count > 1) header.append(";desc=\"").append(count).append(" calls\"");
+            header.append(", ");
+        });
+        return header.append("total;dur=").append(millis(System.nanoTime() - startNanos)).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static final class Entry {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+}
@@ -0,0 +1,28 @@
+package chatbot.infrastructure.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Debug mode: opens a timing breakdown for the request thread; ServerTimingAdvice writes it out
+@Component
+@ConditionalOnProperty(name = "chat.metrics.server-timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.close();
+        }
+    }
+}
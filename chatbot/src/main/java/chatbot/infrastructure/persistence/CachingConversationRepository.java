@@ -0,0 +1,274 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
+import chatbot.domain.repository.ConversationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Keeps the latest messages of recently read conversations and the conversation list of recently active
+// users in memory, bounded by an approximate byte budget. Writes go to the delegate first, then update or
+// drop the local entry and tell the other instances to drop theirs over Redis pub/sub.
+public class CachingConversationRepository implements ConversationRepository, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingConversationRepository.class);
+
+    private static final int ENTRY_OVERHEAD_BYTES = 64;
+
+    private final ConversationRepository delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String channel;
+    private final int tailMessages;
+    // Invalidations published by this instance are ignored when they come back from Redis
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Cache<Integer, Tail> tails;
+    private final Cache<Integer, List<Conversation>> conversationLists;
+
+    public CachingConversationRepository(ConversationRepository delegate,
+                                         StringRedisTemplate redisTemplate,
+                                         MeterRegistry meterRegistry,
+                                         String channel,
+                                         int tailMessages,
+                                         long tailMaxBytes,
+                                         long conversationListMaxBytes,
+                                         Duration ttl) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.channel = channel;
+        this.tailMessages = tailMessages;
+        // Entries also expire so a missed invalidation cannot keep serving stale data for long
+        this.tails = Caffeine.newBuilder()
+                .maximumWeight(tailMaxBytes)
+                .weigher((Integer id, Tail tail) -> tail.weight())
+                .expireAfterWrite(ttl)
+                .build();
+        this.conversationLists = Caffeine.newBuilder()
+                .maximumWeight(conversationListMaxBytes)
+                .weigher((Integer userId, List<Conversation> list) -> weight(list))
+                .expireAfterWrite(ttl)
+                .build();
+        registerGauges("tails", tails);
+        registerGauges("conversation_lists", conversationLists);
+    }
+
+    @Override
+    public Conversation findById(Integer id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public boolean existsForUser(Integer conversationId, Integer userId) {
+        return delegate.existsForUser(conversationId, userId);
+    }
+
+    @Override
+    public List<Conversation> findByUserId(Integer userId) {
+        List<Conversation> cached = conversationLists.getIfPresent(userId);
+        if (cached != null) {
+            count("conversation_lists", "hit");
+            return cached;
+        }
+        count("conversation_lists", "miss");
+        // The delegate answers an empty list on errors too, so empty results are not cached
+        List<Conversation> conversations = conversationLists.get(userId, id -> {
+            List<Conversation> loaded = delegate.findByUserId(id);
+            return loaded.isEmpty() ? null : List.copyOf(loaded);
+        });
+        return conversations == null ? List.of() : conversations;
+    }
+
+    @Override
+    public void save(Conversation conversation) {
+        delegate.save(conversation);
+        if (conversation.getId() == null) return;
+        conversationLists.asMap().computeIfPresent(conversation.getUserId(), (userId, list) -> {
+            List<Conversation> updated = new ArrayList<>(list);
+            updated.add(conversation);
+            return List.copyOf(updated);
+        });
+        publish("user", conversation.getUserId());
+    }
+
+    @Override
+    public List<Message> getMessages(Integer conversationId, Integer beforeId, Integer afterId, int limit) {
+        if (limit > tailMessages) {
+            return delegate.getMessages(conversationId, beforeId, afterId, limit);
+        }
+
+        Tail tail = tails.getIfPresent(conversationId);
+        if (tail == null && beforeId == null && afterId == null) {
+            // Only the latest page populates the tail; older pages are read straight through.
+            // Loading runs inside the cache's per-key compute, so an invalidation racing with the
+            // load waits for it and then removes the possibly stale result.
+            tail = tails.get(conversationId, this::loadTail);
+        }
+        List<Message> page = tail == null ? null : tail.page(beforeId, afterId, limit);
+        if (page != null) {
+            count("tails", "hit");
+            return page;
+        }
+        count("tails", "miss");
+        return delegate.getMessages(conversationId, beforeId, afterId, limit);
+    }
+
+    @Override
+    public MessageWindow getRecentMessages(Integer conversationId, int limit) {
+        // Context reads right after a turn would always miss the tail dropped by addMessages
+        return delegate.getRecentMessages(conversationId, limit);
+    }
+
+    @Override
+    public long countMessages(Integer conversationId) {
+        return delegate.countMessages(conversationId);
+    }
+
+    @Override
+    public void forEachMessage(Integer conversationId, Consumer<Message> consumer) {
+        delegate.forEachMessage(conversationId, consumer);
+    }
+
+    @Override
+    public void addMessage(Integer conversationId, Message message) {
+        addMessages(conversationId, List.of(message));
+    }
+
+    @Override
+    public void addMessages(Integer conversationId, List<Message> messages) {
+        delegate.addMessages(conversationId, messages);
+        // Queued messages get their ids when the write-behind flushes them, so the tail is reloaded
+        // from the database on the next read instead of being appended to
+        tails.invalidate(conversationId);
+        publish("tail", conversationId);
+    }
+
+    @Override
+    public void evictMessages(Integer conversationId) {
+        delegate.evictMessages(conversationId);
+        tails.invalidate(conversationId);
+        publish("tail", conversationId);
+    }
+
+    @Override
+    public void renameConversation(Integer conversationId, String newName) {
+        delegate.renameConversation(conversationId, newName);
+        Conversation conversation = delegate.findById(conversationId);
+        if (conversation == null) return;
+        conversationLists.asMap().computeIfPresent(conversation.getUserId(), (userId, list) -> list.stream()
+                .map(c -> c.getId().equals(conversationId)
+                        ? new Conversation(c.getId(), newName, c.getUserId(), c.getDateTime())
+                        : c)
+                .toList());
+        publish("user", conversation.getUserId());
+    }
+
+    // Invalidation from another instance: "<nodeId>|tail|<conversationId>" or "<nodeId>|user|<userId>"
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|");
+        if (parts.length != 3 || parts[0].equals(nodeId)) return;
+        try {
+            Integer id = Integer.valueOf(parts[2]);
+            if (parts[1].equals("tail")) {
+                tails.invalidate(id);
+            } else if (parts[1].equals("user")) {
+                conversationLists.invalidate(id);
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed cache invalidation '{}'", String.join("|", parts));
+        }
+    }
+
+    private Tail loadTail(Integer conversationId) {
+        // The tail is reloaded right after a write and then served for the whole TTL, so it must not
+        // come from a replica that has not caught up with that write yet
+        List<Message> messages = ReadWriteRoutingDataSource.onPrimary(
+                () -> delegate.getMessages(conversationId, null, null, tailMessages));
+        if (messages.isEmpty()) return null;
+        return new Tail(List.copyOf(messages), messages.size() < tailMessages);
+    }
+
+    private void publish(String kind, Integer id) {
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "|" + kind + "|" + id);
+        } catch (Exception e) {
+            // Other instances fall back to the entry TTL
+            logger.warn("Failed to publish {} cache invalidation for ID {}: {}", kind, id, e.getMessage());
+        }
+    }
+
+    private void count(String cache, String result) {
+        meterRegistry.counter("chat.conversation.cache.requests", "cache", cache, "result", result).increment();
+    }
+
+    private void registerGauges(String name, Cache<?, ?> cache) {
+        Gauge.builder("chat.conversation.cache.size", cache, c -> c.estimatedSize())
+                .tag("cache", name)
+                .description("Entries in the conversation cache")
+                .register(meterRegistry);
+        Gauge.builder("chat.conversation.cache.weight", cache,
+                        c -> c.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .tag("cache", name)
+                .baseUnit("bytes")
+                .description("Estimated memory held by the conversation cache")
+                .register(meterRegistry);
+    }
+
+    private static int weight(List<Conversation> conversations) {
+        int bytes = ENTRY_OVERHEAD_BYTES;
+        for (Conversation conversation : conversations) {
+            bytes += ENTRY_OVERHEAD_BYTES + 2 * (conversation.getName() == null ? 0 : conversation.getName().length());
+        }
+        return bytes;
+    }
+
+    // The newest messages of a conversation in id order; complete when it holds the whole conversation
+    private record Tail(List<Message> messages, boolean complete) {
+
+        int weight() {
+            int bytes = ENTRY_OVERHEAD_BYTES;
+            for (Message message : messages) {
+                bytes += ENTRY_OVERHEAD_BYTES + 2 * (message.getContent() == null ? 0 : message.getContent().length());
+            }
+            return bytes;
+        }
+
+        // Same keyset semantics as ConversationRepository.getMessages; null when the page may reach past the tail
+        List<Message> page(Integer beforeId, Integer afterId, int limit) {
+            if (afterId != null) {
+                if (!complete && afterId < messages.get(0).getId()) return null;
+                List<Message> page = new ArrayList<>();
+                for (Message message : messages) {
+                    if (page.size() == limit) break;
+                    if (message.getId() > afterId && (beforeId == null || message.getId() < beforeId)) {
+                        page.add(message);
+                    }
+                }
+                return page;
+            }
+
+            int end = messages.size();
+            if (beforeId != null) {
+                while (end > 0 && messages.get(end - 1).getId() >= beforeId) end--;
+            }
+            if (end < limit && !complete) return null;
+            return messages.subList(Math.max(0, end - limit), end);
+        }
+    }
+}
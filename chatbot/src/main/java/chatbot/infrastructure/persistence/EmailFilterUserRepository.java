@@ -0,0 +1,165 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.User;
+import chatbot.domain.repository.DuplicateEmailException;
+import chatbot.domain.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Answers "is this email registered?" from an in-memory Bloom filter of every user's email, so the common
+// case of a free address costs no query. The filter is warmed by streaming the users table in the background
+// (every check goes to the delegate until then) and learns new emails on save. Other instances learn them
+// over Redis pub/sub; one that misses a message only loses the fast path, since the UNIQUE key on email still
+// rejects the insert.
+public class EmailFilterUserRepository implements UserRepository, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailFilterUserRepository.class);
+
+    private final UserRepository delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String channel;
+    private final BloomFilter filter;
+    // Emails published by this instance are ignored when they come back from Redis
+    private final String nodeId = UUID.randomUUID().toString();
+    private volatile boolean warm;
+
+    public EmailFilterUserRepository(UserRepository delegate,
+                                     StringRedisTemplate redisTemplate,
+                                     MeterRegistry meterRegistry,
+                                     String channel,
+                                     long expectedEmails,
+                                     double falsePositiveRate) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.channel = channel;
+        this.filter = new BloomFilter(expectedEmails, falsePositiveRate);
+        Gauge.builder("chat.users.email_filter.expected_false_positive_rate", filter, BloomFilter::expectedFalsePositiveRate)
+                .description("False-positive rate of the registered email filter at its current fill")
+                .register(meterRegistry);
+        Gauge.builder("chat.users.email_filter.size", filter, BloomFilter::sizeInBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public void warmInBackground() {
+        Thread.ofVirtual().name("email-filter-warmup").start(this::warm);
+    }
+
+    void warm() {
+        try {
+            long start = System.nanoTime();
+            long[] count = {0};
+            delegate.forEachEmail(email -> {
+                filter.add(normalize(email));
+                count[0]++;
+            });
+            warm = true;
+            logger.info("Email filter warmed with {} emails in {} ms", count[0], (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Left cold: every check keeps going to the database
+            logger.error("Failed to warm the email filter: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        if (!warm) {
+            count("cold");
+            return delegate.existsByEmail(email);
+        }
+        if (!filter.mightContain(normalize(email))) {
+            count("absent");
+            return false;
+        }
+        boolean exists = delegate.existsByEmail(email);
+        // Observed false-positive rate: false_positive / (false_positive + absent)
+        count(exists ? "present" : "false_positive");
+        return exists;
+    }
+
+    @Override
+    public Integer save(User user) {
+        try {
+            Integer id = delegate.save(user);
+            if (id != null) {
+                remember(user.getEmail());
+            }
+            return id;
+        } catch (DuplicateEmailException e) {
+            // Registered through an instance whose message never arrived here
+            filter.add(normalize(user.getEmail()));
+            throw e;
+        }
+    }
+
+    // Email from another instance: "<nodeId>|<email>"
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0 || body.substring(0, separator).equals(nodeId)) return;
+        filter.add(normalize(body.substring(separator + 1)));
+    }
+
+    @Override
+    public Optional<User> findById(Integer id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        return delegate.findByEmail(email);
+    }
+
+    @Override
+    public void forEachEmail(Consumer<String> consumer) {
+        delegate.forEachEmail(consumer);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void updatePassword(Integer id, String password) {
+        delegate.updatePassword(id, password);
+    }
+
+    // A deleted user's email stays in the filter; re-registering it only costs the lookup
+    @Override
+    public void deleteById(Integer id) {
+        delegate.deleteById(id);
+    }
+
+    private void remember(String email) {
+        filter.add(normalize(email));
+        try {
+            redisTemplate.convertAndSend(channel, nodeId + "|" + email);
+        } catch (Exception e) {
+            logger.warn("Failed to publish registered email to other instances: {}", e.getMessage());
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("chat.users.email_filter.checks", "result", result).increment();
+    }
+
+    // The email column uses a case-insensitive collation, so the filter must not tell Alice@ and alice@ apart
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -2,32 +2,63 @@ package chatbot.infrastructure.persistence;
 
 import chatbot.domain.entity.Conversation;
 import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
 import chatbot.domain.repository.ConversationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.sql.ResultSet;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.sql.PreparedStatement;
-import java.sql.Statement;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Repository
+@Profile("!reactive")
 public class JdbcConversationRepository implements ConversationRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcConversationRepository.class);
 
+    // Answered from idx_conversations_user_id alone (see QueryPlanTest)
+    static final String FIND_BY_USER_ID_SQL =
+            "SELECT id, name, user_id, created_at FROM conversations WHERE user_id = ? ORDER BY id";
+
     private final JdbcTemplate jdbcTemplate;
+    private final MessageBatchWriter messageBatchWriter;
+    private final MessageArchive messageArchive;
+    private final int streamFetchSize;
+    // Ownership never changes once a conversation exists, so only positive answers are cached
+    private final Cache<Long, Boolean> ownershipCache;
 
-    public JdbcConversationRepository(JdbcTemplate jdbcTemplate) {
+    public JdbcConversationRepository(JdbcTemplate jdbcTemplate, MessageBatchWriter messageBatchWriter,
+                                      MessageArchive messageArchive,
+                                      @Value("${chat.persistence.stream-fetch-size:500}") int streamFetchSize,
+                                      @Value("${chat.persistence.ownership-cache.ttl-seconds:60}") long ownershipCacheTtlSeconds,
+                                      @Value("${chat.persistence.ownership-cache.max-size:100000}") long ownershipCacheMaxSize) {
         this.jdbcTemplate = jdbcTemplate;
+        this.messageBatchWriter = messageBatchWriter;
+        this.messageArchive = messageArchive;
+        this.streamFetchSize = streamFetchSize;
+        this.ownershipCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ownershipCacheTtlSeconds))
+                .maximumSize(ownershipCacheMaxSize)
+                .build();
     }
 
     private final RowMapper<Conversation> conversationRowMapper = (rs, rowNum) -> new Conversation(
@@ -48,7 +79,8 @@ public class JdbcConversationRepository implements ConversationRepository {
     public Conversation findById(Integer id) {
         String sql = "SELECT * FROM conversations WHERE id = ?";
         try {
-            List<Conversation> result = jdbcTemplate.query(sql, conversationRowMapper, id);
+            List<Conversation> result = ReadWriteRoutingDataSource.onReplica(
+                    () -> jdbcTemplate.query(sql, conversationRowMapper, id));
             return result.stream().findFirst().orElse(null);
         } catch (DataAccessException e) {
             logger.error("Error finding conversation by ID {}: {}", id, e.getMessage());
@@ -56,11 +88,35 @@ public class JdbcConversationRepository implements ConversationRepository {
         }
     }
 
+    @Override
+    public boolean existsForUser(Integer conversationId, Integer userId) {
+        long key = ((long) conversationId << 32) | (userId & 0xFFFFFFFFL);
+        if (ownershipCache.getIfPresent(key) != null) {
+            return true;
+        }
+        String sql = "SELECT COUNT(*) FROM conversations WHERE id = ? AND user_id = ?";
+        try {
+            Integer count = ReadWriteRoutingDataSource.onReplica(
+                    () -> jdbcTemplate.queryForObject(sql, Integer.class, conversationId, userId));
+            if (count == null || count == 0) {
+                // A conversation created moments ago may not have reached the replica yet
+                count = jdbcTemplate.queryForObject(sql, Integer.class, conversationId, userId);
+            }
+            boolean exists = count != null && count > 0;
+            if (exists) {
+                ownershipCache.put(key, Boolean.TRUE);
+            }
+            return exists;
+        } catch (DataAccessException e) {
+            logger.error("Error checking conversation ID {} for user ID {}: {}", conversationId, userId, e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public List<Conversation> findByUserId(Integer userId) {
-        String sql = "SELECT * FROM conversations WHERE user_id = ?";
         try {
-            return jdbcTemplate.query(sql, conversationRowMapper, userId);
+            return ReadWriteRoutingDataSource.onReplica(() -> jdbcTemplate.query(FIND_BY_USER_ID_SQL, conversationRowMapper, userId));
         } catch (DataAccessException e) {
             logger.error("Error finding conversations for user ID {}: {}", userId, e.getMessage());
             return List.of(); // Return empty list as fallback
@@ -74,16 +130,17 @@ public class JdbcConversationRepository implements ConversationRepository {
         
         try {
             jdbcTemplate.update(connection -> {
-                PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement ps = connection.prepareStatement(sql, new String[]{"id"});
                 ps.setString(1, conversation.getName());
                 ps.setInt(2, conversation.getUserId());
                 ps.setTimestamp(3, Timestamp.valueOf(conversation.getDateTime()));
                 return ps;
             }, keyHolder);
 
-            Map<String, Object> keys = keyHolder.getKeys();
-            if (keys != null && keys.get("id") != null) {
-                conversation.setId(((Number) keys.get("id")).intValue());
+            // MySQL Connector/J reports the key as GENERATED_KEY, not by column name
+            Number id = keyHolder.getKey();
+            if (id != null) {
+                conversation.setId(id.intValue());
             }
 
         } catch (DataAccessException e) {
@@ -92,31 +149,115 @@ public class JdbcConversationRepository implements ConversationRepository {
     }
 
     @Override
-    public List<Message> getMessages(Integer conversationId) {
-        if (findById(conversationId) == null) {
-            logger.warn("Conversation ID {} not found.", conversationId);
-            return null;
-        }
-        String sql = "SELECT * FROM messages WHERE conversation_id = ? ORDER BY timestamp ASC";
+    public List<Message> getMessages(Integer conversationId, Integer beforeId, Integer afterId, int limit) {
+        // History pages may trail the primary by the replication lag
+        return queryMessages(conversationId, beforeId, afterId, limit, true);
+    }
+
+    private List<Message> queryMessages(Integer conversationId, Integer beforeId, Integer afterId, int limit, boolean replica) {
+        // Outside the try: a read that cannot see the queued messages fails instead of returning a stale page
+        messageBatchWriter.awaitFlushed(conversationId);
+        Supplier<List<Message>> query = () -> readMessages(conversationId, beforeId, afterId, limit);
         try {
-            return jdbcTemplate.query(sql, messageRowMapper, conversationId);
+            return replica ? ReadWriteRoutingDataSource.onReplica(query) : query.get();
         } catch (DataAccessException e) {
             logger.error("Error getting messages for conversation ID {}: {}", conversationId, e.getMessage());
             return List.of();
         }
     }
 
+    private List<Message> readMessages(Integer conversationId, Integer beforeId, Integer afterId, int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(conversationId);
+        if (afterId != null) args.add(afterId);
+        if (beforeId != null) args.add(beforeId);
+        args.add(limit);
+        boolean newestFirst = afterId == null;
+
+        List<Message> messages = jdbcTemplate.query(messagePageSql(afterId != null, beforeId != null), messageRowMapper, args.toArray());
+        if (newestFirst) {
+            Collections.reverse(messages);
+            if (messages.size() == limit) return messages;
+        }
+
+        // Archived messages all have lower ids than the hot ones, so the archive only fills the range below
+        // the oldest hot message. The hot table is read first: a conversation archived in between then shows
+        // up in the archive read instead of being missed by both.
+        if (!messageArchive.has(conversationId)) return messages;
+        Integer archiveBeforeId = messages.isEmpty() ? beforeId : messages.get(0).getId();
+        List<Message> archived = newestFirst
+                ? messageArchive.newest(conversationId, archiveBeforeId, limit - messages.size())
+                : messageArchive.oldest(conversationId, afterId, archiveBeforeId, limit);
+        if (archived.isEmpty()) return messages;
+        List<Message> merged = new ArrayList<>(archived);
+        merged.addAll(messages);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    // Both directions are range scans on the (conversation_id, id) key of the conversation's partition (see QueryPlanTest)
+    static String messagePageSql(boolean afterBound, boolean beforeBound) {
+        StringBuilder sql = new StringBuilder("SELECT id, content, timestamp, is_user FROM messages WHERE conversation_id = ?");
+        if (afterBound) sql.append(" AND id > ?");
+        if (beforeBound) sql.append(" AND id < ?");
+        sql.append(afterBound ? " ORDER BY id ASC" : " ORDER BY id DESC").append(" LIMIT ?");
+        return sql.toString();
+    }
+
     @Override
-    public void addMessage(Integer conversationId, Message message) {
-        String sql = "INSERT INTO messages ( content, timestamp, is_user, conversation_id) VALUES (?, ?, ?, ?)";
+    public MessageWindow getRecentMessages(Integer conversationId, int limit) {
+        // Model context has to include the turn just written, so it reads the primary
+        List<Message> messages = queryMessages(conversationId, null, null, limit, false);
+        // A window shorter than the limit is the whole conversation
+        long total = messages.size() < limit ? messages.size() : countMessages(conversationId);
+        return new MessageWindow(messages, total);
+    }
+
+    @Override
+    public long countMessages(Integer conversationId) {
+        // Hot rows plus the archived_messages marker, in one round trip
+        String sql = "SELECT (SELECT COUNT(*) FROM messages WHERE conversation_id = ?)"
+                + " + COALESCE((SELECT archived_messages FROM conversations WHERE id = ?), 0)";
+        messageBatchWriter.awaitFlushed(conversationId);
         try {
-            jdbcTemplate.update(sql, message.getContent(),
-                    Timestamp.valueOf(message.getTimestamp()), message.getIsUser(), conversationId);
+            Long count = jdbcTemplate.queryForObject(sql, Long.class, conversationId, conversationId);
+            return count == null ? 0 : count;
         } catch (DataAccessException e) {
-            logger.error("Error adding message to conversation ID {}: {}", conversationId, e.getMessage());
+            logger.error("Error counting messages for conversation ID {}: {}", conversationId, e.getMessage());
+            return 0;
         }
     }
 
+    @Override
+    public void forEachMessage(Integer conversationId, Consumer<Message> consumer) {
+        String sql = "SELECT id, content, timestamp, is_user FROM messages WHERE conversation_id = ? ORDER BY id ASC";
+        messageBatchWriter.awaitFlushed(conversationId);
+        // Archived messages come first. Archival only touches conversations idle for days, so it is not
+        // expected to move rows while they are being streamed.
+        messageArchive.forEach(conversationId, consumer);
+        // Forward-only cursor with a bounded fetch size, so rows are pulled from the server in chunks
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(streamFetchSize);
+            ps.setInt(1, conversationId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(messageRowMapper.mapRow(rs, 0)));
+    }
+
+    @Override
+    public void addMessage(Integer conversationId, Message message) {
+        addMessages(conversationId, List.of(message));
+    }
+
+    @Override
+    public void addMessages(Integer conversationId, List<Message> messages) {
+        messageBatchWriter.write(conversationId, messages);
+    }
+
+    @Override
+    public void evictMessages(Integer conversationId) {
+        // Nothing cached at this level
+    }
+
     @Override
     public void renameConversation(Integer conversationId, String newName) {
         String sql = "UPDATE conversations SET name = ? WHERE id = ?";
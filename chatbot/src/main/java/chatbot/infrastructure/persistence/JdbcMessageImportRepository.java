@@ -0,0 +1,50 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Message;
+import chatbot.domain.repository.MessageImportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@Repository
+@Profile("!reactive")
+public class JdbcMessageImportRepository implements MessageImportRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcMessageImportRepository.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcMessageImportRepository(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public int insertMessages(List<Row> rows) {
+        if (rows.isEmpty()) return 0;
+        try {
+            // One transaction per batch, so a failed batch leaves no partial rows behind; with
+            // rewriteBatchedStatements the driver sends it as multi-row INSERTs
+            List<Object[]> values = new ArrayList<>(rows.size());
+            for (Row row : rows) {
+                Message message = row.message();
+                values.add(new Object[]{message.getContent(), Timestamp.valueOf(message.getTimestamp()),
+                        message.getIsUser(), row.conversationId()});
+            }
+            transactionTemplate.executeWithoutResult(status -> MessageSearchIndex.insertIndexed(jdbcTemplate, values));
+            return rows.size();
+        } catch (DataAccessException e) {
+            logger.error("Error importing {} messages: {}", rows.size(), e.getMessage());
+            return 0;
+        }
+    }
+}
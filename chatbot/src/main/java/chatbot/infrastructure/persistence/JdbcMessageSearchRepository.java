@@ -0,0 +1,66 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.MessageSearchHit;
+import chatbot.domain.repository.MessageSearchRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Searches the message_search table (see V4__add_message_search.sql) through its FULLTEXT index
+@Repository
+@Profile("!reactive")
+public class JdbcMessageSearchRepository implements MessageSearchRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcMessageSearchRepository.class);
+
+    // The owner token narrows the full-text match to the user's rows inside the index; the user_id condition
+    // keeps other users' messages out should one of them contain the token as a word
+    static final String SEARCH_SQL = "SELECT s.message_id, s.conversation_id, c.name, s.content, s.timestamp, s.is_user, "
+            + "MATCH (s.scope, s.content) AGAINST (? IN BOOLEAN MODE) AS score "
+            + "FROM message_search s JOIN conversations c ON c.id = s.conversation_id "
+            + "WHERE MATCH (s.scope, s.content) AGAINST (? IN BOOLEAN MODE) AND s.user_id = ? "
+            + "ORDER BY score DESC, s.message_id DESC LIMIT ? OFFSET ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final RowMapper<MessageSearchHit> hitRowMapper = (rs, rowNum) -> new MessageSearchHit(
+            rs.getInt("message_id"),
+            rs.getInt("conversation_id"),
+            rs.getString("name"),
+            rs.getString("content"),
+            rs.getTimestamp("timestamp").toLocalDateTime(),
+            rs.getBoolean("is_user"),
+            rs.getDouble("score")
+    );
+
+    public JdbcMessageSearchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<MessageSearchHit> search(Integer userId, List<String> terms, int offset, int limit) {
+        String query = booleanQuery(userId, terms);
+        try {
+            return ReadWriteRoutingDataSource.onReplica(
+                    () -> jdbcTemplate.query(SEARCH_SQL, hitRowMapper, query, query, userId, limit, offset));
+        } catch (DataAccessException e) {
+            logger.error("Error searching messages of user ID {}: {}", userId, e.getMessage());
+            return List.of();
+        }
+    }
+
+    // "+chatowner42 +(alpha* beta*)": the owner's rows containing a word starting with any of the terms.
+    // Terms are plain words (see SearchMessagesUseCase), so they carry no boolean operators of their own.
+    static String booleanQuery(Integer userId, List<String> terms) {
+        return terms.stream()
+                .map(term -> term + "*")
+                .collect(Collectors.joining(" ", "+" + MessageSearchIndex.scope(userId) + " +(", ")"));
+    }
+}
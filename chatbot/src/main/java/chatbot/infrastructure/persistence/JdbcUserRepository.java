@@ -4,23 +4,32 @@ import chatbot.domain.entity.User;
 import chatbot.domain.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import chatbot.domain.repository.DuplicateEmailException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.support.GeneratedKeyHolder;
 import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
+@Profile("!reactive")
 public class JdbcUserRepository implements UserRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcUserRepository.class);
 
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
 
     public JdbcUserRepository(JdbcTemplate jdbcTemplate) {
@@ -38,7 +47,7 @@ public class JdbcUserRepository implements UserRepository {
     public Optional<User> findById(Integer id) {
         String sql = "SELECT * FROM users WHERE id = ?";
         try {
-            List<User> users = jdbcTemplate.query(sql, userRowMapper, id);
+            List<User> users = ReadWriteRoutingDataSource.onReplica(() -> jdbcTemplate.query(sql, userRowMapper, id));
             return users.stream().findFirst();
         } catch (DataAccessException e) {
             logger.error("Error finding user by ID {}: {}", id, e.getMessage());
@@ -50,7 +59,7 @@ public class JdbcUserRepository implements UserRepository {
     public Optional<User> findByEmail(String email) {
         String sql = "SELECT * FROM users WHERE email = ?";
         try {
-            List<User> users = jdbcTemplate.query(sql, userRowMapper, email);
+            List<User> users = ReadWriteRoutingDataSource.onReplica(() -> jdbcTemplate.query(sql, userRowMapper, email));
             return users.stream().findFirst();
         } catch (DataAccessException e) {
             logger.error("Error finding user by email {}: {}", email, e.getMessage());
@@ -58,11 +67,33 @@ public class JdbcUserRepository implements UserRepository {
         }
     }
 
+    @Override
+    public boolean existsByEmail(String email) {
+        // On the primary: a user who registered a moment ago must already count
+        String sql = "SELECT 1 FROM users WHERE email = ? LIMIT 1";
+        try {
+            return !jdbcTemplate.queryForList(sql, Integer.class, email).isEmpty();
+        } catch (DataAccessException e) {
+            logger.error("Error checking email {}: {}", email, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void forEachEmail(Consumer<String> consumer) {
+        String sql = "SELECT email FROM users";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
+    }
+
     @Override
     public List<User> findAll() {
         String sql = "SELECT * FROM users";
         try {
-            return jdbcTemplate.query(sql, userRowMapper);
+            return ReadWriteRoutingDataSource.onReplica(() -> jdbcTemplate.query(sql, userRowMapper));
         } catch (DataAccessException e) {
             logger.error("Error fetching all users: {}", e.getMessage());
             return List.of();
@@ -89,6 +120,9 @@ public class JdbcUserRepository implements UserRepository {
                 logger.info("Saved user with id {}: {}", generatedId, user);
                 return generatedId;
             }
+        } catch (DuplicateKeyException e) {
+            // The UNIQUE key on email settles concurrent registrations of the same address
+            throw new DuplicateEmailException(user.getEmail());
         } catch (DataAccessException e) {
             logger.error("Error saving user {}: {}", user, e.getMessage());
         }
@@ -96,11 +130,22 @@ public class JdbcUserRepository implements UserRepository {
         return null;
     }
 
+    @Override
+    public void updatePassword(Integer id, String password) {
+        String sql = "UPDATE users SET password = ? WHERE id = ?";
+        try {
+            jdbcTemplate.update(sql, password, id);
+        } catch (DataAccessException e) {
+            logger.error("Error updating password of user ID {}: {}", id, e.getMessage());
+        }
+    }
 
     @Override
     public void deleteById(Integer id) {
         String sql = "DELETE FROM users WHERE id = ?";
         try {
+            // The partitioned messages table has no foreign key to cascade from conversations
+            jdbcTemplate.update("DELETE FROM messages WHERE conversation_id IN (SELECT id FROM conversations WHERE user_id = ?)", id);
             jdbcTemplate.update(sql, Integer.valueOf(id));
             logger.info(id.toString());
         } catch (DataAccessException e) {
@@ -0,0 +1,180 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Message;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+// Cold messages moved out of the messages table, stored per conversation in chunks of consecutive ids.
+// A chunk is one deflated row laid out column by column (ids, timestamps, flags, contents), which
+// compresses far better than row-wise text. Archived ids are always lower than the ids left in messages.
+// Callers handle DataAccessException, as for the hot table.
+@Component
+@Profile("!reactive")
+public class MessageArchive {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MessageArchive(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // The newest `limit` archived messages below beforeId (all when null), in id order
+    public List<Message> newest(Integer conversationId, Integer beforeId, int limit) {
+        List<Integer> chunks = jdbcTemplate.queryForList(
+                "SELECT first_id FROM message_archive WHERE conversation_id = ? AND first_id < ? ORDER BY first_id DESC",
+                Integer.class, conversationId, beforeId == null ? Integer.MAX_VALUE : beforeId);
+        List<Message> page = new ArrayList<>();
+        for (Integer firstId : chunks) {
+            List<Message> messages = load(conversationId, firstId);
+            for (int i = messages.size() - 1; i >= 0 && page.size() < limit; i--) {
+                if (beforeId == null || messages.get(i).getId() < beforeId) {
+                    page.add(messages.get(i));
+                }
+            }
+            if (page.size() == limit) break;
+        }
+        Collections.reverse(page);
+        return page;
+    }
+
+    // The oldest `limit` archived messages between afterId and beforeId (unbounded when null), in id order
+    public List<Message> oldest(Integer conversationId, int afterId, Integer beforeId, int limit) {
+        List<Integer> chunks = jdbcTemplate.queryForList(
+                "SELECT first_id FROM message_archive WHERE conversation_id = ? AND last_id > ? AND first_id < ? ORDER BY first_id ASC",
+                Integer.class, conversationId, afterId, beforeId == null ? Integer.MAX_VALUE : beforeId);
+        List<Message> page = new ArrayList<>();
+        for (Integer firstId : chunks) {
+            for (Message message : load(conversationId, firstId)) {
+                if (page.size() == limit) return page;
+                if (message.getId() > afterId && (beforeId == null || message.getId() < beforeId)) {
+                    page.add(message);
+                }
+            }
+        }
+        return page;
+    }
+
+    // Reads the archived_messages marker, a primary key lookup, rather than the archive itself
+    public boolean has(Integer conversationId) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(archived_messages), 0) FROM conversations WHERE id = ?", Integer.class, conversationId);
+        return count != null && count > 0;
+    }
+
+    public void forEach(Integer conversationId, Consumer<Message> consumer) {
+        List<Integer> chunks = jdbcTemplate.queryForList(
+                "SELECT first_id FROM message_archive WHERE conversation_id = ? ORDER BY first_id ASC",
+                Integer.class, conversationId);
+        for (Integer firstId : chunks) {
+            load(conversationId, firstId).forEach(consumer);
+        }
+    }
+
+    // Messages must be consecutive messages of the conversation in id order; run in the transaction that
+    // deletes them from messages
+    public void store(Integer conversationId, List<Message> messages) {
+        jdbcTemplate.update(
+                "INSERT INTO message_archive (conversation_id, first_id, last_id, message_count, archived_at, payload) VALUES (?, ?, ?, ?, ?, ?)",
+                conversationId, messages.get(0).getId(), messages.get(messages.size() - 1).getId(), messages.size(),
+                Timestamp.valueOf(LocalDateTime.now()), encode(messages));
+        jdbcTemplate.update("UPDATE conversations SET archived_messages = archived_messages + ? WHERE id = ?",
+                messages.size(), conversationId);
+    }
+
+    private List<Message> load(Integer conversationId, Integer firstId) {
+        byte[] payload = jdbcTemplate.queryForObject(
+                "SELECT payload FROM message_archive WHERE conversation_id = ? AND first_id = ?",
+                byte[].class, conversationId, firstId);
+        return decode(payload);
+    }
+
+    static byte[] encode(List<Message> messages) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(messages.size());
+            // Ids and timestamps as deltas: consecutive values are close, so most bytes are zero
+            int previousId = 0;
+            for (Message message : messages) {
+                out.writeInt(message.getId() - previousId);
+                previousId = message.getId();
+            }
+            long previousMillis = 0;
+            for (Message message : messages) {
+                long millis = message.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+                out.writeLong(millis - previousMillis);
+                previousMillis = millis;
+            }
+            for (Message message : messages) {
+                out.writeBoolean(Boolean.TRUE.equals(message.getIsUser()));
+            }
+            for (Message message : messages) {
+                byte[] content = message.getContent().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(content.length);
+                out.write(content);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<Message> decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unknown message archive format " + version);
+            }
+            int count = in.readInt();
+            int[] ids = new int[count];
+            int previousId = 0;
+            for (int i = 0; i < count; i++) {
+                ids[i] = previousId += in.readInt();
+            }
+            LocalDateTime[] timestamps = new LocalDateTime[count];
+            long previousMillis = 0;
+            for (int i = 0; i < count; i++) {
+                previousMillis += in.readLong();
+                timestamps[i] = LocalDateTime.ofInstant(Instant.ofEpochMilli(previousMillis), ZoneOffset.UTC);
+            }
+            boolean[] fromUser = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                fromUser[i] = in.readBoolean();
+            }
+            List<Message> messages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte[] content = new byte[in.readInt()];
+                in.readFully(content);
+                messages.add(new Message(ids[i], new String(content, StandardCharsets.UTF_8), timestamps[i], fromUser[i]));
+            }
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
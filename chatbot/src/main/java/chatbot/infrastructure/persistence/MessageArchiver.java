@@ -0,0 +1,148 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Background job keeping the messages table small: it sweeps the conversations in id order and moves the
+// messages of every conversation idle for cold-after into the compressed archive, one chunk per transaction.
+// Instances may sweep concurrently; a chunk archived twice fails on the archive key and rolls back.
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "chat.persistence.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class MessageArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageArchiver.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessageArchive messageArchive;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration coldAfter;
+    private final Duration interval;
+    private final int chunkSize;
+    private final int conversationsPerRun;
+
+    private final Counter archivedMessages;
+    private final Counter archivedConversations;
+    private final Timer runTimer;
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("message-archiver").daemon(true).factory());
+    // Last conversation id visited; the sweep starts over from the beginning once it reaches the end
+    private int cursor;
+
+    private final RowMapper<Message> messageRowMapper = (rs, rowNum) -> new Message(
+            rs.getInt("id"),
+            rs.getString("content"),
+            rs.getTimestamp("timestamp").toLocalDateTime(),
+            rs.getBoolean("is_user")
+    );
+
+    public MessageArchiver(JdbcTemplate jdbcTemplate,
+                           MessageArchive messageArchive,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry,
+                           @Value("${chat.persistence.archive.cold-after-days:30}") long coldAfterDays,
+                           @Value("${chat.persistence.archive.interval-minutes:10}") long intervalMinutes,
+                           @Value("${chat.persistence.archive.chunk-size:500}") int chunkSize,
+                           @Value("${chat.persistence.archive.conversations-per-run:1000}") int conversationsPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messageArchive = messageArchive;
+        this.transactionTemplate = transactionTemplate;
+        this.coldAfter = Duration.ofDays(coldAfterDays);
+        this.interval = Duration.ofMinutes(intervalMinutes);
+        this.chunkSize = chunkSize;
+        this.conversationsPerRun = conversationsPerRun;
+        this.archivedMessages = Counter.builder("chat.persistence.archive.messages")
+                .description("Messages moved to the archive")
+                .register(meterRegistry);
+        this.archivedConversations = Counter.builder("chat.persistence.archive.conversations")
+                .description("Cold conversations archived")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("chat.persistence.archive.run")
+                .description("Duration of an archival sweep step")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::runSafely, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void runSafely() {
+        try {
+            runTimer.record(() -> run(LocalDateTime.now().minus(coldAfter)));
+        } catch (RuntimeException e) {
+            logger.error("Message archival run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Visits the next conversationsPerRun conversations and archives those whose last message is older than cutoff
+    int run(LocalDateTime cutoff) {
+        List<Integer> conversationIds = jdbcTemplate.queryForList(
+                "SELECT id FROM conversations WHERE id > ? ORDER BY id LIMIT ?",
+                Integer.class, cursor, conversationsPerRun);
+        cursor = conversationIds.size() < conversationsPerRun ? 0 : conversationIds.get(conversationIds.size() - 1);
+
+        int archived = 0;
+        for (Integer conversationId : conversationIds) {
+            List<Message> newest = jdbcTemplate.query(
+                    "SELECT id, content, timestamp, is_user FROM messages WHERE conversation_id = ? ORDER BY id DESC LIMIT 1",
+                    messageRowMapper, conversationId);
+            if (newest.isEmpty() || !newest.get(0).getTimestamp().isBefore(cutoff)) continue;
+            try {
+                archived += archive(conversationId, newest.get(0).getId());
+                archivedConversations.increment();
+            } catch (DataAccessException e) {
+                logger.warn("Failed to archive conversation ID {}: {}", conversationId, e.getMessage());
+            }
+        }
+        return archived;
+    }
+
+    private int archive(Integer conversationId, int lastId) {
+        int archived = 0;
+        while (true) {
+            List<Message> chunk = jdbcTemplate.query(
+                    "SELECT id, content, timestamp, is_user FROM messages WHERE conversation_id = ? AND id <= ? ORDER BY id ASC LIMIT ?",
+                    messageRowMapper, conversationId, lastId, chunkSize);
+            if (chunk.isEmpty()) return archived;
+
+            transactionTemplate.executeWithoutResult(status -> {
+                messageArchive.store(conversationId, chunk);
+                jdbcTemplate.update("DELETE FROM messages WHERE conversation_id = ? AND id BETWEEN ? AND ?",
+                        conversationId, chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId());
+                MessageSearchIndex.remove(jdbcTemplate, conversationId, chunk.get(0).getId(), chunk.get(chunk.size() - 1).getId());
+            });
+            archived += chunk.size();
+            archivedMessages.increment(chunk.size());
+            logger.debug("Archived {} messages of conversation ID {} up to ID {}", chunk.size(), conversationId,
+                    chunk.get(chunk.size() - 1).getId());
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Write-behind for the messages table: a single background writer drains a bounded FIFO queue with
+// JDBC batch inserts, which also keeps the messages of each conversation in insertion order.
+// Callers have already been answered when their turn is flushed, so a write is never dropped while the writer
+// runs: a batch that keeps failing is retried one conversation at a time, a conversation that still fails goes
+// to message_dead_letter, and while neither table accepts it (database down) the writer holds it and retries.
+// Only writes still unwritten when shutdown gives up are lost, and they are logged and counted.
+@Component
+@Profile("!reactive")
+public class MessageBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageBatchWriter.class);
+
+    private static final String DEAD_LETTER_SQL =
+            "INSERT INTO message_dead_letter (conversation_id, content, timestamp, is_user, error) VALUES (?, ?, ?, ?, ?)";
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+    private static final long RETRY_BACKOFF_MS = 100;
+    private static final int MAX_ERROR_LENGTH = 1000;
+    // Queued by stop() so a writer blocked in poll() notices running == false without waiting out the interval
+    private static final PendingWrite WAKE_UP = new PendingWrite(null, List.of());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMs;
+    private final long drainTimeoutMs;
+
+    private final BlockingQueue<PendingWrite> queue;
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+    private final Map<Integer, Integer> pendingByConversation = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Condition flushed = flushLock.newCondition();
+    // Writers enqueue under the read lock and stop() closes intake under the write lock, so nothing can be
+    // queued after the writer thread has seen running == false and drained
+    private final ReentrantReadWriteLock intakeLock = new ReentrantReadWriteLock();
+
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizeSummary;
+    private final Counter rejectedCounter;
+    private final Counter deadLetteredCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public MessageBatchWriter(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.persistence.write-behind.enabled:true}") boolean enabled,
+                              @Value("${chat.persistence.write-behind.queue-capacity:10000}") int queueCapacity,
+                              @Value("${chat.persistence.write-behind.batch-size:200}") int batchSize,
+                              @Value("${chat.persistence.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+                              @Value("${chat.persistence.write-behind.offer-timeout-ms:100}") long offerTimeoutMs,
+                              @Value("${chat.persistence.write-behind.drain-timeout-ms:10000}") long drainTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("chat.messages.write_behind.queue.depth", queuedMessages, AtomicInteger::get)
+                .description("Messages waiting to be flushed to the database")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("chat.messages.write_behind.flush")
+                .description("Latency of a batch insert into the messages table")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("chat.messages.write_behind.batch.size")
+                .description("Messages per flushed batch")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("chat.messages.write_behind.rejected")
+                .description("Writes performed synchronously because the queue was full")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("chat.messages.write_behind.dead_lettered")
+                .description("Messages moved to message_dead_letter after their conversation's insert kept failing")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("chat.messages.write_behind.failed")
+                .description("Messages lost because they were still unwritten when shutdown gave up")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) return;
+        running = true;
+        writerThread = Thread.ofPlatform().name("message-writer").daemon(true).start(this::runLoop);
+        logger.info("Message write-behind started (batchSize={}, capacity={})", batchSize, queue.remainingCapacity());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writerThread == null) return;
+        intakeLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            intakeLock.writeLock().unlock();
+        }
+        queue.offer(WAKE_UP);
+        writerThread.join(drainTimeoutMs);
+        if (writerThread.isAlive()) {
+            logger.error("Message writer did not drain within {}ms, {} messages not persisted", drainTimeoutMs, queuedMessages.get());
+            writerThread.interrupt();
+        }
+    }
+
+    public void write(Integer conversationId, List<Message> messages) {
+        if (messages.isEmpty()) return;
+        PendingWrite write = new PendingWrite(conversationId, List.copyOf(messages));
+        if (enqueue(write)) return;
+
+        // The caller has not been answered yet, so a failure here is reported to it instead of being swallowed
+        transactionTemplate.executeWithoutResult(status -> insert(List.of(write)));
+    }
+
+    // False when the write has to be performed synchronously: write-behind is off or stopped, or the queue is full
+    private boolean enqueue(PendingWrite write) {
+        intakeLock.readLock().lock();
+        try {
+            if (running) {
+                // Count before offering so a concurrent awaitFlushed never misses an in-flight write
+                pendingByConversation.merge(write.conversationId(), write.messages().size(), Integer::sum);
+                queuedMessages.addAndGet(write.messages().size());
+                try {
+                    if (queue.offer(write, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                release(write);
+                rejectedCounter.increment();
+                logger.warn("Write-behind queue full, writing {} messages for conversation ID {} synchronously",
+                        write.messages().size(), write.conversationId());
+            }
+        } finally {
+            intakeLock.readLock().unlock();
+        }
+        // Keep per-conversation ordering: earlier queued writes must land first (also while a stop drains them)
+        awaitFlushed(write.conversationId());
+        return false;
+    }
+
+    // Blocks until every queued message of the conversation has been flushed, so reads see prior writes.
+    // Fails rather than returns early: a read or write that went ahead could overtake the queued messages.
+    public void awaitFlushed(Integer conversationId) {
+        if (!pendingByConversation.containsKey(conversationId)) return;
+
+        long remaining = TimeUnit.MILLISECONDS.toNanos(drainTimeoutMs);
+        flushLock.lock();
+        try {
+            while (pendingByConversation.containsKey(conversationId)) {
+                if (remaining <= 0) {
+                    throw new TransientDataAccessResourceException("Queued messages of conversation ID "
+                            + conversationId + " were not flushed within " + drainTimeoutMs + "ms");
+                }
+                remaining = flushed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransientDataAccessResourceException("Interrupted while waiting for queued messages of conversation ID "
+                    + conversationId, e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void runLoop() {
+        List<PendingWrite> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null || first == WAKE_UP) continue;
+                batch.add(first);
+                int messageCount = first.messages().size();
+
+                // Size-triggered: stop at batchSize messages. Time-triggered: stop once the flush interval elapses.
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (messageCount < batchSize) {
+                    PendingWrite next = queue.poll();
+                    if (next == null) {
+                        long wait = deadline - System.nanoTime();
+                        if (wait <= 0 || !running) break;
+                        next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                    }
+                    if (next == WAKE_UP) break;
+                    batch.add(next);
+                    messageCount += next.messages().size();
+                }
+
+                flush(batch);
+                batch.clear();
+                if (Thread.currentThread().isInterrupted()) {
+                    abandonQueued(batch);
+                    return;
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by stop() after the drain timeout
+                Thread.currentThread().interrupt();
+                abandonQueued(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+        logger.info("Message write-behind drained");
+    }
+
+    private void abandonQueued(List<PendingWrite> polled) {
+        List<PendingWrite> remaining = new ArrayList<>(polled);
+        queue.drainTo(remaining);
+        remaining.removeIf(write -> write == WAKE_UP);
+        if (!remaining.isEmpty()) {
+            abandon(remaining);
+        }
+    }
+
+    // Every write of the batch is released when this returns: stored, dead-lettered, or abandoned on interrupt
+    private void flush(List<PendingWrite> batch) {
+        List<PendingWrite> unwritten = new ArrayList<>(batch);
+        try {
+            if (insertWithRetries(batch) == null) {
+                settle(batch, unwritten);
+                return;
+            }
+            // One conversation's bad row must not take the other conversations' turns down with it. A failing
+            // conversation is dead-lettered as a whole so its turns never land out of order.
+            for (List<PendingWrite> conversation : byConversation(batch)) {
+                if (persistIsolated(conversation)) {
+                    settle(conversation, unwritten);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!unwritten.isEmpty()) {
+                abandon(unwritten);
+            }
+        }
+    }
+
+    // False only once shutdown has begun and the writes still cannot be stored anywhere
+    private boolean persistIsolated(List<PendingWrite> writes) throws InterruptedException {
+        while (true) {
+            DataAccessException failure = insertWithRetries(writes);
+            if (failure == null || deadLetter(writes, failure)) {
+                return true;
+            }
+            if (!running) {
+                return false;
+            }
+            // Neither table accepts them, most likely the database is unreachable: hold them and keep trying
+            Thread.sleep(RETRY_BACKOFF_MS * MAX_FLUSH_ATTEMPTS);
+        }
+    }
+
+    // Null once the writes are stored (in one transaction, so a retry never duplicates rows), else the last failure
+    private DataAccessException insertWithRetries(List<PendingWrite> writes) throws InterruptedException {
+        DataAccessException failure = null;
+        for (int attempt = 1; attempt <= MAX_FLUSH_ATTEMPTS; attempt++) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> insert(writes)));
+                return null;
+            } catch (DataAccessException e) {
+                failure = e;
+                logger.warn("Flush attempt {} of {} messages failed: {}", attempt, messageCount(writes), e.getMessage());
+                if (attempt < MAX_FLUSH_ATTEMPTS) {
+                    Thread.sleep(RETRY_BACKOFF_MS * attempt);
+                }
+            }
+        }
+        return failure;
+    }
+
+    private boolean deadLetter(List<PendingWrite> writes, DataAccessException failure) {
+        String error = String.valueOf(failure.getMostSpecificCause().getMessage());
+        List<Object[]> rows = new ArrayList<>();
+        for (PendingWrite write : writes) {
+            for (Message message : write.messages()) {
+                rows.add(new Object[]{write.conversationId(), message.getContent(), Timestamp.valueOf(message.getTimestamp()),
+                        message.getIsUser(), error.substring(0, Math.min(error.length(), MAX_ERROR_LENGTH))});
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(DEAD_LETTER_SQL, rows));
+            deadLetteredCounter.increment(rows.size());
+            logger.error("Moved {} messages of conversation ID {} to message_dead_letter", rows.size(), writes.get(0).conversationId());
+            return true;
+        } catch (DataAccessException e) {
+            logger.error("Failed to dead-letter {} messages of conversation ID {}: {}", rows.size(), writes.get(0).conversationId(), e.getMessage());
+            return false;
+        }
+    }
+
+    // Batch split by conversation, each keeping its writes in queue order
+    private static List<List<PendingWrite>> byConversation(List<PendingWrite> batch) {
+        Map<Integer, List<PendingWrite>> groups = new LinkedHashMap<>();
+        for (PendingWrite write : batch) {
+            groups.computeIfAbsent(write.conversationId(), id -> new ArrayList<>()).add(write);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private void settle(List<PendingWrite> writes, List<PendingWrite> unwritten) {
+        for (PendingWrite write : writes) {
+            release(write);
+        }
+        unwritten.removeAll(writes);
+        signalFlushed();
+    }
+
+    // Shutdown gave up on these; release them so readers don't wait out the drain timeout
+    private void abandon(List<PendingWrite> writes) {
+        int lost = messageCount(writes);
+        failedCounter.increment(lost);
+        for (PendingWrite write : writes) {
+            logger.error("Lost {} messages of conversation ID {}: not written before shutdown", write.messages().size(), write.conversationId());
+            release(write);
+        }
+        signalFlushed();
+    }
+
+    private void signalFlushed() {
+        flushLock.lock();
+        try {
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void insert(List<PendingWrite> writes) {
+        List<Object[]> rows = new ArrayList<>();
+        for (PendingWrite write : writes) {
+            for (Message message : write.messages()) {
+                rows.add(new Object[]{message.getContent(), Timestamp.valueOf(message.getTimestamp()),
+                        message.getIsUser(), write.conversationId()});
+            }
+        }
+        MessageSearchIndex.insertIndexed(jdbcTemplate, rows);
+        batchSizeSummary.record(rows.size());
+    }
+
+    private static int messageCount(List<PendingWrite> writes) {
+        return writes.stream().mapToInt(w -> w.messages().size()).sum();
+    }
+
+    // No longer pending: written, dead-lettered, handed to a synchronous insert, or abandoned at shutdown
+    private void release(PendingWrite write) {
+        int size = write.messages().size();
+        queuedMessages.addAndGet(-size);
+        // Dropping the entry at zero lets awaitFlushed use a plain containsKey check
+        pendingByConversation.merge(write.conversationId(), -size, (a, b) -> a + b <= 0 ? null : a + b);
+    }
+
+    private record PendingWrite(Integer conversationId, List<Message> messages) {
+    }
+}
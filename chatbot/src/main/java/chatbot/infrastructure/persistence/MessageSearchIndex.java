@@ -0,0 +1,94 @@
+package chatbot.infrastructure.persistence;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keeps message_search (see V4__add_message_search.sql) in step with messages. Writers insert messages
+// through insertIndexed inside their transaction, so a message and its search entry commit together, and
+// MessageArchiver removes the entries of the messages it archives: archived messages are not searchable.
+final class MessageSearchIndex {
+
+    static final String INSERT_MESSAGE_SQL = "INSERT INTO messages (content, timestamp, is_user, conversation_id) VALUES (?, ?, ?, ?)";
+    static final String INDEX_SQL = "INSERT INTO message_search (message_id, conversation_id, user_id, scope, content, timestamp, is_user) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private MessageSearchIndex() {
+    }
+
+    // Rows hold content, timestamp, is_user and conversation_id, in INSERT_MESSAGE_SQL order
+    static void insertIndexed(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        if (rows.isEmpty()) return;
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_MESSAGE_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Object[] row = rows.get(i);
+                        for (int column = 0; column < row.length; column++) {
+                            StatementCreatorUtils.setParameterValue(ps, column + 1, SqlTypeValue.TYPE_UNKNOWN, row[column]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> ids = keys.getKeyList();
+        if (ids.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated message ids, got " + ids.size());
+        }
+        Map<Integer, Integer> owners = owners(jdbcTemplate, rows);
+        List<Object[]> entries = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            Integer userId = owners.get((Integer) row[3]);
+            // The conversation was deleted meanwhile; its message goes with it
+            if (userId == null) continue;
+            // The driver names the key column differently (GENERATED_KEY, insert_id, ID), so take the only value
+            Number id = (Number) ids.get(i).values().iterator().next();
+            entries.add(new Object[]{id.intValue(), row[3], userId, scope(userId), row[0], row[1], row[2]});
+        }
+        jdbcTemplate.batchUpdate(INDEX_SQL, entries);
+    }
+
+    static void remove(JdbcTemplate jdbcTemplate, Integer conversationId, int firstId, int lastId) {
+        jdbcTemplate.update("DELETE FROM message_search WHERE message_id BETWEEN ? AND ? AND conversation_id = ?",
+                firstId, lastId, conversationId);
+    }
+
+    // Owner token indexed together with the content; see JdbcMessageSearchRepository.booleanQuery
+    static String scope(Integer userId) {
+        return "chatowner" + userId;
+    }
+
+    private static Map<Integer, Integer> owners(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        Set<Integer> conversationIds = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            conversationIds.add((Integer) row[3]);
+        }
+        Map<Integer, Integer> owners = new HashMap<>();
+        jdbcTemplate.query("SELECT id, user_id FROM conversations WHERE id IN ("
+                        + String.join(", ", Collections.nCopies(conversationIds.size(), "?")) + ")",
+                rs -> {
+                    owners.put(rs.getInt("id"), rs.getInt("user_id"));
+                },
+                conversationIds.toArray());
+        return owners;
+    }
+}
@@ -0,0 +1,242 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
+import chatbot.domain.repository.ReactiveConversationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+@Profile("reactive")
+public class R2dbcConversationRepository implements ReactiveConversationRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(R2dbcConversationRepository.class);
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    // Ownership never changes once a conversation exists, so only positive answers are cached
+    private final Cache<Long, Boolean> ownershipCache;
+
+    public R2dbcConversationRepository(DatabaseClient databaseClient,
+                                       TransactionalOperator transactionalOperator,
+                                       @Value("${chat.persistence.ownership-cache.ttl-seconds:60}") long ownershipCacheTtlSeconds,
+                                       @Value("${chat.persistence.ownership-cache.max-size:100000}") long ownershipCacheMaxSize) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.ownershipCache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ownershipCacheTtlSeconds))
+                .maximumSize(ownershipCacheMaxSize)
+                .build();
+    }
+
+    private static Conversation mapConversation(Readable row) {
+        return new Conversation(
+                row.get("id", Integer.class),
+                row.get("name", String.class),
+                row.get("user_id", Integer.class),
+                row.get("created_at", LocalDateTime.class));
+    }
+
+    private static Message mapMessage(Readable row) {
+        return new Message(
+                row.get("id", Integer.class),
+                row.get("content", String.class),
+                row.get("timestamp", LocalDateTime.class),
+                row.get("is_user", Boolean.class));
+    }
+
+    @Override
+    public Mono<Conversation> findById(Integer id) {
+        return databaseClient.sql("SELECT * FROM conversations WHERE id = ?")
+                .bind(0, id)
+                .map(R2dbcConversationRepository::mapConversation)
+                .one()
+                .onErrorResume(e -> {
+                    logger.error("Error finding conversation by ID {}: {}", id, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Boolean> existsForUser(Integer conversationId, Integer userId) {
+        long key = ((long) conversationId << 32) | (userId & 0xFFFFFFFFL);
+        if (ownershipCache.getIfPresent(key) != null) {
+            return Mono.just(true);
+        }
+        return databaseClient.sql("SELECT COUNT(*) AS matches FROM conversations WHERE id = ? AND user_id = ?")
+                .bind(0, conversationId)
+                .bind(1, userId)
+                .map(row -> row.get("matches", Long.class))
+                .one()
+                .map(count -> {
+                    boolean exists = count != null && count > 0;
+                    if (exists) {
+                        ownershipCache.put(key, Boolean.TRUE);
+                    }
+                    return exists;
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error checking conversation ID {} for user ID {}: {}", conversationId, userId, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    @Override
+    public Flux<Conversation> findByUserId(Integer userId) {
+        return databaseClient.sql("SELECT id, name, user_id, created_at FROM conversations WHERE user_id = ? ORDER BY id")
+                .bind(0, userId)
+                .map(R2dbcConversationRepository::mapConversation)
+                .all()
+                .onErrorResume(e -> {
+                    logger.error("Error finding conversations for user ID {}: {}", userId, e.getMessage());
+                    return Flux.empty();
+                });
+    }
+
+    @Override
+    public Mono<Integer> save(Conversation conversation) {
+        return databaseClient.sql("INSERT INTO conversations (name, user_id, created_at) VALUES (?, ?, ?)")
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind(0, conversation.getName())
+                .bind(1, conversation.getUserId())
+                .bind(2, conversation.getDateTime())
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .doOnNext(conversation::setId)
+                .onErrorResume(e -> {
+                    logger.error("Error saving conversation {}: {}", conversation, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Flux<Message> getMessages(Integer conversationId, Integer beforeId, Integer afterId, int limit) {
+        // Both directions are range scans on the (conversation_id, id) index
+        StringBuilder sql = new StringBuilder("SELECT id, content, timestamp, is_user FROM messages WHERE conversation_id = ?");
+        List<Object> args = new ArrayList<>();
+        args.add(conversationId);
+        if (afterId != null) {
+            sql.append(" AND id > ?");
+            args.add(afterId);
+        }
+        if (beforeId != null) {
+            sql.append(" AND id < ?");
+            args.add(beforeId);
+        }
+        boolean newestFirst = afterId == null;
+        sql.append(newestFirst ? " ORDER BY id DESC" : " ORDER BY id ASC").append(" LIMIT ?");
+        args.add(limit);
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < args.size(); i++) {
+            spec = spec.bind(i, args.get(i));
+        }
+        Flux<Message> page = spec.map(R2dbcConversationRepository::mapMessage).all();
+        if (newestFirst) {
+            page = page.collectList().flatMapIterable(messages -> {
+                Collections.reverse(messages);
+                return messages;
+            });
+        }
+        return page.onErrorResume(e -> {
+            logger.error("Error getting messages for conversation ID {}: {}", conversationId, e.getMessage());
+            return Flux.empty();
+        });
+    }
+
+    @Override
+    public Mono<MessageWindow> getRecentMessages(Integer conversationId, int limit) {
+        return getMessages(conversationId, null, null, limit).collectList().flatMap(messages -> {
+            // A window shorter than the limit is the whole conversation
+            if (messages.size() < limit) return Mono.just(new MessageWindow(messages, messages.size()));
+            return databaseClient.sql("SELECT COUNT(*) FROM messages WHERE conversation_id = ?")
+                    .bind(0, conversationId)
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .map(total -> new MessageWindow(messages, total))
+                    .onErrorResume(e -> {
+                        logger.error("Error counting messages for conversation ID {}: {}", conversationId, e.getMessage());
+                        return Mono.just(new MessageWindow(messages, messages.size()));
+                    });
+        });
+    }
+
+    @Override
+    public Mono<Void> addMessages(Integer conversationId, List<Message> messages) {
+        if (messages.isEmpty()) return Mono.empty();
+        // One statement with a binding set per message, sent as a single batch; the messages and their
+        // search entries (see MessageSearchIndex) commit together
+        return databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(MessageSearchIndex.INSERT_MESSAGE_SQL).returnGeneratedValues("id");
+                    for (int i = 0; i < messages.size(); i++) {
+                        if (i > 0) statement.add();
+                        Message message = messages.get(i);
+                        statement.bind(0, message.getContent())
+                                .bind(1, message.getTimestamp())
+                                .bind(2, message.getIsUser())
+                                .bind(3, conversationId);
+                    }
+                    return Flux.from(statement.execute()).concatMap(result -> result.map(row -> row.get(0, Long.class)));
+                })
+                .collectList()
+                .flatMap(ids -> index(conversationId, messages, ids))
+                .as(transactionalOperator::transactional)
+                .onErrorResume(e -> {
+                    logger.error("Error adding messages to conversation ID {}: {}", conversationId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> index(Integer conversationId, List<Message> messages, List<Long> ids) {
+        return databaseClient.sql("SELECT user_id FROM conversations WHERE id = ?")
+                .bind(0, conversationId)
+                .map(row -> row.get(0, Integer.class))
+                .one()
+                .flatMap(userId -> databaseClient.inConnectionMany(connection -> {
+                    Statement statement = connection.createStatement(MessageSearchIndex.INDEX_SQL);
+                    for (int i = 0; i < messages.size(); i++) {
+                        if (i > 0) statement.add();
+                        Message message = messages.get(i);
+                        statement.bind(0, ids.get(i).intValue())
+                                .bind(1, conversationId)
+                                .bind(2, userId)
+                                .bind(3, MessageSearchIndex.scope(userId))
+                                .bind(4, message.getContent())
+                                .bind(5, message.getTimestamp())
+                                .bind(6, message.getIsUser());
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                }).then());
+    }
+
+    @Override
+    public Mono<Void> renameConversation(Integer conversationId, String newName) {
+        return databaseClient.sql("UPDATE conversations SET name = ? WHERE id = ?")
+                .bind(0, newName)
+                .bind(1, conversationId)
+                .then()
+                .onErrorResume(e -> {
+                    logger.error("Error renaming conversation ID {}: {}", conversationId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
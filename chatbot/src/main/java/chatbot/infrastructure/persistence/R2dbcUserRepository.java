@@ -0,0 +1,110 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.User;
+import chatbot.domain.repository.ReactiveUserRepository;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+public class R2dbcUserRepository implements ReactiveUserRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(R2dbcUserRepository.class);
+
+    private final DatabaseClient databaseClient;
+
+    public R2dbcUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    private static User mapUser(Readable row) {
+        return new User(
+                row.get("id", Integer.class),
+                row.get("name", String.class),
+                row.get("email", String.class),
+                row.get("password", String.class));
+    }
+
+    @Override
+    public Mono<User> findById(Integer id) {
+        return databaseClient.sql("SELECT * FROM users WHERE id = ?")
+                .bind(0, id)
+                .map(R2dbcUserRepository::mapUser)
+                .one()
+                .onErrorResume(e -> {
+                    logger.error("Error finding user by ID {}: {}", id, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<User> findByEmail(String email) {
+        return databaseClient.sql("SELECT * FROM users WHERE email = ?")
+                .bind(0, email)
+                .map(R2dbcUserRepository::mapUser)
+                .one()
+                .onErrorResume(e -> {
+                    logger.error("Error finding user by email {}: {}", email, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Flux<User> findAll() {
+        return databaseClient.sql("SELECT * FROM users")
+                .map(R2dbcUserRepository::mapUser)
+                .all()
+                .onErrorResume(e -> {
+                    logger.error("Error fetching all users: {}", e.getMessage());
+                    return Flux.empty();
+                });
+    }
+
+    @Override
+    public Mono<Integer> save(User user) {
+        return databaseClient.sql("INSERT INTO users (name, email, password) VALUES (?, ?, ?)")
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind(0, user.getName())
+                .bind(1, user.getEmail())
+                .bind(2, user.getPassword())
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .doOnNext(id -> {
+                    user.setId(id);
+                    logger.info("Saved user with id {}: {}", id, user);
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error saving user {}: {}", user, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Void> updatePassword(Integer id, String password) {
+        return databaseClient.sql("UPDATE users SET password = ? WHERE id = ?")
+                .bind(0, password)
+                .bind(1, id)
+                .then()
+                .onErrorResume(e -> {
+                    logger.error("Error updating password of user ID {}: {}", id, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteById(Integer id) {
+        return databaseClient.sql("DELETE FROM users WHERE id = ?")
+                .bind(0, id)
+                .then()
+                .onErrorResume(e -> {
+                    logger.error("Error deleting user by ID {}: {}", id, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
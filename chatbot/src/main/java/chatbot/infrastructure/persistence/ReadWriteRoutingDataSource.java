@@ -0,0 +1,97 @@
+package chatbot.infrastructure.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Sends the queries run inside onReplica() to the read replica and everything else to the primary.
+// The key is read when a connection is taken, so a query must not share a transaction with writes.
+// When no replica connection can be had, replica reads go to the primary until retryAfter has passed.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<String> currentKey = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterNanos;
+    private volatile long replicaRetryAt;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.replicaRetryAt = System.nanoTime();
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // Runs a read-only query on the replica, or on the primary while the replica is unavailable.
+    // Without a routing data source in front of the pool this only runs the query.
+    public static <T> T onReplica(Supplier<T> query) {
+        String previous = currentKey.get();
+        if (PRIMARY.equals(previous)) return query.get();
+        currentKey.set(REPLICA);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                currentKey.remove();
+            } else {
+                currentKey.set(previous);
+            }
+        }
+    }
+
+    // Runs work with every query on the primary, including the ones it asks to run onReplica. For reads
+    // whose result outlives the request and must include the latest writes, such as cache loads.
+    public static <T> T onPrimary(Supplier<T> work) {
+        String previous = currentKey.get();
+        currentKey.set(PRIMARY);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                currentKey.remove();
+            } else {
+                currentKey.set(previous);
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!REPLICA.equals(determineCurrentLookupKey())) {
+            return primary.getConnection();
+        }
+        if (System.nanoTime() - replicaRetryAt < 0) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            replicaRetryAt = System.nanoTime() + retryAfterNanos;
+            logger.warn("Read replica unavailable, reading from the primary for the next {} ms: {}",
+                    retryAfterNanos / 1_000_000, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String key = currentKey.get();
+        return key == null ? PRIMARY : key;
+    }
+}
@@ -0,0 +1,226 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
+import chatbot.domain.repository.ConversationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Keeps the newest messages of each active conversation in Redis, shared by all instances, so building the
+// model context does not query MySQL on every turn. MySQL stays the source of truth: a cold tail is hydrated
+// from it on the next read, and added messages are appended only to tails that are already warm.
+public class RedisTailConversationRepository implements ConversationRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisTailConversationRepository.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/tail-read.lua"), List.class);
+    private static final RedisScript<Long> APPEND_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/tail-append.lua"), Long.class);
+    private static final RedisScript<Long> HYDRATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/tail-hydrate.lua"), Long.class);
+
+    private final ConversationRepository delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int tailSize;
+    private final Duration ttl;
+    private final Duration hydrateHoldOff;
+
+    public RedisTailConversationRepository(ConversationRepository delegate,
+                                           StringRedisTemplate redisTemplate,
+                                           MeterRegistry meterRegistry,
+                                           int tailSize,
+                                           Duration ttl,
+                                           Duration hydrateHoldOff) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.tailSize = tailSize;
+        this.ttl = ttl;
+        this.hydrateHoldOff = hydrateHoldOff;
+    }
+
+    @Override
+    public Conversation findById(Integer id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public boolean existsForUser(Integer conversationId, Integer userId) {
+        return delegate.existsForUser(conversationId, userId);
+    }
+
+    @Override
+    public List<Conversation> findByUserId(Integer userId) {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public void save(Conversation conversation) {
+        delegate.save(conversation);
+    }
+
+    @Override
+    public List<Message> getMessages(Integer conversationId, Integer beforeId, Integer afterId, int limit) {
+        return delegate.getMessages(conversationId, beforeId, afterId, limit);
+    }
+
+    @Override
+    public MessageWindow getRecentMessages(Integer conversationId, int limit) {
+        if (limit > tailSize) {
+            return delegate.getRecentMessages(conversationId, limit);
+        }
+
+        List<String> cached = read(conversationId, limit);
+        if (cached != null && !cached.isEmpty()) {
+            try {
+                List<Message> messages = new ArrayList<>(cached.size() - 1);
+                for (String entry : cached.subList(1, cached.size())) {
+                    messages.add(decode(entry));
+                }
+                count("hit");
+                return new MessageWindow(messages, Long.parseLong(cached.get(0)));
+            } catch (RuntimeException e) {
+                logger.warn("Dropping unreadable Redis tail of conversation ID {}: {}", conversationId, e.getMessage());
+                evict(conversationId);
+            }
+        }
+
+        count("miss");
+        MessageWindow window = delegate.getRecentMessages(conversationId, tailSize);
+        // Empty windows are not cached: the database answers an empty list on errors as well
+        if (window.total() > 0) {
+            hydrate(conversationId, window);
+        }
+        List<Message> messages = window.messages();
+        return new MessageWindow(messages.subList(Math.max(0, messages.size() - limit), messages.size()), window.total());
+    }
+
+    @Override
+    public long countMessages(Integer conversationId) {
+        return delegate.countMessages(conversationId);
+    }
+
+    @Override
+    public void forEachMessage(Integer conversationId, Consumer<Message> consumer) {
+        delegate.forEachMessage(conversationId, consumer);
+    }
+
+    @Override
+    public void addMessage(Integer conversationId, Message message) {
+        addMessages(conversationId, List.of(message));
+    }
+
+    @Override
+    public void addMessages(Integer conversationId, List<Message> messages) {
+        delegate.addMessages(conversationId, messages);
+        if (messages.isEmpty()) return;
+
+        List<String> args = new ArrayList<>(messages.size() + 3);
+        args.add(String.valueOf(tailSize));
+        args.add(String.valueOf(ttl.toSeconds()));
+        args.add(String.valueOf(hydrateHoldOff.toMillis()));
+        for (Message message : messages) {
+            args.add(encode(message));
+        }
+        try {
+            redisTemplate.execute(APPEND_SCRIPT, keys(conversationId), args.toArray());
+        } catch (Exception e) {
+            logger.warn("Failed to append to the Redis tail of conversation ID {}: {}", conversationId, e.getMessage());
+            evict(conversationId);
+        }
+    }
+
+    @Override
+    public void evictMessages(Integer conversationId) {
+        delegate.evictMessages(conversationId);
+        evict(conversationId);
+    }
+
+    @Override
+    public void renameConversation(Integer conversationId, String newName) {
+        delegate.renameConversation(conversationId, newName);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> read(Integer conversationId, int limit) {
+        try {
+            return redisTemplate.execute(READ_SCRIPT, keys(conversationId).subList(0, 2), String.valueOf(limit));
+        } catch (Exception e) {
+            logger.warn("Failed to read the Redis tail of conversation ID {}: {}", conversationId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void hydrate(Integer conversationId, MessageWindow window) {
+        List<String> args = new ArrayList<>(window.messages().size() + 2);
+        args.add(String.valueOf(window.total()));
+        args.add(String.valueOf(ttl.toSeconds()));
+        for (Message message : window.messages()) {
+            args.add(encode(message));
+        }
+        try {
+            redisTemplate.execute(HYDRATE_SCRIPT, keys(conversationId), args.toArray());
+        } catch (Exception e) {
+            logger.warn("Failed to hydrate the Redis tail of conversation ID {}: {}", conversationId, e.getMessage());
+        }
+    }
+
+    // A tail that may have missed a write is dropped so the next read hydrates it from the database
+    private void evict(Integer conversationId) {
+        try {
+            redisTemplate.delete(keys(conversationId).subList(0, 2));
+        } catch (Exception e) {
+            logger.warn("Failed to evict the Redis tail of conversation ID {}: {}", conversationId, e.getMessage());
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("chat.history.tail.reads", "result", result).increment();
+    }
+
+    // The hash tag keeps the keys of one conversation in the same cluster slot, as the scripts require
+    private static List<String> keys(Integer conversationId) {
+        String prefix = "chat:{" + conversationId + "}:";
+        return List.of(prefix + "tail", prefix + "total", prefix + "hydrate-hold-off");
+    }
+
+    private static String encode(Message message) {
+        try {
+            return objectMapper.writeValueAsString(new StoredMessage(message.getId(), message.getContent(),
+                    message.getTimestamp() == null ? null : message.getTimestamp().toString(), message.getIsUser()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Message decode(String entry) {
+        try {
+            StoredMessage stored = objectMapper.readValue(entry, StoredMessage.class);
+            return new Message(stored.id(), stored.content(),
+                    stored.timestamp() == null ? null : LocalDateTime.parse(stored.timestamp()), stored.user());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredMessage(Integer id, String content, String timestamp, Boolean user) {
+    }
+}
@@ -0,0 +1,138 @@
+package chatbot.infrastructure.security;
+
+import chatbot.application.service.AdmissionRejectedException;
+import chatbot.application.service.PasswordHasher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// bcrypt on a fixed pool of platform threads sized to the cores, so a burst of logins queues here instead of
+// tying up every request thread with ~100ms of CPU each. The queue is bounded and work that waited longer than
+// max-queue-wait is dropped before it is hashed; its caller has most likely given up by then.
+// Values without a bcrypt prefix are legacy plaintext passwords; they still match and always need a rehash.
+@Component
+public class BcryptPasswordHasher implements PasswordHasher {
+
+    // bcrypt only uses the first 72 bytes; longer passwords would be silently truncated
+    private static final int MAX_PASSWORD_BYTES = 72;
+
+    private static final Pattern BCRYPT = Pattern.compile("\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+
+    private final BCryptPasswordEncoder encoder;
+    private final int cost;
+    private final long maxQueueWaitNanos;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWait;
+
+    public BcryptPasswordHasher(MeterRegistry meterRegistry,
+                                @Value("${chat.auth.password.bcrypt-cost:10}") int cost,
+                                @Value("${chat.auth.password.threads:0}") int threads,
+                                @Value("${chat.auth.password.max-queued:256}") int maxQueued,
+                                @Value("${chat.auth.password.max-queue-wait-ms:2000}") long maxQueueWaitMs) {
+        this.encoder = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+        this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued),
+                Thread.ofPlatform().name("password-hasher-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.meterRegistry = meterRegistry;
+        this.hashTimer = hashingTimer("hash");
+        this.verifyTimer = hashingTimer("verify");
+        this.queueWait = Timer.builder("chat.auth.password.queue.wait")
+                .description("Time password hashing work waited for a hashing thread")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("chat.auth.password.queued", executor, e -> e.getQueue().size())
+                .description("Password hashing work waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public CompletableFuture<String> hash(String rawPassword) {
+        if (rawPassword.getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Password must be at most " + MAX_PASSWORD_BYTES + " bytes"));
+        }
+        return submit(hashTimer, () -> encoder.encode(rawPassword));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> matches(String rawPassword, String storedPassword) {
+        if (!isBcrypt(storedPassword)) {
+            return CompletableFuture.completedFuture(MessageDigest.isEqual(
+                    rawPassword.getBytes(StandardCharsets.UTF_8), storedPassword.getBytes(StandardCharsets.UTF_8)));
+        }
+        return submit(verifyTimer, () -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    @Override
+    public boolean needsRehash(String storedPassword) {
+        // $2a$10$<salt+hash>: the cost is the two digits after the version
+        return !isBcrypt(storedPassword) || Integer.parseInt(storedPassword.substring(4, 6)) != cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long enqueued = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - enqueued;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > maxQueueWaitNanos) {
+                    reject("timeout");
+                    result.completeExceptionally(new AdmissionRejectedException("Server busy, please retry shortly"));
+                    return;
+                }
+                try {
+                    result.complete(timer.record(work));
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            reject("queue_full");
+            result.completeExceptionally(new AdmissionRejectedException("Server busy, please retry shortly"));
+        }
+        return result;
+    }
+
+    private void reject(String reason) {
+        meterRegistry.counter("chat.auth.password.rejected", "reason", reason).increment();
+    }
+
+    private Timer hashingTimer(String operation) {
+        return Timer.builder("chat.auth.password.hashing")
+                .tag("operation", operation)
+                .description("CPU time spent hashing and verifying passwords")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static boolean isBcrypt(String storedPassword) {
+        return BCRYPT.matcher(storedPassword).matches();
+    }
+}
@@ -0,0 +1,46 @@
+-- Databases created before migrations were recreated from schema.sql on every start, so they hold no data
+-- worth keeping; Flyway baselines them at version 0 and this drops their tables once.
+DROP TABLE IF EXISTS message_archive;
+DROP TABLE IF EXISTS messages;
+DROP TABLE IF EXISTS conversations;
+DROP TABLE IF EXISTS users;
+
+CREATE TABLE users (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE conversations (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255),
+    user_id INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Hot messages, hash-partitioned by conversation: every query names one conversation and prunes to its
+-- partition, where (conversation_id, id) is the clustered key. Partitioned tables cannot have foreign keys,
+-- so deleting a user removes its messages explicitly (JdbcUserRepository.deleteById).
+CREATE TABLE messages (
+    id INT AUTO_INCREMENT,
+    content TEXT NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    is_user BOOLEAN NOT NULL,
+    conversation_id INT NOT NULL,
+    PRIMARY KEY (conversation_id, id),
+    INDEX idx_messages_id (id)
+) PARTITION BY HASH (conversation_id) PARTITIONS 16;
+
+-- Messages of cold conversations, moved out of messages by MessageArchiver in deflated chunks of consecutive ids
+CREATE TABLE message_archive (
+    conversation_id INT NOT NULL,
+    first_id INT NOT NULL,
+    last_id INT NOT NULL,
+    message_count INT NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    payload MEDIUMBLOB NOT NULL,
+    PRIMARY KEY (conversation_id, first_id),
+    FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE CASCADE
+);
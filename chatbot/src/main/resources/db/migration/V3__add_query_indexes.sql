@@ -0,0 +1,4 @@
+-- findByUserId reads a user's conversations in id order from this index alone; it also backs the user_id
+-- foreign key, replacing the index MySQL created for it implicitly. Message pages need no extra index:
+-- (conversation_id, id) is the clustered primary key of messages, so they already read rows in key order.
+CREATE INDEX idx_conversations_user_id ON conversations (user_id, id, name, created_at);
@@ -0,0 +1,31 @@
+-- Full-text search over message content. InnoDB cannot put a FULLTEXT index on the partitioned messages
+-- table, so every inserted message is copied here by a trigger, whatever writes it (batch writer, R2DBC,
+-- import). Rows stay when MessageArchiver moves their message into the archive, and go with the conversation.
+-- scope holds an owner token ('chatowner<user_id>') indexed together with content, so a search names the
+-- owner inside the full-text query and the index only yields that user's rows.
+CREATE TABLE message_search (
+    message_id INT PRIMARY KEY,
+    conversation_id INT NOT NULL,
+    user_id INT NOT NULL,
+    scope VARCHAR(32) NOT NULL,
+    content TEXT NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    is_user BOOLEAN NOT NULL,
+    FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE CASCADE
+);
+
+-- Creating a trigger while binary logging is on needs SUPER or log_bin_trust_function_creators=1
+CREATE TRIGGER messages_index_for_search AFTER INSERT ON messages FOR EACH ROW
+    INSERT INTO message_search (message_id, conversation_id, user_id, scope, content, timestamp, is_user)
+    SELECT NEW.id, NEW.conversation_id, c.user_id, CONCAT('chatowner', c.user_id), NEW.content, NEW.timestamp, NEW.is_user
+    FROM conversations c
+    WHERE c.id = NEW.conversation_id;
+
+-- Messages already in the hot table; archived ones are not searchable
+INSERT INTO message_search (message_id, conversation_id, user_id, scope, content, timestamp, is_user)
+SELECT m.id, m.conversation_id, c.user_id, CONCAT('chatowner', c.user_id), m.content, m.timestamp, m.is_user
+FROM messages m
+JOIN conversations c ON c.id = m.conversation_id;
+
+-- Built after the backfill, which is much faster than maintaining it row by row
+CREATE FULLTEXT INDEX ft_message_search ON message_search (scope, content);
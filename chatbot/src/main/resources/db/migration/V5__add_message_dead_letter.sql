@@ -0,0 +1,12 @@
+-- Chat turns the write-behind could not insert into messages after repeated attempts (MessageBatchWriter).
+-- Kept for inspection and replay; content is MEDIUMTEXT so a row rejected for its size still fits.
+CREATE TABLE message_dead_letter (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    conversation_id INT NOT NULL,
+    content MEDIUMTEXT NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    is_user BOOLEAN NOT NULL,
+    error VARCHAR(1000),
+    failed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_message_dead_letter_conversation (conversation_id)
+);
@@ -0,0 +1,6 @@
+-- Number of the conversation's messages in message_archive, kept by MessageArchive.store in the archiving
+-- transaction. History reads skip the archive while it is 0, which it is for every conversation never archived.
+ALTER TABLE conversations ADD COLUMN archived_messages INT NOT NULL DEFAULT 0;
+
+UPDATE conversations c
+SET archived_messages = (SELECT COALESCE(SUM(a.message_count), 0) FROM message_archive a WHERE a.conversation_id = c.id);
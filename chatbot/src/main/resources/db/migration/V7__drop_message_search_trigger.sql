@@ -0,0 +1,4 @@
+-- message_search is filled by the application in the same transaction as the message (MessageSearchIndex:
+-- batch writer, R2DBC, import), and MessageArchiver deletes the rows of the messages it archives, so the V4
+-- trigger would insert every message twice and keep uncompressed copies of archived ones.
+DROP TRIGGER IF EXISTS messages_index_for_search;
@@ -0,0 +1,41 @@
+-- Demo accounts and conversations for local development, applied only by the 'dev' profile
+-- (application-dev.properties). Repeatable, so it runs after the versioned migrations and again whenever this
+-- file changes; every insert skips what is already there. Passwords are bcrypt hashes of alice123, bob123 and
+-- charlie123.
+INSERT INTO users (name, email, password)
+SELECT seed.name, seed.email, seed.password
+FROM (SELECT 'Alice' AS name, 'alice@example.com' AS email, '$2a$10$nt3eeh0c2XgK9UhttZzh8OBsZVyMr987vcKHhltpa6l37mF9.u..e' AS password
+      UNION ALL SELECT 'Bob', 'bob@example.com', '$2a$10$VfIJdRhQCdUOt1/CHOfQPuim5iVgYTw/SomwLrxPLdeDmUO8R9B66'
+      UNION ALL SELECT 'Charlie', 'charlie@example.com', '$2a$10$mjYlXDSlSTfBRQu.cR32mOnDu23gdON/YM2ZDA.JuC6uXdvnxDZVy') seed
+WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.email = seed.email);
+
+INSERT INTO conversations (name, user_id, created_at)
+SELECT seed.name, u.id, seed.created_at
+FROM (SELECT 'Alice Chat 1' AS name, 'alice@example.com' AS email, '2025-06-10 10:00:00' AS created_at
+      UNION ALL SELECT 'Bob Chat 1', 'bob@example.com', '2025-06-10 11:00:00'
+      UNION ALL SELECT 'Alice Chat 2', 'alice@example.com', '2025-06-11 09:30:00') seed
+JOIN users u ON u.email = seed.email
+WHERE NOT EXISTS (SELECT 1 FROM conversations c WHERE c.user_id = u.id AND c.name = seed.name)
+ORDER BY seed.created_at;
+
+INSERT INTO messages (content, timestamp, is_user, conversation_id)
+SELECT seed.content, seed.timestamp, seed.is_user, c.id
+FROM (SELECT 'Hi, how are you?' AS content, '2025-06-10 10:01:00' AS timestamp, true AS is_user,
+             'alice@example.com' AS email, 'Alice Chat 1' AS conversation
+      UNION ALL SELECT 'I am fine, thanks!', '2025-06-10 10:01:30', false, 'alice@example.com', 'Alice Chat 1'
+      UNION ALL SELECT 'Hello there!', '2025-06-10 11:02:00', true, 'bob@example.com', 'Bob Chat 1'
+      UNION ALL SELECT 'Good morning!', '2025-06-11 09:31:00', true, 'alice@example.com', 'Alice Chat 2'
+      UNION ALL SELECT 'Morning! How can I help you?', '2025-06-11 09:31:30', false, 'alice@example.com', 'Alice Chat 2') seed
+JOIN users u ON u.email = seed.email
+JOIN conversations c ON c.user_id = u.id AND c.name = seed.conversation
+WHERE NOT EXISTS (SELECT 1 FROM messages m WHERE m.conversation_id = c.id AND m.timestamp = seed.timestamp)
+ORDER BY seed.timestamp;
+
+-- Written like the application writes them (MessageSearchIndex), so the demo messages are searchable
+INSERT INTO message_search (message_id, conversation_id, user_id, scope, content, timestamp, is_user)
+SELECT m.id, m.conversation_id, c.user_id, CONCAT('chatowner', c.user_id), m.content, m.timestamp, m.is_user
+FROM messages m
+JOIN conversations c ON c.id = m.conversation_id
+JOIN users u ON u.id = c.user_id
+WHERE u.email IN ('alice@example.com', 'bob@example.com', 'charlie@example.com')
+  AND NOT EXISTS (SELECT 1 FROM message_search s WHERE s.message_id = m.id);
@@ -0,0 +1,16 @@
+-- Appends messages to a warm tail, trims it and returns the new total, or -1 when the tail is cold.
+-- A cold tail stays cold and is marked, so a hydration racing with this write cannot cache a window without it.
+-- KEYS[1] = tail list, KEYS[2] = total, KEYS[3] = hydration hold-off marker
+-- ARGV[1] = entries to keep, ARGV[2] = TTL in seconds, ARGV[3] = hold-off in milliseconds, ARGV[4..] = messages
+if redis.call('EXISTS', KEYS[2]) == 0 then
+  redis.call('SET', KEYS[3], '1', 'PX', ARGV[3])
+  return -1
+end
+for i = 4, #ARGV do
+  redis.call('RPUSH', KEYS[1], ARGV[i])
+end
+redis.call('LTRIM', KEYS[1], -tonumber(ARGV[1]), -1)
+local total = redis.call('INCRBY', KEYS[2], #ARGV - 3)
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+redis.call('EXPIRE', KEYS[2], ARGV[2])
+return total
@@ -0,0 +1,14 @@
+-- Caches a window read from the database, unless the tail was warmed meanwhile or a write to the cold tail
+-- may not have reached the database yet. Returns 1 if the window was stored.
+-- KEYS[1] = tail list, KEYS[2] = total, KEYS[3] = hydration hold-off marker
+-- ARGV[1] = total, ARGV[2] = TTL in seconds, ARGV[3..] = messages, oldest first
+if redis.call('EXISTS', KEYS[2]) == 1 or redis.call('EXISTS', KEYS[3]) == 1 then
+  return 0
+end
+redis.call('DEL', KEYS[1])
+for i = 3, #ARGV do
+  redis.call('RPUSH', KEYS[1], ARGV[i])
+end
+redis.call('EXPIRE', KEYS[1], ARGV[2])
+redis.call('SET', KEYS[2], ARGV[1], 'EX', ARGV[2])
+return 1
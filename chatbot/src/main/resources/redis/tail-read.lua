@@ -0,0 +1,11 @@
+-- Reads the newest entries of a conversation tail, preceded by the conversation's total message count.
+-- Returns an empty array when the tail is cold.
+-- KEYS[1] = tail list, KEYS[2] = total
+-- ARGV[1] = entries to read
+local total = redis.call('GET', KEYS[2])
+if not total then
+  return {}
+end
+local entries = redis.call('LRANGE', KEYS[1], -tonumber(ARGV[1]), -1)
+table.insert(entries, 1, total)
+return entries
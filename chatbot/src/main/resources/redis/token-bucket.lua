@@ -0,0 +1,19 @@
+-- Takes up to the requested number of permits from a token bucket and returns how many were granted.
+-- Time comes from the Redis server so all instances refill the bucket on the same clock.
+-- KEYS[1] = bucket hash
+-- ARGV[1] = permits added per second, ARGV[2] = bucket capacity, ARGV[3] = permits requested
+local rate = tonumber(ARGV[1])
+local capacity = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local updated = tonumber(state[2]) or now
+tokens = math.min(capacity, tokens + math.max(0, now - updated) * rate / 1000)
+local granted = math.min(requested, math.floor(tokens))
+tokens = tokens - granted
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+-- A bucket left alone until it is full again carries no state worth keeping
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate * 1000) + 1000)
+return granted
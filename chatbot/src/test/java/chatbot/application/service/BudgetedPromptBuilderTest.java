@@ -0,0 +1,80 @@
+package chatbot.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BudgetedPromptBuilderTest {
+
+    // One token per character keeps the budget arithmetic readable
+    private static final TokenEstimator CHARS = text -> text == null ? 0 : text.length();
+    // "User: q\nAI:"
+    private static final int USER_TURN_TOKENS = 11;
+
+    @Test
+    void theNewestEntriesUpToTheEntryCapAreIncluded() {
+        BudgetedPromptBuilder builder = new BudgetedPromptBuilder(CHARS, "P", 100, 5, 2);
+
+        String prompt = builder.build(1, 8, null, entries(8), "q");
+
+        assertEquals("P\n\nConversation:\ne3\ne4\ne5\ne6\ne7\nUser: q\nAI:", prompt);
+    }
+
+    @Test
+    void aSummaryIsIncludedAndLowersTheEntryCap() {
+        BudgetedPromptBuilder builder = new BudgetedPromptBuilder(CHARS, "P", 100, 5, 2);
+
+        String prompt = builder.build(1, 8, "S", entries(8), "q");
+
+        assertEquals("P\n\nSummary of the earlier conversation:\nS\n\nConversation:\ne6\ne7\nUser: q\nAI:", prompt);
+    }
+
+    @Test
+    void historyIsTruncatedToTheTokenBudget() {
+        BudgetedPromptBuilder builder = new BudgetedPromptBuilder(CHARS, "P", 30, 20, 8);
+        BudgetedPromptBuilder.Context context = builder.newContext(null);
+        context.append(List.of("older-0001", "older-0002", "newest-001"), 3);
+
+        BudgetedPromptBuilder.Prompt prompt = builder.assemble(context, "q");
+
+        // 30 - preamble - user turn leaves room for one 10-token entry
+        assertEquals("P\n\nConversation:\nnewest-001\nUser: q\nAI:", prompt.text());
+        assertEquals(1, prompt.entries());
+        assertEquals(1 + 10 + USER_TURN_TOKENS, prompt.tokens());
+    }
+
+    @Test
+    void anEntryOverTheBudgetEndsTheHistoryInsteadOfLeavingAGap() {
+        BudgetedPromptBuilder builder = new BudgetedPromptBuilder(CHARS, "P", 30, 20, 8);
+        BudgetedPromptBuilder.Context context = builder.newContext(null);
+        context.append(List.of("a", "b", "newest-entry-too-long"), 3);
+
+        BudgetedPromptBuilder.Prompt prompt = builder.assemble(context, "q");
+
+        // The older entries would fit, but sending them without the newest one would misrepresent the conversation
+        assertEquals("P\n\nConversation:\nUser: q\nAI:", prompt.text());
+        assertEquals(0, prompt.entries());
+    }
+
+    @Test
+    void aContextDropsEntriesThatCanNeverBeIncluded() {
+        BudgetedPromptBuilder builder = new BudgetedPromptBuilder(CHARS, "P", 100, 3, 2);
+        BudgetedPromptBuilder.Context context = builder.newContext(null);
+        context.append(entries(2), 2);
+        context.append(List.of("e2", "e3"), 4);
+
+        assertEquals(4, context.version());
+        assertEquals("P\n\nConversation:\ne1\ne2\ne3\nUser: q\nAI:", builder.assemble(context, "q").text());
+    }
+
+    private static List<String> entries(int count) {
+        List<String> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add("e" + i);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,84 @@
+package chatbot.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConversationLocksTest {
+
+    @Test
+    void entriesAreDroppedOnceTheLastTurnFinishes() throws Exception {
+        ConversationLocks locks = new ConversationLocks(60_000);
+        AtomicInteger[] running = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+        AtomicInteger overlaps = new AtomicInteger();
+
+        List<Future<Integer>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                int conversationId = i % 5;
+                futures.add(executor.submit(() -> locks.withLock(conversationId, () -> {
+                    if (running[conversationId].incrementAndGet() > 1) overlaps.incrementAndGet();
+                    Thread.yield();
+                    running[conversationId].decrementAndGet();
+                    return conversationId;
+                })));
+            }
+        }
+        for (Future<Integer> future : futures) {
+            future.get();
+        }
+
+        assertEquals(0, overlaps.get());
+        assertEquals(0, locks.activeConversations());
+    }
+
+    @Test
+    void failedAndTimedOutTurnsReleaseTheirEntry() throws Exception {
+        ConversationLocks locks = new ConversationLocks(50);
+
+        assertThrows(IllegalArgumentException.class, () -> locks.withLock(1, () -> {
+            throw new IllegalArgumentException("boom");
+        }));
+        assertEquals(0, locks.activeConversations());
+
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> holder = executor.submit(() -> locks.withLock(2, () -> {
+                holding.countDown();
+                await(release);
+                return null;
+            }));
+            assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+            // The waiter gives up while the holder still has the lock; both share one entry until then
+            IllegalStateException timedOut = assertThrows(IllegalStateException.class, () -> locks.withLock(2, () -> null));
+            assertTrue(timedOut.getMessage().contains("still being processed"));
+            assertEquals(1, locks.activeConversations());
+
+            release.countDown();
+            holder.get();
+        }
+        assertEquals(0, locks.activeConversations());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package chatbot.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void aLeaderFinishingBetweenTheLookupAndTheClaimIsNotRunAgain() {
+        AtomicInteger runs = new AtomicInteger();
+        SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofMinutes(1), 100, value -> true) {
+            private boolean raced;
+
+            @Override
+            void afterCompletedMiss(String key) {
+                if (raced) return;
+                raced = true;
+                // Another request for the same key runs to completion, and leaves inFlight, right here
+                execute(key, true, () -> "first:" + runs.incrementAndGet());
+            }
+        };
+
+        SingleFlight.Outcome<String> outcome = flight.execute("turn", true, () -> "second:" + runs.incrementAndGet());
+
+        assertEquals("first:1", outcome.value());
+        assertFalse(outcome.executed());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void resultsThatAreNotRememberedAreRunAgain() {
+        AtomicInteger runs = new AtomicInteger();
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofMinutes(1), 100, value -> value > 1);
+
+        assertTrue(flight.execute("turn", true, runs::incrementAndGet).executed());
+        assertTrue(flight.execute("turn", true, runs::incrementAndGet).executed());
+        assertFalse(flight.execute("turn", true, runs::incrementAndGet).executed());
+        assertEquals(2, runs.get());
+    }
+}
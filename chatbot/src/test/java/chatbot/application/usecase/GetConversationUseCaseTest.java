@@ -0,0 +1,49 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.repository.ConversationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GetConversationUseCaseTest {
+
+    private final ConversationRepository conversationRepository = mock(ConversationRepository.class);
+    private final JwtEncodedService jwtEncodedService = mock(JwtEncodedService.class);
+    private final GetConversationUseCase useCase = new GetConversationUseCase(conversationRepository, jwtEncodedService);
+
+    @BeforeEach
+    void setUp() {
+        when(jwtEncodedService.decode(anyString())).thenReturn(1);
+        when(conversationRepository.existsForUser(7, 1)).thenReturn(true);
+        when(conversationRepository.getMessages(eq(7), any(), any(), anyInt())).thenReturn(List.of());
+    }
+
+    @Test
+    void withoutPagingParametersTheWholeConversationIsReturned() {
+        assertTrue(useCase.execute("token", 7, null, null, null).isSuccess());
+
+        verify(conversationRepository).getMessages(7, null, null, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void pagesAreBoundedOnceAnyPagingParameterIsSent() {
+        useCase.execute("token", 7, 100, null, null);
+        useCase.execute("token", 7, null, 20, 0);
+        useCase.execute("token", 7, null, null, 1000);
+
+        verify(conversationRepository).getMessages(7, 100, null, 50);
+        verify(conversationRepository).getMessages(7, null, 20, 50);
+        verify(conversationRepository).getMessages(7, null, null, 200);
+    }
+}
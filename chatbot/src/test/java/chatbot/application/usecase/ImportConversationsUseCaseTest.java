@@ -0,0 +1,157 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import chatbot.infrastructure.persistence.CachingConversationRepository;
+import chatbot.infrastructure.persistence.JdbcConversationRepository;
+import chatbot.infrastructure.persistence.JdbcMessageImportRepository;
+import chatbot.infrastructure.persistence.MessageArchive;
+import chatbot.infrastructure.persistence.MessageBatchWriter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImportConversationsUseCaseTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2025, 3, 1, 9, 30);
+
+    private final JwtEncodedService jwtEncodedService = mock(JwtEncodedService.class);
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcConversationRepository conversations;
+    private JdbcMessageImportRepository messages;
+    private ImportConversationsUseCase importUseCase;
+    private ExportConversationsUseCase exportUseCase;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/test-schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password) VALUES (1, 'Alice', 'alice@example.com', 'secret')");
+        when(jwtEncodedService.decode("token")).thenReturn(1);
+
+        MessageBatchWriter writer = new MessageBatchWriter(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource())), new SimpleMeterRegistry(), false, 1, 1, 1, 1, 1);
+        conversations = new JdbcConversationRepository(jdbcTemplate, writer,
+                new MessageArchive(jdbcTemplate), 500, 60, 1000);
+        messages = new JdbcMessageImportRepository(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        importUseCase = new ImportConversationsUseCase(conversations, messages, jwtEncodedService, new SimpleMeterRegistry(), 2);
+        exportUseCase = new ExportConversationsUseCase(conversations, jwtEncodedService, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void importedConversationsExportInTheSameShape() {
+        List<ImportConversationsUseCase.Line> lines = List.of(
+                new ImportConversationsUseCase.ConversationLine(70, "trip", T),
+                new ImportConversationsUseCase.MessageLine(70, "where to?", T, true),
+                new ImportConversationsUseCase.ConversationLine(71, "recipes", T),
+                new ImportConversationsUseCase.MessageLine(70, "Lisbon", T.plusMinutes(1), false),
+                new ImportConversationsUseCase.MessageLine(71, "pancakes", T, true),
+                new ImportConversationsUseCase.MessageLine(70, "thanks", T.plusMinutes(2), true));
+
+        ImportConversationsUseCase.ImportResult imported = importUseCase.execute("token", lines.iterator());
+
+        assertTrue(imported.isSuccess(), imported.getMessage());
+        assertEquals(2, imported.getSummary().conversations());
+        assertEquals(4, imported.getSummary().messages());
+
+        ExportConversationsUseCase.ExportResult exported = exportUseCase.execute("token", null);
+        assertTrue(exported.isSuccess(), exported.getMessage());
+        List<String> rows = new ArrayList<>();
+        long count = exportUseCase.export(exported.getConversations(), new ExportConversationsUseCase.ExportSink() {
+            @Override
+            public void conversation(Conversation conversation) {
+                rows.add(conversation.getName());
+            }
+
+            @Override
+            public void message(Integer conversationId, Message message) {
+                rows.add("  " + message.getContent() + (message.getIsUser() ? " (user)" : ""));
+            }
+        });
+
+        assertEquals(6, count);
+        assertEquals(List.of("trip", "  where to? (user)", "  Lisbon", "  thanks (user)", "recipes", "  pancakes (user)"), rows);
+    }
+
+    @Test
+    void aBadLineStopsTheImportAndIsReported() {
+        List<ImportConversationsUseCase.Line> lines = List.of(
+                new ImportConversationsUseCase.ConversationLine(1, "kept", T),
+                new ImportConversationsUseCase.MessageLine(1, "hello", T, true),
+                new ImportConversationsUseCase.MessageLine(2, "orphan", T, true));
+
+        ImportConversationsUseCase.ImportResult result = importUseCase.execute("token", lines.iterator());
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getMessage().startsWith("Invalid line 3"), result.getMessage());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM conversations WHERE user_id = 1", Integer.class));
+    }
+
+    @Test
+    void aTailCachedDuringTheImportIsDropped() {
+        CachingConversationRepository cached = new CachingConversationRepository(conversations,
+                mock(StringRedisTemplate.class), new SimpleMeterRegistry(), "chat:cache", 50, 1 << 20, 1 << 20, Duration.ofMinutes(10));
+        ImportConversationsUseCase useCase = new ImportConversationsUseCase(cached, messages, jwtEncodedService,
+                new SimpleMeterRegistry(), 2);
+        Iterator<ImportConversationsUseCase.Line> source = List.<ImportConversationsUseCase.Line>of(
+                new ImportConversationsUseCase.ConversationLine(1, "long", T),
+                new ImportConversationsUseCase.MessageLine(1, "one", T, true),
+                new ImportConversationsUseCase.MessageLine(1, "two", T, false),
+                new ImportConversationsUseCase.MessageLine(1, "three", T, true)).iterator();
+        // A reader opens the conversation after its first batch is stored
+        Iterator<ImportConversationsUseCase.Line> lines = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public ImportConversationsUseCase.Line next() {
+                ImportConversationsUseCase.Line line = source.next();
+                if (line instanceof ImportConversationsUseCase.MessageLine message && message.content().equals("three")) {
+                    cached.getMessages(lastConversationId(), null, null, 50);
+                }
+                return line;
+            }
+        };
+
+        assertTrue(useCase.execute("token", lines).isSuccess());
+
+        assertEquals(3, cached.getMessages(lastConversationId(), null, null, 50).size());
+    }
+
+    private Integer lastConversationId() {
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM conversations", Integer.class);
+    }
+}
@@ -0,0 +1,69 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.entity.User;
+import chatbot.domain.repository.UserRepository;
+import chatbot.infrastructure.security.BcryptPasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginUseCaseTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtEncodedService jwtEncodedService = mock(JwtEncodedService.class);
+    private final BcryptPasswordHasher passwordHasher = new BcryptPasswordHasher(new SimpleMeterRegistry(), 4, 1, 16, 5_000);
+    private final LoginUseCase loginUseCase = new LoginUseCase(userRepository, jwtEncodedService, passwordHasher);
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void legacyPlaintextPasswordIsUpgradedOnLogin() {
+        when(userRepository.findByEmail("alice@example.com"))
+                .thenReturn(Optional.of(new User(1, "Alice", "alice@example.com", "password123")));
+        when(jwtEncodedService.encode(1)).thenReturn("token");
+
+        LoginUseCase.LoginResult result = loginUseCase.execute("alice@example.com", "password123");
+
+        assertTrue(result.isSuccess());
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq(1), hash.capture());
+        assertTrue(hash.getValue().startsWith("$2a$04$"));
+
+        // The upgraded hash logs in without another rehash
+        when(userRepository.findByEmail("alice@example.com"))
+                .thenReturn(Optional.of(new User(1, "Alice", "alice@example.com", hash.getValue())));
+        assertTrue(loginUseCase.execute("alice@example.com", "password123").isSuccess());
+        verify(userRepository, times(1)).updatePassword(anyInt(), anyString());
+    }
+
+    @Test
+    void wrongPasswordIsRejectedWithoutRehashing() {
+        when(userRepository.findByEmail("alice@example.com"))
+                .thenReturn(Optional.of(new User(1, "Alice", "alice@example.com", "password123")));
+
+        LoginUseCase.LoginResult result = loginUseCase.execute("alice@example.com", "guess");
+
+        assertFalse(result.isSuccess());
+        assertEquals("Invalid password", result.getMessage());
+        verify(userRepository, never()).updatePassword(anyInt(), anyString());
+    }
+}
@@ -0,0 +1,71 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.entity.MessageSearchHit;
+import chatbot.domain.repository.MessageSearchRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class SearchMessagesUseCaseTest {
+
+    private final MessageSearchRepository repository = mock(MessageSearchRepository.class);
+    private final JwtEncodedService jwtEncodedService = mock(JwtEncodedService.class);
+    private final SearchMessagesUseCase useCase = new SearchMessagesUseCase(repository, jwtEncodedService);
+
+    @Test
+    void queriesAreReducedToIndexableWords() {
+        assertEquals(List.of("how", "deploy", "kubernetes"), SearchMessagesUseCase.terms("How do I deploy to Kubernetes? +deploy -on"));
+
+        when(jwtEncodedService.decode("token")).thenReturn(7);
+        SearchMessagesUseCase.SearchMessagesResult result = useCase.execute("token", "a to", null, null);
+
+        assertFalse(result.isSuccess());
+        assertTrue(result.getMessage().startsWith("Invalid query"));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void hitsAreHighlightedWithinASnippet() {
+        String content = "x".repeat(300) + " we talked about Deployments and deploying them " + "y".repeat(300);
+        SearchMessagesUseCase.Hit hit = SearchMessagesUseCase.highlight(hit(content), List.of("deploy"));
+
+        assertTrue(hit.snippet().startsWith("…") && hit.snippet().endsWith("…"));
+        assertEquals(2, hit.highlights().size());
+        SearchMessagesUseCase.Highlight first = hit.highlights().get(0);
+        assertEquals("Deployments", hit.snippet().substring(first.start(), first.end()));
+        SearchMessagesUseCase.Highlight second = hit.highlights().get(1);
+        assertEquals("deploying", hit.snippet().substring(second.start(), second.end()));
+    }
+
+    @Test
+    void pagesAskForOneExtraRowToKnowWhetherMoreExist() {
+        when(jwtEncodedService.decode("token")).thenReturn(7);
+        List<MessageSearchHit> rows = IntStream.range(0, 11).mapToObj(i -> hit("deploy " + i)).toList();
+        when(repository.search(eq(7), anyList(), eq(20), eq(11))).thenReturn(rows);
+
+        SearchMessagesUseCase.SearchMessagesResult result = useCase.execute("token", "deploy", 2, 10);
+
+        assertTrue(result.isSuccess());
+        assertEquals(10, result.getPage().hits().size());
+        assertTrue(result.getPage().hasMore());
+        verify(repository).search(eq(7), eq(List.of("deploy")), anyInt(), anyInt());
+    }
+
+    private static MessageSearchHit hit(String content) {
+        return new MessageSearchHit(1, 2, "Ops", content, LocalDateTime.of(2025, 6, 1, 10, 0), true, 1.5);
+    }
+}
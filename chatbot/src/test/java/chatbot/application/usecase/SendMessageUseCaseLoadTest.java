@@ -0,0 +1,78 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.AdmissionControl;
+import chatbot.application.service.ConversationLocks;
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.repository.ConversationRepository;
+import chatbot.infrastructure.external.MockAiChatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Compares in-flight conversation throughput on a Tomcat-sized platform pool vs one virtual thread per request
+class SendMessageUseCaseLoadTest {
+
+    private static final int CONVERSATIONS = 2000;
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final long AI_LATENCY_MS = 100;
+
+    private SendMessageUseCase sendMessageUseCase;
+
+    @BeforeEach
+    void setUp() {
+        ConversationRepository conversationRepository = mock(ConversationRepository.class);
+        when(conversationRepository.existsForUser(any(), any())).thenReturn(true);
+
+        JwtEncodedService jwtEncodedService = mock(JwtEncodedService.class);
+        when(jwtEncodedService.decode(anyString())).thenReturn(1);
+
+        sendMessageUseCase = new SendMessageUseCase(conversationRepository, jwtEncodedService,
+                new MockAiChatService(AI_LATENCY_MS, 0), new ConversationLocks(60_000), AdmissionControl.UNLIMITED);
+    }
+
+    @Test
+    @Tag("perf")
+    void virtualThreadsSustainMoreInFlightConversations() throws Exception {
+        try (ExecutorService warmup = Executors.newVirtualThreadPerTaskExecutor()) {
+            run(warmup);
+        }
+
+        long platformMs;
+        try (ExecutorService platform = Executors.newFixedThreadPool(PLATFORM_POOL_SIZE)) {
+            platformMs = run(platform);
+        }
+        long virtualMs;
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtualMs = run(virtual);
+        }
+
+        // The platform pool needs CONVERSATIONS / PLATFORM_POOL_SIZE waves of AI latency; virtual threads need one
+        assertTrue(virtualMs * 2 < platformMs,
+                "expected virtual threads to be at least 2x faster, platform=" + platformMs + "ms virtual=" + virtualMs + "ms");
+    }
+
+    private long run(ExecutorService executor) throws Exception {
+        long start = System.nanoTime();
+        List<Future<SendMessageUseCase.SendMessageResult>> futures = new ArrayList<>(CONVERSATIONS);
+        for (int i = 0; i < CONVERSATIONS; i++) {
+            int conversationId = i;
+            futures.add(executor.submit(() -> sendMessageUseCase.execute(conversationId, "token", "hello")));
+        }
+        for (Future<SendMessageUseCase.SendMessageResult> future : futures) {
+            assertTrue(future.get().isSuccess());
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
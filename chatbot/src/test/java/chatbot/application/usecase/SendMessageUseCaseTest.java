@@ -0,0 +1,103 @@
+package chatbot.application.usecase;
+
+import chatbot.application.service.AIChatService;
+import chatbot.application.service.AdmissionControl;
+import chatbot.application.service.ConversationLocks;
+import chatbot.application.service.JwtEncodedService;
+import chatbot.domain.repository.ConversationRepository;
+import chatbot.infrastructure.external.AiUnavailableException;
+import chatbot.infrastructure.external.FallbackAiChatService;
+import chatbot.infrastructure.external.MockAiChatService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SendMessageUseCaseTest {
+
+    private static final long AI_LATENCY_MS = 100;
+
+    private ConversationRepository conversationRepository;
+    private JwtEncodedService jwtEncodedService;
+
+    @BeforeEach
+    void setUp() {
+        conversationRepository = mock(ConversationRepository.class);
+        when(conversationRepository.existsForUser(any(), any())).thenReturn(true);
+
+        jwtEncodedService = mock(JwtEncodedService.class);
+        when(jwtEncodedService.decode(anyString())).thenReturn(1);
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneAiCallAndOneSave() throws Exception {
+        AtomicInteger aiCalls = new AtomicInteger();
+        SendMessageUseCase useCase = new SendMessageUseCase(conversationRepository, jwtEncodedService,
+                new MockAiChatService(AI_LATENCY_MS, 0) {
+                    @Override
+                    public String generateResponse(String prompt, Integer conversationId) {
+                        aiCalls.incrementAndGet();
+                        return super.generateResponse(prompt, conversationId);
+                    }
+                }, new ConversationLocks(60_000), AdmissionControl.UNLIMITED);
+
+        List<Future<SendMessageUseCase.SendMessageResult>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> useCase.execute(7, "token", "hello", "retry-1")));
+            }
+        }
+        for (Future<SendMessageUseCase.SendMessageResult> future : futures) {
+            assertTrue(future.get().isSuccess());
+        }
+        // A retry after completion replays the remembered result
+        assertTrue(useCase.execute(7, "token", "hello", "retry-1").isSuccess());
+
+        assertEquals(1, aiCalls.get());
+        verify(conversationRepository, times(1)).addMessages(eq(7), anyList());
+    }
+
+    @Test
+    void degradedModeRepliesAreNeitherSavedNorReplayed() {
+        AtomicInteger aiCalls = new AtomicInteger();
+        AIChatService unavailable = new MockAiChatService(0, 0) {
+            @Override
+            public String generateResponse(String prompt, Integer conversationId) {
+                aiCalls.incrementAndGet();
+                throw new AiUnavailableException("AI service unavailable: circuit open");
+            }
+        };
+        SendMessageUseCase useCase = new SendMessageUseCase(conversationRepository, jwtEncodedService,
+                new FallbackAiChatService(unavailable, new SimpleMeterRegistry(), "canned"),
+                new ConversationLocks(60_000), AdmissionControl.UNLIMITED);
+
+        for (int i = 0; i < 2; i++) {
+            SendMessageUseCase.SendMessageResult result = useCase.execute(7, "token", "hello", "retry-1");
+            assertTrue(result.isSuccess());
+            assertTrue(result.isFallback());
+            assertEquals("canned", result.getAiResponse());
+        }
+
+        // The retry reached the model again instead of replaying the canned reply
+        assertEquals(2, aiCalls.get());
+        verify(conversationRepository, never()).addMessages(any(), anyList());
+    }
+}
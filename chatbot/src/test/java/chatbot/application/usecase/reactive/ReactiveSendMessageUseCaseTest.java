@@ -0,0 +1,86 @@
+package chatbot.application.usecase.reactive;
+
+import chatbot.application.service.JwtEncodedService;
+import chatbot.application.usecase.SendMessageUseCase.SendMessageResult;
+import chatbot.domain.repository.ReactiveConversationRepository;
+import chatbot.infrastructure.external.ReactiveMockAiChatService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactiveSendMessageUseCaseTest {
+
+    private static final int CONVERSATIONS = 2000;
+    private static final long AI_LATENCY_MS = 200;
+
+    private ReactiveConversationRepository conversationRepository;
+    private ReactiveSendMessageUseCase sendMessageUseCase;
+
+    @BeforeEach
+    void setUp() {
+        conversationRepository = mock(ReactiveConversationRepository.class);
+        when(conversationRepository.existsForUser(any(), any())).thenReturn(Mono.just(true));
+        when(conversationRepository.addMessages(any(), anyList())).thenReturn(Mono.empty());
+
+        JwtEncodedService jwtEncodedService = mock(JwtEncodedService.class);
+        when(jwtEncodedService.decode(anyString())).thenReturn(1);
+
+        sendMessageUseCase = new ReactiveSendMessageUseCase(conversationRepository, jwtEncodedService,
+                new ReactiveMockAiChatService(AI_LATENCY_MS, 0));
+    }
+
+    @Test
+    void concurrentTurnsWaitOnTheModelWithoutHoldingThreads() {
+        long start = System.nanoTime();
+        List<SendMessageResult> results = Flux.range(1, CONVERSATIONS)
+                .flatMap(id -> sendMessageUseCase.execute(id, "token", "hello"), CONVERSATIONS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(CONVERSATIONS, results.size());
+        assertTrue(results.stream().allMatch(SendMessageResult::isSuccess));
+        verify(conversationRepository, times(CONVERSATIONS)).addMessages(any(), anyList());
+        // All calls overlap on a handful of event-loop threads instead of queueing behind a pool
+        assertTrue(elapsedMs < AI_LATENCY_MS * 10, "took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void streamSavesTheAssembledReplyBeforeCompleting() {
+        String reply = String.join("", sendMessageUseCase.executeStream(7, "token", "hi").collectList().block());
+
+        assertTrue(reply.contains("'hi'"));
+        verify(conversationRepository).addMessages(eq(7), anyList());
+    }
+
+    @Test
+    void streamFailsWhenTheConversationIsNotOwned() {
+        when(conversationRepository.existsForUser(eq(7), any())).thenReturn(Mono.just(false));
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> sendMessageUseCase.executeStream(7, "token", "hi").blockLast());
+        assertEquals("Conversation not found or access denied", error.getMessage());
+        verify(conversationRepository, never()).addMessages(any(), anyList());
+
+        SendMessageResult result = sendMessageUseCase.execute(7, "token", "hi").block();
+        assertFalse(result.isSuccess());
+    }
+}
@@ -0,0 +1,137 @@
+package chatbot.infrastructure.admission;
+
+import chatbot.application.service.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FairShareAdmissionControlTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void slotsAreSharedRoundRobinAcrossUsers() throws Exception {
+        FairShareAdmissionControl admission = new FairShareAdmissionControl(null, meterRegistry, 1, 10, 100, 10_000, Map.of(), false);
+        List<String> order = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // The heavy user holds the only slot and queues three more requests before the light user's one
+            Future<?> running = executor.submit(() -> admission.admit(1, () -> {
+                await(release);
+                return order.add("heavy-0");
+            }));
+            awaitActive(1);
+            for (int i = 1; i <= 3; i++) {
+                String name = "heavy-" + i;
+                executor.submit(() -> admission.admit(1, () -> order.add(name)));
+                awaitQueued(i);
+            }
+            executor.submit(() -> admission.admit(2, () -> order.add("light-1")));
+            awaitQueued(4);
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(List.of("heavy-0", "heavy-1", "light-1", "heavy-2", "heavy-3"), order);
+    }
+
+    @Test
+    void requestsWaitingLongerThanTheBudgetAreShed() throws Exception {
+        FairShareAdmissionControl admission = new FairShareAdmissionControl(null, meterRegistry, 1, 10, 100, 50, Map.of(), false);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> admission.admit(1, () -> await(release)));
+            awaitActive(1);
+
+            AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                    () -> admission.admit(2, () -> true));
+            assertTrue(e.getMessage().contains("Server busy"));
+            release.countDown();
+        }
+
+        assertEquals(1, meterRegistry.counter("chat.admission.rejected", "reason", "timeout").count());
+        assertEquals(0, meterRegistry.get("chat.admission.queued").gauge().value());
+        assertEquals(0, meterRegistry.get("chat.admission.active").gauge().value());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rateLimitedUsersAreRejectedAndLeasedPermitsSkipRedis() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(3L, 0L);
+        LeasedTokenBucket tokenBucket = new LeasedTokenBucket(redisTemplate, meterRegistry, 1, 10, 3, Duration.ofMinutes(1));
+        FairShareAdmissionControl admission = new FairShareAdmissionControl(tokenBucket, meterRegistry, 10, 10, 100, 1_000, Map.of(), false);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(admission.admit(1, () -> true));
+        }
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> admission.admit(1, () -> true));
+        assertTrue(e.getMessage().contains("Rate limit exceeded"));
+
+        // One lease of three permits, then one more round-trip that came back empty
+        verify(redisTemplate, times(2)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void requestsAreAdmittedWhenRedisIsUnavailable() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+        LeasedTokenBucket tokenBucket = new LeasedTokenBucket(redisTemplate, meterRegistry, 1, 10, 3, Duration.ofMinutes(1));
+
+        assertTrue(tokenBucket.tryAcquire(1));
+        assertEquals(1, meterRegistry.counter("chat.admission.rate_limit.checks", "result", "unavailable").count());
+    }
+
+    private void awaitActive(int count) throws InterruptedException {
+        awaitGauge("chat.admission.active", count);
+    }
+
+    private void awaitQueued(int count) throws InterruptedException {
+        awaitGauge("chat.admission.queued", count);
+    }
+
+    private void awaitGauge(String name, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get(name).gauge().value() != expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(name + " never reached " + expected);
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package chatbot.infrastructure.config;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtEncodedServiceImplTest {
+
+    private final JwtEncodedServiceImpl jwtService = new JwtEncodedServiceImpl(null, 1000, null);
+
+    @Test
+    void decodesFromCacheUntilRevoked() {
+        String token = jwtService.encode(42);
+        assertEquals(42, jwtService.decode(token));
+        assertEquals(42, jwtService.decode(token));
+
+        jwtService.revoke(token);
+
+        assertThrows(IllegalArgumentException.class, () -> jwtService.decode(token));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        String token = jwtService.encode(42);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(RuntimeException.class, () -> jwtService.decode(tampered));
+    }
+
+    @Test
+    void revocationsAreNotEvictedBySize() {
+        JwtEncodedServiceImpl small = new JwtEncodedServiceImpl(null, 2, null);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String token = small.encode(42);
+            small.decode(token);
+            small.revoke(token);
+            tokens.add(token);
+        }
+
+        for (String token : tokens) {
+            assertThrows(IllegalArgumentException.class, () -> small.decode(token));
+        }
+    }
+
+    @Test
+    void sameSecondLoginsGetDistinctTokens() {
+        String first = jwtService.encode(42);
+        String second = jwtService.encode(42);
+        assertNotEquals(first, second);
+
+        jwtService.revoke(first);
+
+        assertEquals(42, jwtService.decode(second));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void revocationsAreSharedThroughRedis() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        JwtEncodedServiceImpl instanceA = new JwtEncodedServiceImpl(redisTemplate, 1000, "revoked");
+        JwtEncodedServiceImpl instanceB = new JwtEncodedServiceImpl(null, 1000, null);
+        String token = instanceA.encode(42);
+        assertEquals(42, instanceB.decode(token));
+
+        instanceA.revoke(token);
+
+        verify(values).set(startsWith("chat:jwt:revoked:"), anyString(), any(Duration.class));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("revoked"), published.capture());
+        instanceB.onMessage(new DefaultMessage("revoked".getBytes(StandardCharsets.UTF_8),
+                published.getValue().getBytes(StandardCharsets.UTF_8)), null);
+        assertThrows(IllegalArgumentException.class, () -> instanceB.decode(token));
+    }
+}
@@ -0,0 +1,114 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.AIChatService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CachingAiChatServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountingAiChatService upstream = new CountingAiChatService();
+    private ValueOperations<String, String> redis;
+    private CachingAiChatService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        redis = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(redis);
+        service = new CachingAiChatService(upstream, redisTemplate, meterRegistry, 100, Duration.ofMinutes(10),
+                false, 0.9f, 500, Set.of(99));
+    }
+
+    @Test
+    void aRepeatedPromptInTheSameContextIsAnsweredFromTheCacheAndStillRecorded() {
+        assertEquals("reply 1", service.generateResponse("What is Java?", 1));
+
+        assertEquals("reply 1", service.generateResponse("  what is java ", 1));
+        List<String> tokens = new ArrayList<>();
+        assertEquals("reply 1", service.streamResponse("What is Java?", 1, tokens::add));
+
+        assertEquals(1, upstream.calls);
+        assertEquals(List.of("reply 1"), tokens);
+        // Both hits went through the client's per-turn bookkeeping, like the generated reply did
+        assertEquals(List.of("1:context-a:reply 1", "1:context-a:reply 1"), upstream.recorded);
+        assertEquals(2, meterRegistry.counter("ai.cache.requests", "result", "hit_local").count());
+    }
+
+    @Test
+    void aChangedContextInvalidatesCachedReplies() {
+        service.generateResponse("What is Java?", 1);
+        // The conversation moved on, so its fingerprint no longer matches the cached entry
+        upstream.fingerprint = "context-b";
+
+        assertEquals("reply 2", service.generateResponse("What is Java?", 1));
+        assertEquals(2, upstream.calls);
+        assertEquals(List.of(), upstream.recorded);
+    }
+
+    @Test
+    void replicasShareRepliesThroughRedis() {
+        when(redis.get(anyString())).thenReturn("from another instance");
+
+        assertEquals("from another instance", service.generateResponse("What is Java?", 1));
+        assertEquals(0, upstream.calls);
+        assertEquals(1, meterRegistry.counter("ai.cache.requests", "result", "hit_redis").count());
+    }
+
+    @Test
+    void bypassedConversationsAndContextsWithoutFingerprintAreNeverCached() {
+        service.generateResponse("What is Java?", 99);
+        service.generateResponse("What is Java?", 99);
+        upstream.fingerprint = null;
+        service.generateResponse("What is Java?", 1);
+        service.generateResponse("What is Java?", 1);
+
+        assertEquals(4, upstream.calls);
+        assertEquals(4, meterRegistry.counter("ai.cache.requests", "result", "bypass").count());
+    }
+
+    // Numbered replies make every model call visible
+    private static class CountingAiChatService implements AIChatService {
+        volatile String fingerprint = "context-a";
+        int calls;
+        final List<String> recorded = new ArrayList<>();
+
+        @Override
+        public String generateResponse(String prompt, Integer conversationId) {
+            return "reply " + ++calls;
+        }
+
+        @Override
+        public String streamResponse(String prompt, Integer conversationId, Consumer<String> onToken) {
+            String reply = generateResponse(prompt, conversationId);
+            onToken.accept(reply);
+            return reply;
+        }
+
+        @Override
+        public PreparedContext prepareContext(Integer conversationId) {
+            String current = fingerprint;
+            return () -> current;
+        }
+
+        @Override
+        public void recordReply(String prompt, Integer conversationId, PreparedContext context, String reply) {
+            recorded.add(conversationId + ":" + context.fingerprint() + ":" + reply);
+        }
+    }
+}
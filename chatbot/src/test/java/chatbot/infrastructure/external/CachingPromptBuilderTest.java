@@ -0,0 +1,80 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.BudgetedPromptBuilder;
+import chatbot.application.service.TokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CachingPromptBuilderTest {
+
+    private final List<String> estimated = new ArrayList<>();
+    private final TokenEstimator countingEstimator = text -> {
+        estimated.add(text);
+        return text == null ? 0 : text.length();
+    };
+    private final BudgetedPromptBuilder budgeted = new BudgetedPromptBuilder(countingEstimator, "P", 100, 5, 2);
+    private final BudgetedPromptBuilder uncached = new BudgetedPromptBuilder(text -> text == null ? 0 : text.length(), "P", 100, 5, 2);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CachingPromptBuilder builder = new CachingPromptBuilder(budgeted, meterRegistry, 100);
+
+    @Test
+    void theNextTurnOnlyEstimatesTheNewEntries() {
+        builder.build(1, 2, null, List.of("a", "b"), "q1");
+        estimated.clear();
+
+        String prompt = builder.build(1, 4, null, List.of("a", "b", "c", "d"), "q2");
+
+        assertEquals(List.of("c", "d", "User: q2\nAI:"), estimated);
+        assertEquals(uncached.build(1, 4, null, List.of("a", "b", "c", "d"), "q2"), prompt);
+        assertEquals(1, hits());
+        assertEquals(1, misses());
+    }
+
+    @Test
+    void aRecordedTurnIsNotEstimatedAgain() {
+        builder.build(1, 2, null, List.of("a", "b"), "q1");
+        builder.recordTurn(1, 4, List.of("c", "d"));
+        estimated.clear();
+
+        String prompt = builder.build(1, 4, null, List.of("a", "b", "c", "d"), "q2");
+
+        assertEquals(List.of("User: q2\nAI:"), estimated);
+        assertEquals(uncached.build(1, 4, null, List.of("a", "b", "c", "d"), "q2"), prompt);
+    }
+
+    @Test
+    void aVersionGapOrNewSummaryRebuildsTheContext() {
+        builder.build(1, 2, null, List.of("a", "b"), "q1");
+        // Another instance answered a turn in between, so this one no longer lines up
+        builder.recordTurn(1, 6, List.of("e", "f"));
+        String afterGap = builder.build(1, 6, null, List.of("a", "b", "c", "d", "e", "f"), "q2");
+        String afterSummary = builder.build(1, 6, "S", List.of("c", "d", "e", "f"), "q3");
+
+        assertEquals(uncached.build(1, 6, null, List.of("a", "b", "c", "d", "e", "f"), "q2"), afterGap);
+        assertEquals(uncached.build(1, 6, "S", List.of("c", "d", "e", "f"), "q3"), afterSummary);
+        assertEquals(0, hits());
+        assertEquals(3, misses());
+    }
+
+    @Test
+    void conversationsAreCachedSeparately() {
+        builder.build(1, 2, null, List.of("a", "b"), "q");
+        String prompt = builder.build(2, 2, null, List.of("x", "y"), "q");
+
+        assertEquals(uncached.build(2, 2, null, List.of("x", "y"), "q"), prompt);
+        assertEquals(2, misses());
+    }
+
+    private double hits() {
+        return meterRegistry.counter("chat.prompt.cache", "result", "hit").count();
+    }
+
+    private double misses() {
+        return meterRegistry.counter("chat.prompt.cache", "result", "miss").count();
+    }
+}
@@ -0,0 +1,110 @@
+package chatbot.infrastructure.external;
+
+import com.google.genai.Client;
+import com.google.genai.Models;
+import com.google.genai.types.GenerateContentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ConversationSummarizerTest {
+
+    private static final long DELAY_MS = 200;
+    private static final int MAX_RETRIES = 3;
+
+    private final Models models = mock(Models.class);
+    private ValueOperations<String, String> values;
+    private ConversationSummarizer summarizer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        Client client = GeminiStubs.client(models);
+
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+
+        summarizer = new ConversationSummarizer(client, new GeminiMetrics(new SimpleMeterRegistry()), redisTemplate,
+                4, 2, DELAY_MS, MAX_RETRIES, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        summarizer.shutdown();
+    }
+
+    @Test
+    void concurrentRequestsForOneConversationShareOneSummaryOfTheLatestWindow() {
+        GenerateContentResponse response = response("summary");
+        when(models.generateContent(anyString(), anyString(), any())).thenReturn(response);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                executor.submit(() -> summarizer.request(1, List.of("User: a", "AI: b")));
+            }
+        }
+        summarizer.request(1, List.of("User: old", "User: 1", "AI: 2", "User: 3", "AI: 4"));
+        // Requests only queue the work; the model is called later, off the request path
+        verifyNoInteractions(models);
+
+        ArgumentCaptor<String> prompt = ArgumentCaptor.forClass(String.class);
+        verify(models, timeout(2_000)).generateContent(anyString(), prompt.capture(), any());
+        verify(models, after(DELAY_MS * 2).times(1)).generateContent(anyString(), anyString(), any());
+        // The newest window, cut to the configured size
+        assertTrue(prompt.getValue().endsWith("User: 1\nAI: 2\nUser: 3\nAI: 4"));
+        verify(values).set(eq("chat:1:summary"), eq("summary"), any(Duration.class));
+    }
+
+    @Test
+    void failedSummariesAreRetriedUntilMaxRetriesThenDropped() {
+        when(models.generateContent(anyString(), anyString(), any())).thenThrow(new RuntimeException("model down"));
+
+        summarizer.request(1, List.of("User: a", "AI: b"));
+
+        verify(models, timeout(2_000).times(MAX_RETRIES)).generateContent(anyString(), anyString(), any());
+        verify(models, after(DELAY_MS).times(MAX_RETRIES)).generateContent(anyString(), anyString(), any());
+        verify(values, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void aRetryThatSucceedsStoresTheSummary() {
+        GenerateContentResponse response = response("summary");
+        when(models.generateContent(anyString(), anyString(), any()))
+                .thenThrow(new RuntimeException("model down"))
+                .thenReturn(response);
+
+        summarizer.request(1, List.of("User: a", "AI: b"));
+
+        verify(values, timeout(2_000)).set(eq("chat:1:summary"), eq("summary"), any(Duration.class));
+        verify(models, times(2)).generateContent(anyString(), anyString(), any());
+    }
+
+    private static GenerateContentResponse response(String text) {
+        GenerateContentResponse response = mock(GenerateContentResponse.class);
+        when(response.text()).thenReturn(text);
+        return response;
+    }
+}
@@ -0,0 +1,114 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.AIChatService;
+import chatbot.application.service.PromptBuilder;
+import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
+import chatbot.domain.repository.ConversationRepository;
+import com.google.genai.Client;
+import com.google.genai.Models;
+import com.google.genai.ResponseStream;
+import com.google.genai.types.GenerateContentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GeminiAiChatServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Models models = mock(Models.class);
+    private final ConversationSummarizer summarizer = mock(ConversationSummarizer.class);
+    private ConversationRepository conversationRepository;
+    private GeminiAiChatService gemini;
+
+    @BeforeEach
+    void setUp() {
+        Client client = GeminiStubs.client(models);
+
+        conversationRepository = mock(ConversationRepository.class);
+        when(conversationRepository.getRecentMessages(any(), anyInt())).thenReturn(new MessageWindow(List.of(), 0));
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        PromptBuilder promptBuilder = mock(PromptBuilder.class);
+        when(promptBuilder.build(any(), anyLong(), any(), any(), any())).thenReturn("prompt");
+
+        gemini = new GeminiAiChatService(client, conversationRepository, redisTemplate,
+                summarizer, promptBuilder, new GeminiMetrics(meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void aClientThatHangsUpMidStreamIsNeitherAFailureNorASlowCall() {
+        ResilientAiChatService service = new ResilientAiChatService(gemini, meterRegistry,
+                Duration.ofSeconds(5), Duration.ofSeconds(5), 0,
+                10, 1, 10, 1000,
+                10, 4, 50, 60_000, 1);
+        when(models.generateContentStream(anyString(), anyString(), any())).thenAnswer(invocation -> stream("Hel", "lo"));
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(CancellationException.class, () -> service.streamResponse("hi", 1, token -> {
+                throw new CancellationException("client went away");
+            }));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, service.circuitState());
+        assertEquals(10, meterRegistry.get("ai.resilience.limit").gauge().value());
+        assertEquals(0, meterRegistry.get("ai.resilience.inflight").gauge().value());
+        assertEquals(6, meterRegistry.counter("ai.resilience.calls", "outcome", "cancelled").count());
+
+        List<String> tokens = new ArrayList<>();
+        assertEquals("Hello", service.streamResponse("hi", 1, tokens::add));
+        assertEquals(List.of("Hel", "lo"), tokens);
+    }
+
+    @Test
+    void aReplyServedFromTheResponseCacheKeepsTheSummaryCadence() {
+        // Eight messages so far: the cached turn is the one that reaches the summary interval
+        List<Message> history = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            history.add(new Message(i + 1, "m" + i, LocalDateTime.now(), i % 2 == 0));
+        }
+        when(conversationRepository.getRecentMessages(any(), anyInt())).thenReturn(new MessageWindow(history, 8));
+
+        AIChatService.PreparedContext context = gemini.prepareContext(1);
+        gemini.recordReply("hi", 1, context, "cached reply");
+
+        verify(summarizer).request(eq(1), argThat(entries -> entries.size() == 10 && entries.get(9).equals("AI: cached reply")));
+        verifyNoInteractions(models);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ResponseStream<GenerateContentResponse> stream(String... chunks) {
+        List<GenerateContentResponse> responses = new ArrayList<>();
+        for (String chunk : chunks) {
+            GenerateContentResponse response = mock(GenerateContentResponse.class);
+            when(response.text()).thenReturn(chunk);
+            responses.add(response);
+        }
+        ResponseStream<GenerateContentResponse> stream = mock(ResponseStream.class);
+        when(stream.iterator()).thenAnswer(invocation -> responses.iterator());
+        return stream;
+    }
+}
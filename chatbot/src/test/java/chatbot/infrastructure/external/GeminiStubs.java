@@ -0,0 +1,27 @@
+package chatbot.infrastructure.external;
+
+import com.google.genai.Client;
+import com.google.genai.Models;
+
+import java.lang.reflect.Field;
+
+import static org.mockito.Mockito.mock;
+
+final class GeminiStubs {
+
+    private GeminiStubs() {
+    }
+
+    // Client exposes its API surfaces as final fields; there is no other seam to hand it a stub
+    static Client client(Models models) {
+        Client client = mock(Client.class);
+        try {
+            Field field = Client.class.getField("models");
+            field.setAccessible(true);
+            field.set(client, models);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        return client;
+    }
+}
@@ -0,0 +1,175 @@
+package chatbot.infrastructure.external;
+
+import chatbot.application.service.AIChatService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientAiChatServiceTest {
+
+    private static final long OPEN_MS = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowAiChatService upstream = new SlowAiChatService();
+
+    @Test
+    void slowUpstreamTripsTheBreakerAndAProbeClosesIt() throws Exception {
+        ResilientAiChatService service = resilient(10, 100);
+
+        upstream.latencyMs = 500;
+        for (int i = 0; i < 4; i++) {
+            assertThrows(AiUnavailableException.class, () -> service.generateResponse("hi", 1));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, service.circuitState());
+
+        // While open, calls fail immediately without reaching the upstream
+        int callsBefore = upstream.calls;
+        long start = System.nanoTime();
+        assertThrows(AiUnavailableException.class, () -> service.generateResponse("hi", 1));
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 50);
+        assertEquals(callsBefore, upstream.calls);
+
+        upstream.latencyMs = 0;
+        Thread.sleep(OPEN_MS + 50);
+        assertEquals("reply", service.generateResponse("hi", 1));
+        assertEquals(CircuitBreaker.State.CLOSED, service.circuitState());
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheLimit() throws Exception {
+        ResilientAiChatService service = resilient(2, 1000);
+        upstream.latencyMs = 300;
+
+        List<Future<String>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 6; i++) {
+                futures.add(executor.submit(() -> service.generateResponse("hi", 1)));
+            }
+        }
+
+        int rejected = 0;
+        for (Future<String> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                assertTrue(e.getCause() instanceof AiUnavailableException);
+                rejected++;
+            }
+        }
+        assertEquals(4, rejected);
+        assertEquals(4, meterRegistry.counter("ai.resilience.calls", "outcome", "rejected").count());
+    }
+
+    @Test
+    void aTimedOutCallKeepsItsSlotUntilTheUpstreamReturns() throws Exception {
+        ResilientAiChatService service = resilient(1, 100);
+        upstream.latencyMs = 400;
+        upstream.ignoresInterrupts = true;
+
+        assertThrows(AiUnavailableException.class, () -> service.generateResponse("hi", 1));
+        // The first call is still running upstream, so the single slot is taken
+        AiUnavailableException rejected = assertThrows(AiUnavailableException.class, () -> service.generateResponse("hi", 1));
+        assertTrue(rejected.getMessage().contains("too many concurrent requests"));
+
+        upstream.latencyMs = 0;
+        Thread.sleep(400);
+        assertEquals("reply", service.generateResponse("hi", 1));
+    }
+
+    @Test
+    void streamsCancelledByTheCallerDoNotTripTheBreaker() {
+        ResilientAiChatService service = resilient(10, 100);
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(CancellationException.class, () -> service.streamResponse("hi", 1, token -> {
+                throw new CancellationException("client went away");
+            }));
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, service.circuitState());
+        assertEquals(6, meterRegistry.counter("ai.resilience.calls", "outcome", "cancelled").count());
+    }
+
+    @Test
+    void aCallAdmittedWhileClosedIsNotCountedAsAProbe() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 1, 50, 0, 1);
+        CircuitBreaker.Permit admittedWhileClosed = breaker.tryAcquire();
+        breaker.onFailure(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+
+        CircuitBreaker.Permit probe = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onSuccess(admittedWhileClosed);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onSuccess(probe);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void fallbackAnswersWhileTheUpstreamIsUnavailable() {
+        FallbackAiChatService service = new FallbackAiChatService(resilient(10, 100), meterRegistry, "canned");
+        upstream.latencyMs = 500;
+
+        List<String> tokens = new ArrayList<>();
+        assertEquals("canned", service.streamResponse("hi", 1, tokens::add));
+        assertEquals(List.of("canned"), tokens);
+    }
+
+    private ResilientAiChatService resilient(int limit, long timeoutMs) {
+        return new ResilientAiChatService(upstream, meterRegistry,
+                Duration.ofMillis(timeoutMs), Duration.ofMillis(timeoutMs), 0,
+                limit, limit, limit, 1000,
+                10, 4, 50, OPEN_MS, 1);
+    }
+
+    // Latency-injecting fake standing in for the Gemini client
+    private static class SlowAiChatService implements AIChatService {
+        volatile long latencyMs;
+        volatile int calls;
+        // Like the blocking HTTP client: an interrupt does not end the call early
+        volatile boolean ignoresInterrupts;
+
+        @Override
+        public String generateResponse(String prompt, Integer conversationId) {
+            calls++;
+            sleep();
+            return "reply";
+        }
+
+        @Override
+        public String streamResponse(String prompt, Integer conversationId, Consumer<String> onToken) {
+            calls++;
+            sleep();
+            onToken.accept("reply");
+            return "reply";
+        }
+
+        private void sleep() {
+            if (ignoresInterrupts) {
+                long until = System.nanoTime() + latencyMs * 1_000_000;
+                while (System.nanoTime() < until) {
+                    Thread.onSpinWait();
+                }
+                return;
+            }
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
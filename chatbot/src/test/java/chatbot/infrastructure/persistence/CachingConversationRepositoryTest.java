@@ -0,0 +1,119 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import chatbot.domain.repository.ConversationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingConversationRepositoryTest {
+
+    private static final String CHANNEL = "test:invalidate";
+    private static final int TAIL_MESSAGES = 10;
+
+    private ConversationRepository delegate;
+    private StringRedisTemplate redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private CachingConversationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ConversationRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        repository = new CachingConversationRepository(delegate, redisTemplate, meterRegistry, CHANNEL,
+                TAIL_MESSAGES, 1_000_000, 1_000_000, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void pagesWithinTheTailAreServedWithoutTheDatabase() {
+        when(delegate.getMessages(1, null, null, TAIL_MESSAGES)).thenReturn(messages(1, 10));
+
+        assertEquals(ids(6, 10), ids(repository.getMessages(1, null, null, 5)));
+        assertEquals(ids(3, 7), ids(repository.getMessages(1, 8, null, 5)));
+        assertEquals(ids(9, 10), ids(repository.getMessages(1, null, 8, 5)));
+
+        verify(delegate, times(1)).getMessages(1, null, null, TAIL_MESSAGES);
+        assertEquals(3, meterRegistry.counter("chat.conversation.cache.requests", "cache", "tails", "result", "hit").count());
+    }
+
+    @Test
+    void pagesReachingPastAnIncompleteTailGoToTheDatabase() {
+        when(delegate.getMessages(1, null, null, TAIL_MESSAGES)).thenReturn(messages(11, 20));
+        when(delegate.getMessages(1, 13, null, 5)).thenReturn(messages(8, 12));
+
+        repository.getMessages(1, null, null, 5);
+
+        assertEquals(ids(8, 12), ids(repository.getMessages(1, 13, null, 5)));
+        verify(delegate).getMessages(1, 13, null, 5);
+    }
+
+    @Test
+    void addingMessagesDropsTheTailAndNotifiesOtherInstances() {
+        when(delegate.getMessages(1, null, null, TAIL_MESSAGES)).thenReturn(messages(1, 4), messages(1, 6));
+
+        repository.getMessages(1, null, null, 5);
+        repository.addMessages(1, List.of(new Message(null, "hi", LocalDateTime.now(), true)));
+
+        assertEquals(ids(2, 6), ids(repository.getMessages(1, null, null, 5)));
+        verify(delegate, times(2)).getMessages(1, null, null, TAIL_MESSAGES);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), anyString());
+    }
+
+    @Test
+    void savedConversationsAreAppendedToTheCachedList() {
+        when(delegate.findByUserId(7)).thenReturn(List.of(new Conversation(1, "first", 7, LocalDateTime.now())));
+        repository.findByUserId(7);
+
+        Conversation created = new Conversation(2, "second", 7, LocalDateTime.now());
+        repository.save(created);
+
+        assertEquals(2, repository.findByUserId(7).size());
+        verify(delegate, times(1)).findByUserId(7);
+    }
+
+    @Test
+    void invalidationsFromOtherInstancesDropTheLocalEntry() {
+        when(delegate.findByUserId(7)).thenReturn(List.of(new Conversation(1, "first", 7, LocalDateTime.now())));
+        repository.findByUserId(7);
+
+        repository.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "other-node|user|7".getBytes(StandardCharsets.UTF_8)), null);
+        repository.findByUserId(7);
+
+        verify(delegate, times(2)).findByUserId(7);
+    }
+
+    private static List<Message> messages(int firstId, int lastId) {
+        List<Message> messages = new ArrayList<>();
+        for (int id = firstId; id <= lastId; id++) {
+            messages.add(new Message(id, "message " + id, LocalDateTime.now(), id % 2 == 1));
+        }
+        return messages;
+    }
+
+    private static List<Integer> ids(int firstId, int lastId) {
+        return ids(messages(firstId, lastId));
+    }
+
+    private static List<Integer> ids(List<Message> messages) {
+        return messages.stream().map(Message::getId).toList();
+    }
+}
@@ -0,0 +1,95 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.User;
+import chatbot.domain.repository.DuplicateEmailException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class EmailFilterUserRepositoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private HikariDataSource dataSource;
+    private EmailFilterUserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/test-schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (name, email, password) VALUES ('Alice', 'alice@example.com', 'secret')");
+        repository = new EmailFilterUserRepository(new JdbcUserRepository(jdbcTemplate), redisTemplate, meterRegistry,
+                "chat:users:registered", 1000, 0.01);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void freeEmailsAreAnsweredFromTheWarmFilter() {
+        assertTrue(repository.existsByEmail("alice@example.com"));
+        assertEquals(1, checks("cold"));
+
+        repository.warm();
+
+        assertFalse(repository.existsByEmail("bob@example.com"));
+        assertTrue(repository.existsByEmail("alice@example.com"));
+        assertEquals(1, checks("absent"));
+        assertEquals(1, checks("present"));
+    }
+
+    @Test
+    void savedEmailsAreRememberedAndDuplicatesTranslated() {
+        repository.warm();
+
+        repository.save(new User(null, "Bob", "bob@example.com", "secret"));
+        assertTrue(repository.existsByEmail("bob@example.com"));
+        verify(redisTemplate).convertAndSend(eq("chat:users:registered"), anyString());
+
+        assertThrows(DuplicateEmailException.class,
+                () -> repository.save(new User(null, "Bob again", "bob@example.com", "secret")));
+    }
+
+    @Test
+    void filterStaysNearItsTargetFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    private double checks(String result) {
+        return meterRegistry.counter("chat.users.email_filter.checks", "result", result).count();
+    }
+}
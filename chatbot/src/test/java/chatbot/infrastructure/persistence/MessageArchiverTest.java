@@ -0,0 +1,114 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Message;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageArchiverTest {
+
+    private static final LocalDateTime OLD = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcConversationRepository repository;
+    private MessageArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/test-schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password) VALUES (1, 'Alice', 'alice@example.com', 'secret')");
+        jdbcTemplate.update("INSERT INTO conversations (id, name, user_id, created_at) VALUES (1, 'cold', 1, ?), (2, 'active', 1, ?)",
+                Timestamp.valueOf(OLD), Timestamp.valueOf(OLD));
+
+        MessageArchive archive = new MessageArchive(jdbcTemplate);
+        MessageBatchWriter writer = new MessageBatchWriter(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource())), new SimpleMeterRegistry(), false, 1, 1, 1, 1, 1);
+        repository = new JdbcConversationRepository(jdbcTemplate, writer, archive, 500, 60, 1000);
+        archiver = new MessageArchiver(jdbcTemplate, archive,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), new SimpleMeterRegistry(),
+                30, 10, 4, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void coldConversationsMoveToTheArchiveInChunks() {
+        insert(1, 10, OLD);
+        insert(2, 3, LocalDateTime.now());
+        assertEquals(13, count("SELECT COUNT(*) FROM message_search"));
+
+        assertEquals(10, archiver.run(LocalDateTime.now().minusDays(30)));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM messages WHERE conversation_id = 1"));
+        assertEquals(3, count("SELECT COUNT(*) FROM message_archive WHERE conversation_id = 1"));
+        assertEquals(10, count("SELECT archived_messages FROM conversations WHERE id = 1"));
+        assertEquals(0, count("SELECT archived_messages FROM conversations WHERE id = 2"));
+        assertEquals(3, count("SELECT COUNT(*) FROM messages WHERE conversation_id = 2"));
+        assertEquals(10, repository.countMessages(1));
+        // Archived messages leave the search index with their hot rows
+        assertEquals(0, count("SELECT COUNT(*) FROM message_search WHERE conversation_id = 1"));
+        assertEquals(3, count("SELECT COUNT(*) FROM message_search WHERE conversation_id = 2"));
+    }
+
+    @Test
+    void pagesSpanningTheArchiveAndTheHotTableReadAsOneHistory() {
+        List<Integer> ids = insert(1, 10, OLD);
+        archiver.run(LocalDateTime.now().minusDays(30));
+        // The conversation becomes active again after it was archived
+        ids.addAll(insert(1, 3, LocalDateTime.now()));
+
+        assertEquals(ids.subList(5, 13), ids(repository.getMessages(1, null, null, 8)));
+        assertEquals(ids.subList(2, 7), ids(repository.getMessages(1, ids.get(7), null, 5)));
+        assertEquals(ids.subList(8, 12), ids(repository.getMessages(1, null, ids.get(7), 4)));
+        assertEquals(ids.subList(0, 13), ids(repository.getMessages(1, null, null, 50)));
+        assertEquals(ids.subList(10, 13), ids(repository.getRecentMessages(1, 3).messages()));
+        assertEquals(13, repository.getRecentMessages(1, 3).total());
+
+        List<Message> streamed = new ArrayList<>();
+        repository.forEachMessage(1, streamed::add);
+        assertEquals(ids, ids(streamed));
+        assertEquals("message 0", streamed.get(0).getContent());
+        assertEquals(OLD, streamed.get(0).getTimestamp());
+    }
+
+    private List<Integer> insert(int conversationId, int count, LocalDateTime timestamp) {
+        int start = count("SELECT COUNT(*) FROM messages WHERE conversation_id = " + conversationId);
+        MessageSearchIndex.insertIndexed(jdbcTemplate, IntStream.range(0, count)
+                .mapToObj(i -> new Object[]{"message " + (start + i), Timestamp.valueOf(timestamp), i % 2 == 0, conversationId})
+                .toList());
+        return new ArrayList<>(jdbcTemplate.queryForList(
+                "SELECT id FROM messages WHERE conversation_id = ? ORDER BY id DESC LIMIT ?", Integer.class, conversationId, count)
+                .reversed());
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+    private static List<Integer> ids(List<Message> messages) {
+        return messages.stream().map(Message::getId).toList();
+    }
+}
@@ -0,0 +1,165 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Message;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageBatchWriterTest {
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private MessageBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("db/test-schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password) VALUES (1, 'Alice', 'alice@example.com', 'secret')");
+        jdbcTemplate.update("INSERT INTO conversations (id, name, user_id, created_at) VALUES (1, 'a', 1, ?), (2, 'b', 1, ?)",
+                Timestamp.valueOf(LocalDateTime.now()), Timestamp.valueOf(LocalDateTime.now()));
+        // Stands in for a row the database rejects
+        jdbcTemplate.execute("ALTER TABLE messages ADD CONSTRAINT no_poison CHECK (content <> 'poison')");
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) writer.stop();
+        dataSource.close();
+    }
+
+    @Test
+    void queuedWritesAreBatchedInOrderAndVisibleAfterAwaitFlushed() {
+        writer = start(3, 20, 2000);
+        for (int i = 0; i < 7; i++) {
+            writer.write(1 + i % 2, List.of(message("m" + i)));
+        }
+
+        writer.awaitFlushed(1);
+        writer.awaitFlushed(2);
+
+        assertEquals(List.of("m0", "m2", "m4", "m6"), contents(1));
+        assertEquals(List.of("m1", "m3", "m5"), contents(2));
+        assertTrue(meterRegistry.summary("chat.messages.write_behind.batch.size").max() > 1);
+    }
+
+    @Test
+    void aFailingConversationIsDeadLetteredWithoutLosingTheRestOfTheBatch() {
+        writer = start(10, 200, 5000);
+        writer.write(1, List.of(message("hello")));
+        writer.write(2, List.of(message("fine"), message("poison")));
+        writer.write(1, List.of(message("world")));
+
+        writer.awaitFlushed(1);
+        writer.awaitFlushed(2);
+
+        assertEquals(List.of("hello", "world"), contents(1));
+        assertEquals(List.of(), contents(2));
+        assertEquals(List.of("fine", "poison"), jdbcTemplate.queryForList(
+                "SELECT content FROM message_dead_letter WHERE conversation_id = 2 ORDER BY id", String.class));
+        assertEquals(2, meterRegistry.counter("chat.messages.write_behind.dead_lettered").count());
+        assertEquals(0, meterRegistry.counter("chat.messages.write_behind.failed").count());
+    }
+
+    @Test
+    void writesAreHeldWhileNothingAcceptsThemAndStoredOnceItDoes() throws InterruptedException {
+        jdbcTemplate.execute("ALTER TABLE message_dead_letter RENAME TO message_dead_letter_offline");
+        writer = start(10, 20, 500);
+        writer.write(2, List.of(message("poison")));
+
+        // A read must not go ahead of the held write
+        assertThrows(TransientDataAccessResourceException.class, () -> writer.awaitFlushed(2));
+        assertEquals(List.of(), contents(2));
+
+        jdbcTemplate.execute("ALTER TABLE message_dead_letter_offline RENAME TO message_dead_letter");
+        // Poll until the writer's next retry lands
+        for (int i = 0; i < 50 && count("message_dead_letter") == 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(1, count("message_dead_letter"));
+        assertEquals(0, meterRegistry.counter("chat.messages.write_behind.failed").count());
+    }
+
+    @Test
+    void stopDrainsTheQueueAndLaterWritesGoStraightToTheDatabase() throws InterruptedException {
+        // Long interval: nothing is flushed before stop() unless the drain does it
+        writer = start(1000, 60_000, 5000);
+        for (int i = 0; i < 5; i++) {
+            writer.write(1, List.of(message("m" + i)));
+        }
+
+        writer.stop();
+        writer.write(1, List.of(message("after")));
+
+        assertEquals(List.of("m0", "m1", "m2", "m3", "m4", "after"), contents(1));
+    }
+
+    @Test
+    void synchronousWriteFailuresReachTheCaller() throws InterruptedException {
+        writer = start(10, 20, 500);
+        writer.stop();
+
+        assertThrows(DataAccessException.class, () -> writer.write(1, List.of(message("poison"))));
+        writer.write(1, List.of(message("fine")));
+        assertEquals(List.of("fine"), contents(1));
+    }
+
+    @Test
+    void writesStillUnstoredWhenTheDrainTimesOutAreReleasedAndCounted() throws InterruptedException {
+        jdbcTemplate.execute("ALTER TABLE message_dead_letter RENAME TO message_dead_letter_offline");
+        writer = start(10, 20, 300);
+        writer.write(2, List.of(message("poison")));
+        writer.write(1, List.of(message("queued behind it")));
+
+        writer.stop();
+        writer.awaitFlushed(1);
+        writer.awaitFlushed(2);
+
+        assertEquals(2, meterRegistry.counter("chat.messages.write_behind.failed").count());
+        long start = System.nanoTime();
+        writer.awaitFlushed(2);
+        assertTrue(System.nanoTime() - start < 100_000_000L, "nothing left pending");
+    }
+
+    private MessageBatchWriter start(int batchSize, long flushIntervalMs, long drainTimeoutMs) {
+        MessageBatchWriter started = new MessageBatchWriter(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), meterRegistry,
+                true, 100, batchSize, flushIntervalMs, 100, drainTimeoutMs);
+        started.start();
+        return started;
+    }
+
+    private static Message message(String content) {
+        return new Message(null, content, LocalDateTime.now(), true);
+    }
+
+    private List<String> contents(int conversationId) {
+        return jdbcTemplate.queryForList("SELECT content FROM messages WHERE conversation_id = ? ORDER BY id", String.class, conversationId);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,105 @@
+package chatbot.infrastructure.persistence;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Applies the Flyway migrations to the MySQL version used in docker-compose and checks that the hot
+// repository queries keep using their indexes. Skipped where Docker is not available.
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanTest {
+
+    @Container
+    private static final MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withCommand("--log-bin-trust-function-creators=1");
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrateAndSeed() {
+        Flyway.configure()
+                .dataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword()));
+
+        // Enough rows that the optimizer prefers the indexes over scanning the tables
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            users.add(new Object[]{"User " + i, "user" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password) VALUES (?, ?, 'secret')", users);
+        jdbcTemplate.update("INSERT INTO conversations (name, user_id, created_at) SELECT CONCAT('Chat ', u.id, '-', n.n), u.id, NOW() "
+                + "FROM users u CROSS JOIN (SELECT 1 n UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5) n");
+        jdbcTemplate.update("INSERT INTO messages (content, timestamp, is_user, conversation_id) SELECT CONCAT('Message ', n.n), NOW(), n.n % 2 = 0, c.id "
+                + "FROM conversations c CROSS JOIN (SELECT 1 n UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5 "
+                + "UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9 UNION ALL SELECT 10) n");
+        // Indexed for search the way MessageSearchIndex does it when the application writes messages
+        jdbcTemplate.update("INSERT INTO message_search (message_id, conversation_id, user_id, scope, content, timestamp, is_user) "
+                + "SELECT m.id, m.conversation_id, c.user_id, CONCAT('chatowner', c.user_id), m.content, m.timestamp, m.is_user "
+                + "FROM messages m JOIN conversations c ON c.id = m.conversation_id");
+        jdbcTemplate.execute("ANALYZE TABLE users, conversations, messages, message_search");
+    }
+
+    @Test
+    void conversationsOfAUserAreReadFromTheCoveringIndex() {
+        Map<String, Object> plan = explain(JdbcConversationRepository.FIND_BY_USER_ID_SQL, 42);
+
+        assertEquals("idx_conversations_user_id", plan.get("key"));
+        assertEquals("ref", plan.get("type"));
+        assertTrue(extra(plan).contains("Using index"), "expected an index-only read: " + plan);
+        assertFalse(extra(plan).contains("filesort"), plan.toString());
+    }
+
+    @Test
+    void messagePagesAreRangeScansOfOnePartition() {
+        List<Map<String, Object>> plans = List.of(
+                explain(JdbcConversationRepository.messagePageSql(false, false), 7, 50),
+                explain(JdbcConversationRepository.messagePageSql(false, true), 7, 1000, 50),
+                explain(JdbcConversationRepository.messagePageSql(true, false), 7, 10, 50),
+                explain(JdbcConversationRepository.messagePageSql(true, true), 7, 10, 1000, 50));
+
+        for (Map<String, Object> plan : plans) {
+            assertEquals("PRIMARY", plan.get("key"), plan.toString());
+            assertFalse(String.valueOf(plan.get("partitions")).contains(","), "expected partition pruning: " + plan);
+            assertFalse(extra(plan).contains("filesort"), plan.toString());
+        }
+    }
+
+    @Test
+    void searchesReadTheFullTextIndexAndStayWithinTheOwner() {
+        String query = JdbcMessageSearchRepository.booleanQuery(42, List.of("message"));
+        Map<String, Object> plan = explain(JdbcMessageSearchRepository.SEARCH_SQL, query, query, 42, 20, 0);
+        assertEquals("fulltext", plan.get("type"), plan.toString());
+        assertEquals("ft_message_search", plan.get("key"), plan.toString());
+
+        // Every message is indexed; user 42 owns five conversations of ten messages each
+        JdbcMessageSearchRepository repository = new JdbcMessageSearchRepository(jdbcTemplate);
+        assertEquals(50, repository.search(42, List.of("mess"), 0, 100).size());
+        Integer owner = jdbcTemplate.queryForObject("SELECT user_id FROM conversations WHERE id = ?", Integer.class,
+                repository.search(42, List.of("message"), 0, 1).get(0).conversationId());
+        assertEquals(42, owner);
+    }
+
+    private static Map<String, Object> explain(String sql, Object... args) {
+        return jdbcTemplate.queryForList("EXPLAIN " + sql, args).get(0);
+    }
+
+    private static String extra(Map<String, Object> plan) {
+        return String.valueOf(plan.get("Extra"));
+    }
+}
@@ -0,0 +1,147 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Conversation;
+import chatbot.domain.entity.Message;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+// Two in-memory databases seeded with different names, so each read shows which one answered it
+class ReadWriteRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private final AtomicInteger replicaConnections = new AtomicInteger();
+    private JdbcConversationRepository conversationRepository;
+    private JdbcUserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        primaryJdbc = new JdbcTemplate(primary);
+        replicaJdbc = new JdbcTemplate(replica);
+
+        DataSource countingReplica = new DelegatingDataSource(replica) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                replicaConnections.incrementAndGet();
+                return super.getConnection();
+            }
+        };
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new ReadWriteRoutingDataSource(primary, countingReplica, Duration.ofMinutes(1)));
+        MessageBatchWriter writer = new MessageBatchWriter(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource())), new SimpleMeterRegistry(), false, 1, 1, 1, 1, 1);
+        conversationRepository = new JdbcConversationRepository(jdbcTemplate, writer, new MessageArchive(jdbcTemplate), 500, 60, 1000);
+        userRepository = new JdbcUserRepository(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyQueriesGoToTheReplica() {
+        assertEquals("replica", conversationRepository.findById(1).getName());
+        assertEquals("replica", conversationRepository.findByUserId(1).get(0).getName());
+        assertEquals("replica", conversationRepository.getMessages(1, null, null, 10).get(0).getContent());
+        assertEquals("replica", userRepository.findByEmail("alice@example.com").orElseThrow().getName());
+        assertEquals("replica", userRepository.findById(1).orElseThrow().getName());
+    }
+
+    @Test
+    void writesAndModelContextGoToThePrimary() {
+        conversationRepository.save(new Conversation(null, "new", 1, LocalDateTime.now()));
+        conversationRepository.addMessages(1, List.of(new Message(null, "turn", LocalDateTime.now(), true)));
+        conversationRepository.renameConversation(1, "renamed");
+
+        assertEquals(1, count(primaryJdbc, "SELECT COUNT(*) FROM conversations WHERE name = 'new'"));
+        assertEquals(1, count(primaryJdbc, "SELECT COUNT(*) FROM messages WHERE content = 'turn'"));
+        assertEquals(1, count(primaryJdbc, "SELECT COUNT(*) FROM conversations WHERE name = 'renamed'"));
+        assertEquals(0, count(replicaJdbc, "SELECT COUNT(*) FROM conversations WHERE name IN ('new', 'renamed')"));
+        assertEquals(0, count(replicaJdbc, "SELECT COUNT(*) FROM messages WHERE content = 'turn'"));
+
+        List<Message> context = conversationRepository.getRecentMessages(1, 10).messages();
+        assertEquals(List.of("primary", "turn"), context.stream().map(Message::getContent).toList());
+    }
+
+    @Test
+    void theTailCacheIsNotLoadedFromALaggingReplica() {
+        CachingConversationRepository caching = new CachingConversationRepository(conversationRepository,
+                mock(StringRedisTemplate.class), new SimpleMeterRegistry(), "test:invalidate", 10, 1_000_000, 1_000_000,
+                Duration.ofMinutes(10));
+
+        caching.addMessages(1, List.of(new Message(null, "turn", LocalDateTime.now(), true)));
+
+        // The replica never receives the turn; the cached latest page still shows it
+        assertEquals(List.of("primary", "turn"), caching.getMessages(1, null, null, 10).stream().map(Message::getContent).toList());
+        assertEquals(List.of("primary", "turn"), caching.getMessages(1, null, null, 5).stream().map(Message::getContent).toList());
+        // Reads outside the tail still go to the replica
+        assertEquals("replica", conversationRepository.getMessages(1, null, null, 10).get(0).getContent());
+    }
+
+    @Test
+    void ownershipOfAConversationNotYetReplicatedIsCheckedOnThePrimary() {
+        Conversation conversation = new Conversation(null, "new", 1, LocalDateTime.now());
+        conversationRepository.save(conversation);
+
+        assertTrue(conversationRepository.existsForUser(conversation.getId(), 1));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() {
+        replica.close();
+
+        assertEquals("primary", conversationRepository.findById(1).getName());
+        assertEquals("primary", userRepository.findByEmail("alice@example.com").orElseThrow().getName());
+        // Only the first read waited for the replica; the others went straight to the primary
+        assertEquals(1, replicaConnections.get());
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName(name);
+        dataSource.setConnectionTimeout(250);
+        new ResourceDatabasePopulator(new ClassPathResource("db/test-schema.sql")).execute(dataSource);
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (id, name, email, password) VALUES (1, ?, 'alice@example.com', 'secret')", name);
+        jdbc.update("INSERT INTO conversations (id, name, user_id, created_at) VALUES (1, ?, 1, ?)",
+                name, Timestamp.valueOf(LocalDateTime.now()));
+        jdbc.update("INSERT INTO messages (content, timestamp, is_user, conversation_id) VALUES (?, ?, TRUE, 1)",
+                name, Timestamp.valueOf(LocalDateTime.now()));
+        return dataSource;
+    }
+
+    private static int count(JdbcTemplate jdbc, String sql) {
+        return jdbc.queryForObject(sql, Integer.class);
+    }
+}
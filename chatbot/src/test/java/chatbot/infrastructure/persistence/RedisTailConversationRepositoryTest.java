@@ -0,0 +1,105 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
+import chatbot.domain.repository.ConversationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisTailConversationRepositoryTest {
+
+    private static final int TAIL_SIZE = 6;
+
+    private ConversationRepository delegate;
+    private StringRedisTemplate redisTemplate;
+    private RedisTailConversationRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(ConversationRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        repository = new RedisTailConversationRepository(delegate, redisTemplate, new SimpleMeterRegistry(),
+                TAIL_SIZE, Duration.ofHours(1), Duration.ofSeconds(2));
+    }
+
+    @Test
+    void coldTailIsHydratedFromTheDatabase() {
+        when(delegate.getRecentMessages(1, TAIL_SIZE)).thenReturn(new MessageWindow(messages(5, 10), 10));
+
+        MessageWindow window = repository.getRecentMessages(1, 4);
+
+        assertEquals(List.of(7, 8, 9, 10), window.messages().stream().map(Message::getId).toList());
+        assertEquals(10, window.total());
+        verify(redisTemplate).execute(argThat(script("'DEL'")), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void warmTailIsServedWithoutTheDatabase() {
+        List<String> cached = new ArrayList<>();
+        cached.add("12");
+        cached.add("{\"id\":11,\"content\":\"hello\",\"timestamp\":\"2024-01-01T10:00\",\"user\":true}");
+        cached.add("{\"id\":null,\"content\":\"hi there\",\"timestamp\":\"2024-01-01T10:00:01\",\"user\":false}");
+        when(redisTemplate.execute(argThat(script("LRANGE")), anyList(), any(Object[].class))).thenReturn(cached);
+
+        MessageWindow window = repository.getRecentMessages(1, 4);
+
+        assertEquals(12, window.total());
+        assertEquals("hello", window.messages().get(0).getContent());
+        assertNull(window.messages().get(1).getId());
+        assertEquals(false, window.messages().get(1).getIsUser());
+        verify(delegate, never()).getRecentMessages(any(), anyInt());
+    }
+
+    @Test
+    void emptyConversationsAreNotCached() {
+        when(delegate.getRecentMessages(1, TAIL_SIZE)).thenReturn(new MessageWindow(List.of(), 0));
+
+        repository.getRecentMessages(1, 4);
+
+        verify(redisTemplate, never()).execute(argThat(script("'DEL'")), anyList(), any(Object[].class));
+    }
+
+    @Test
+    void addedMessagesArePersistedAndAppendedToTheTail() {
+        List<Message> turn = List.of(new Message(null, "q", LocalDateTime.now(), true),
+                new Message(null, "a", LocalDateTime.now(), false));
+
+        repository.addMessages(1, turn);
+
+        verify(delegate).addMessages(1, turn);
+        verify(redisTemplate).execute(argThat(script("INCRBY")), anyList(), any(Object[].class));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static ArgumentMatcher<RedisScript> script(String fragment) {
+        return script -> script != null && script.getScriptAsString().contains(fragment);
+    }
+
+    private static List<Message> messages(int firstId, int lastId) {
+        List<Message> messages = new ArrayList<>();
+        for (int id = firstId; id <= lastId; id++) {
+            messages.add(new Message(id, "message " + id, LocalDateTime.now(), id % 2 == 1));
+        }
+        return messages;
+    }
+}
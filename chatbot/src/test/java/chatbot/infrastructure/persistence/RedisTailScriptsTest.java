@@ -0,0 +1,110 @@
+package chatbot.infrastructure.persistence;
+
+import chatbot.domain.entity.Message;
+import chatbot.domain.entity.MessageWindow;
+import chatbot.domain.repository.ConversationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Runs the tail Lua scripts against the Redis version used in docker-compose. Skipped where Docker is not available.
+@Testcontainers(disabledWithoutDocker = true)
+class RedisTailScriptsTest {
+
+    private static final int TAIL_SIZE = 6;
+
+    @Container
+    private static final GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private ConversationRepository delegate;
+    private RedisTailConversationRepository repository;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        delegate = mock(ConversationRepository.class);
+        repository = new RedisTailConversationRepository(delegate, redisTemplate, new SimpleMeterRegistry(),
+                TAIL_SIZE, Duration.ofHours(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void appendsToAWarmTailAreTrimmedCountedAndServedWithoutTheDatabase() {
+        when(delegate.getRecentMessages(1, TAIL_SIZE)).thenReturn(new MessageWindow(messages(5, 10), 10));
+        repository.getRecentMessages(1, TAIL_SIZE);
+
+        repository.addMessages(1, messages(11, 12));
+        MessageWindow window = repository.getRecentMessages(1, TAIL_SIZE);
+
+        assertEquals(List.of(7, 8, 9, 10, 11, 12), window.messages().stream().map(Message::getId).toList());
+        assertEquals(12, window.total());
+        assertEquals(TAIL_SIZE, redisTemplate.opsForList().size("chat:{1}:tail"));
+        assertTrue(redisTemplate.getExpire("chat:{1}:tail") > 0);
+        assertTrue(redisTemplate.getExpire("chat:{1}:total") > 0);
+        verify(delegate, times(1)).getRecentMessages(eq(1), anyInt());
+    }
+
+    @Test
+    void anAppendToAColdTailKeepsItColdAndHoldsOffHydration() {
+        repository.addMessages(1, messages(1, 2));
+
+        assertFalse(redisTemplate.hasKey("chat:{1}:total"));
+        assertFalse(redisTemplate.hasKey("chat:{1}:tail"));
+        assertTrue(redisTemplate.hasKey("chat:{1}:hydrate-hold-off"));
+
+        // A read in the hold-off window must not cache a database window that may predate the append
+        when(delegate.getRecentMessages(1, TAIL_SIZE)).thenReturn(new MessageWindow(messages(1, 1), 1));
+        assertEquals(1, repository.getRecentMessages(1, TAIL_SIZE).total());
+        assertFalse(redisTemplate.hasKey("chat:{1}:total"));
+    }
+
+    private static List<Message> messages(int firstId, int lastId) {
+        List<Message> messages = new ArrayList<>();
+        for (int id = firstId; id <= lastId; id++) {
+            messages.add(new Message(id, "message " + id, LocalDateTime.now(), id % 2 == 1));
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,74 @@
+package chatbot.infrastructure.security;
+
+import chatbot.application.service.AdmissionRejectedException;
+import chatbot.application.service.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BcryptPasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BcryptPasswordHasher hasher = new BcryptPasswordHasher(meterRegistry, 4, 2, 16, 5_000);
+
+    @AfterEach
+    void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashesVerifyAndCarryTheirCost() {
+        String hash = PasswordHasher.await(hasher.hash("secret"));
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(PasswordHasher.await(hasher.matches("secret", hash)));
+        assertFalse(PasswordHasher.await(hasher.matches("Secret", hash)));
+        assertFalse(hasher.needsRehash(hash));
+
+        BcryptPasswordHasher stronger = new BcryptPasswordHasher(meterRegistry, 5, 1, 16, 5_000);
+        try {
+            assertTrue(stronger.needsRehash(hash));
+            assertTrue(PasswordHasher.await(stronger.matches("secret", hash)));
+        } finally {
+            stronger.shutdown();
+        }
+    }
+
+    @Test
+    void legacyPlaintextPasswordsMatchAndNeedARehash() {
+        assertTrue(PasswordHasher.await(hasher.matches("password123", "password123")));
+        assertFalse(PasswordHasher.await(hasher.matches("password12", "password123")));
+        assertTrue(hasher.needsRehash("password123"));
+    }
+
+    @Test
+    void passwordsBcryptWouldTruncateAreRefused() {
+        assertThrows(IllegalArgumentException.class, () -> PasswordHasher.await(hasher.hash("x".repeat(73))));
+    }
+
+    @Test
+    void workBeyondTheQueueIsShed() {
+        BcryptPasswordHasher saturated = new BcryptPasswordHasher(meterRegistry, 10, 1, 1, 5_000);
+        try {
+            // One hash running, one queued, the third has nowhere to go
+            CompletableFuture<String> running = saturated.hash("one");
+            CompletableFuture<String> queued = saturated.hash("two");
+            CompletableFuture<String> shed = saturated.hash("three");
+
+            AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class, () -> PasswordHasher.await(shed));
+            assertTrue(e.getMessage().contains("Server busy"));
+            assertTrue(PasswordHasher.await(running).startsWith("$2a$10$"));
+            assertTrue(PasswordHasher.await(queued).startsWith("$2a$10$"));
+            assertEquals(1, meterRegistry.counter("chat.auth.password.rejected", "reason", "queue_full").count());
+        } finally {
+            saturated.shutdown();
+        }
+    }
+}
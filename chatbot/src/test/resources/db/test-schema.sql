@@ -0,0 +1,60 @@
+-- Same tables as the db/migration scripts, in a form H2 accepts
+CREATE TABLE users (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE conversations (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255),
+    user_id INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_messages INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE messages (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    content TEXT NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    is_user BOOLEAN NOT NULL,
+    conversation_id INT NOT NULL,
+    FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_messages_conversation_id_id ON messages (conversation_id, id);
+CREATE INDEX idx_conversations_user_id ON conversations (user_id, id, name, created_at);
+
+CREATE TABLE message_search (
+    message_id INT PRIMARY KEY,
+    conversation_id INT NOT NULL,
+    user_id INT NOT NULL,
+    scope VARCHAR(32) NOT NULL,
+    content TEXT NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    is_user BOOLEAN NOT NULL,
+    FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE CASCADE
+);
+
+CREATE TABLE message_archive (
+    conversation_id INT NOT NULL,
+    first_id INT NOT NULL,
+    last_id INT NOT NULL,
+    message_count INT NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    payload BLOB NOT NULL,
+    PRIMARY KEY (conversation_id, first_id),
+    FOREIGN KEY (conversation_id) REFERENCES conversations(id) ON DELETE CASCADE
+);
+
+CREATE TABLE message_dead_letter (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    conversation_id INT NOT NULL,
+    content CLOB NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    is_user BOOLEAN NOT NULL,
+    error VARCHAR(1000),
+    failed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);